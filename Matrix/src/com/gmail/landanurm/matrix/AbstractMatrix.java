@@ -0,0 +1,159 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Iterator;
+
+/**
+ * Skeletal implementation of {@link Matrix} on top of {@link #get(Position)}
+ * and {@link #set(Position, Object)}. Subclasses override bulk operations
+ * when their backing store allows something faster than cell by cell access.
+ * <p>
+ * {@link #equals(Object)} and {@link #hashCode()} follow the same contract
+ * as {@link ArrayMatrix}, so implementations with equal contents are equal.
+ */
+abstract class AbstractMatrix<T> implements Matrix<T> {
+
+	protected final Dimension dim;
+	protected final int numberOfElements;
+
+	protected AbstractMatrix(Dimension dim) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				if (elementsAreEqual(get(Position.withRowColumn(row, column)), elem)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		for (T each : elements) {
+			if (!contains(each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				if (elementsAreEqual(get(Position.withRowColumn(row, column)), elem)) {
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void fill(T value) {
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				set(Position.withRowColumn(row, column), value);
+			}
+		}
+	}
+
+	@Override
+	public void forEach(final OnEachHandler<T> onEachHandler) {
+		forEach(new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int row, int column, T elem) {
+				onEachHandler.handle(Position.withRowColumn(row, column), elem);
+			}
+		});
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, get(Position.withRowColumn(row, column)));
+			}
+		}
+	}
+
+	@Override
+	public void swap(Position pos1, Position pos2) {
+		T temp = get(pos1);
+		set(pos1, get(pos2));
+		set(pos2, temp);
+	}
+
+	protected static boolean elementsAreEqual(Object e1, Object e2) {
+		return (e1 == null)
+					? (e2 == null)
+					: (e1.equals(e2));
+	}
+
+	protected void checkPosition(Position pos) {
+		checkPosition(pos.row, pos.column);
+	}
+
+	protected void checkPosition(int row, int column) {
+		checkPosition(dim, row, column);
+	}
+
+	static void checkPosition(Dimension dim, int row, int column) {
+		if (row < 0 || column < 0) {
+			throw new IllegalArgumentException(stringByRowColumn(row, column));
+		}
+		if (row >= dim.rows || column >= dim.columns) {
+			throw new IndexOutOfBoundsException(stringByRowColumn(row, column));
+		}
+	}
+
+	private static String stringByRowColumn(int row, int column) {
+		return "[" + row + ", " + column + "]";
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (!dim.equals(other.getDimension())) {
+			return false;
+		}
+		Iterator<T> elements = iterator();
+		for (Object each : other) {
+			if (!elementsAreEqual(elements.next(), each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (T each : this) {
+			totalHashCode += (each == null) ? 0 : each.hashCode();
+		}
+		return totalHashCode + dim.hashCode();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return MatrixIterator.of(this);
+	}
+}
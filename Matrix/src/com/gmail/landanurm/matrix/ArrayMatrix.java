@@ -1,7 +1,17 @@
 package com.gmail.landanurm.matrix;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 
 
 
@@ -10,27 +20,114 @@ public class ArrayMatrix<T> implements Matrix<T>, Serializable {
 	
 	private final Dimension dim;
 	private final int numberOfElements;
+	private final Order order;
+	private final int rowStride;
+	private final int columnStride;
 	private final T[] values;
+	/** Only set while a matrix from an old stream is being read. */
+	private transient ArrayMatrix<?> legacyReplacement;
 
 	
 	public static <ElemType> ArrayMatrix<ElemType> copyOf(Matrix<ElemType> other) {
-		return new ArrayMatrix<ElemType>(other);
+		return copyOf(other, Order.ROW_MAJOR);
 	}
-	
-	private ArrayMatrix(Matrix<T> other) {
-		this(other.getDimension());
-		other.forEach(new OnEachHandler<T>() {
+
+	public static <ElemType> ArrayMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		return copyOf(other, Order.ROW_MAJOR);
+	}
+
+	/**
+	 * Same as {@link #copyOf(ReadOnlyMatrix, Order)}; kept so that code
+	 * compiled against the {@link Matrix} signature still links.
+	 */
+	public static <ElemType> ArrayMatrix<ElemType> copyOf(Matrix<ElemType> other, Order order) {
+		return copyOf((ReadOnlyMatrix<ElemType>) other, order);
+	}
+
+	/**
+	 * Copies another matrix into a new one stored in the given order. From
+	 * another {@link ArrayMatrix} the backing array is copied in bulk when
+	 * both use the same order, and transposed block by block when they do
+	 * not. A {@link ComputedMatrix} is computed straight into the new backing
+	 * array in parallel.
+	 */
+	public static <ElemType> ArrayMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other, Order order) {
+		final ArrayMatrix<ElemType> copy = new ArrayMatrix<ElemType>(other.getDimension(), order);
+		if (other instanceof ArrayMatrix<?>) {
+			ArrayMatrix<ElemType> source = (ArrayMatrix<ElemType>) other;
+			if (source.order == order) {
+				System.arraycopy(source.values, 0, copy.values, 0, copy.numberOfElements);
+			} else {
+				int lineLength = (source.order == Order.ROW_MAJOR) ? copy.dim.columns : copy.dim.rows;
+				transpose(source.values, copy.values, lineLength);
+			}
+			return copy;
+		}
+		if (other instanceof ComputedMatrix<?>) {
+			((ComputedMatrix<?>) other).materialize(copy.values, 0, copy.numberOfElements, order);
+			return copy;
+		}
+		other.forEach(new OnEachCellHandler<ElemType>() {
 			@Override
-			public void handle(Position pos, T elem) {
-				set(pos, elem);
+			public void handle(int row, int column, ElemType elem) {
+				copy.values[copy.indexByRowColumn(row, column)] = elem;
 			}
 		});
+		return copy;
+	}
+
+	private static final int TRANSPOSE_BLOCK = 32;
+
+	/**
+	 * Copies {@code source}, made of lines of {@code lineLength} elements,
+	 * into {@code target} so that the lines become its columns. It works on
+	 * square blocks, so both arrays are read and written a few cache lines at
+	 * a time instead of one element per cache line on one side.
+	 */
+	private static void transpose(Object[] source, Object[] target, int lineLength) {
+		int lines = source.length / lineLength;
+		for (int lineBlock = 0; lineBlock < lines; lineBlock += TRANSPOSE_BLOCK) {
+			int lineEnd = Math.min(lineBlock + TRANSPOSE_BLOCK, lines);
+			for (int offsetBlock = 0; offsetBlock < lineLength; offsetBlock += TRANSPOSE_BLOCK) {
+				int offsetEnd = Math.min(offsetBlock + TRANSPOSE_BLOCK, lineLength);
+				for (int line = lineBlock; line < lineEnd; ++line) {
+					for (int offset = offsetBlock; offset < offsetEnd; ++offset) {
+						target[offset * lines + line] = source[line * lineLength + offset];
+					}
+				}
+			}
+		}
 	}
 	
 	public ArrayMatrix(Dimension dim) {
+		this(dim, Order.ROW_MAJOR);
+	}
+
+	/**
+	 * Creates a matrix whose backing array holds the cells in the given
+	 * order. Whatever the order, {@link #forEach(OnEachCellHandler)} and
+	 * {@link #iterator()} visit cells in row-major order; pass
+	 * {@link #getOrder()} to {@link #forEach(OnEachCellHandler, Order)} or
+	 * {@link #iterator(Order)} to scan the array sequentially.
+	 */
+	public ArrayMatrix(Dimension dim, Order order) {
+		this(dim, order, ArrayMatrix.<T>arrayByLength(dim.rows * dim.columns));
+	}
+
+	/**
+	 * Creates a row-major matrix backed by the given array, without copying.
+	 */
+	ArrayMatrix(Dimension dim, T[] rowMajorValues) {
+		this(dim, Order.ROW_MAJOR, rowMajorValues);
+	}
+
+	private ArrayMatrix(Dimension dim, Order order, T[] values) {
 		this.dim = dim;
 		this.numberOfElements = dim.rows * dim.columns;
-		this.values = arrayByLength(numberOfElements);
+		this.order = order;
+		this.rowStride = (order == Order.ROW_MAJOR) ? dim.columns : 1;
+		this.columnStride = (order == Order.ROW_MAJOR) ? 1 : dim.rows;
+		this.values = values;
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -38,6 +135,17 @@ public class ArrayMatrix<T> implements Matrix<T>, Serializable {
 		return (T[]) new Object[length];
 	}
 
+	/**
+	 * Returns the backing array, which holds the cells in {@link #getOrder()}.
+	 */
+	T[] values() {
+		return values;
+	}
+
+	public Order getOrder() {
+		return order;
+	}
+
 	@Override
     public boolean contains(T elem) {
 		for (T each : values) {
@@ -93,7 +201,11 @@ public class ArrayMatrix<T> implements Matrix<T>, Serializable {
 	}
 
 	private int indexByPosition(Position pos) {
-		return pos.row * dim.columns + pos.column;
+		return indexByRowColumn(pos.row, pos.column);
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		return row * rowStride + column * columnStride;
 	}
 	
 	private void checkPosition(Position pos) {
@@ -121,16 +233,110 @@ public class ArrayMatrix<T> implements Matrix<T>, Serializable {
 	}
 
 	@Override
-	public void forEach(OnEachHandler<T> onEachHandler) {
-		for (int i = 0; i < numberOfElements; ++i) {
-			onEachHandler.handle(positionByIndex(i), values[i]);
+	public void forEach(final OnEachHandler<T> onEachHandler) {
+		forEach(new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int row, int column, T elem) {
+				onEachHandler.handle(Position.withRowColumn(row, column), elem);
+			}
+		});
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		forEach(onEachCellHandler, Order.ROW_MAJOR);
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler, Order traversal) {
+		if (traversal == Order.ROW_MAJOR) {
+			for (int row = 0; row < dim.rows; ++row) {
+				int index = row * rowStride;
+				for (int column = 0; column < dim.columns; ++column, index += columnStride) {
+					onEachCellHandler.handle(row, column, values[index]);
+				}
+			}
+		} else {
+			for (int column = 0; column < dim.columns; ++column) {
+				int index = column * columnStride;
+				for (int row = 0; row < dim.rows; ++row, index += rowStride) {
+					onEachCellHandler.handle(row, column, values[index]);
+				}
+			}
 		}
 	}
 	
-	private Position positionByIndex(int index) {
-		int row = index / dim.columns;
-		int column = index % dim.columns;
-		return Position.withRowColumn(row, column);
+	/**
+	 * Views share this matrix's backing array: nothing is copied, and writes
+	 * through a view change this matrix. See {@link MatrixView}.
+	 */
+	public MatrixView<T> subMatrix(Position topLeft, Dimension subDim) {
+		return asView().subMatrix(topLeft, subDim);
+	}
+
+	public MatrixView<T> transposed() {
+		return asView().transposed();
+	}
+
+	public MatrixView<T> row(int row) {
+		return asView().row(row);
+	}
+
+	public MatrixView<T> column(int column) {
+		return asView().column(column);
+	}
+
+	private MatrixView<T> asView() {
+		return new MatrixView<T>(values, dim, 0, rowStride, columnStride);
+	}
+
+	/**
+	 * Parallel counterparts of {@link #fill(Object)}, {@link #count(Object)},
+	 * {@link #contains(Object)} and {@link #forEach(OnEachCellHandler)}.
+	 * They run on the given pool, or on the common pool if none is given.
+	 * Small matrices are processed sequentially in the calling thread. The
+	 * handler passed to parallelForEach is called concurrently and in no
+	 * particular order, so it must be thread-safe.
+	 */
+	public void parallelFill(T value) {
+		parallelFill(value, ForkJoinPool.commonPool());
+	}
+
+	public void parallelFill(T value, ForkJoinPool pool) {
+		ParallelArrayTasks.fill(pool, values, value);
+	}
+
+	public int parallelCount(T elem) {
+		return parallelCount(elem, ForkJoinPool.commonPool());
+	}
+
+	public int parallelCount(T elem, ForkJoinPool pool) {
+		return ParallelArrayTasks.count(pool, values, elem);
+	}
+
+	public boolean parallelContains(T elem) {
+		return parallelContains(elem, ForkJoinPool.commonPool());
+	}
+
+	public boolean parallelContains(T elem, ForkJoinPool pool) {
+		return ParallelArrayTasks.contains(pool, values, elem);
+	}
+
+	public void parallelForEach(OnEachCellHandler<T> onEachCellHandler) {
+		parallelForEach(onEachCellHandler, ForkJoinPool.commonPool());
+	}
+
+	public void parallelForEach(final OnEachCellHandler<T> onEachCellHandler, ForkJoinPool pool) {
+		if (order == Order.ROW_MAJOR) {
+			ParallelArrayTasks.forEach(pool, values, dim.columns, onEachCellHandler);
+			return;
+		}
+		ParallelArrayTasks.forEach(pool, values, dim.rows, new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int column, int row, T elem) {
+				onEachCellHandler.handle(row, column, elem);
+			}
+		});
 	}
 
 	@Override
@@ -145,16 +351,22 @@ public class ArrayMatrix<T> implements Matrix<T>, Serializable {
 		if (obj == this) {
 			return true;
 		}
-		if ((obj == null) || !(obj instanceof Matrix<?>)) {
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
 			return false;
 		}
-		Matrix<?> other = (Matrix<?>) obj;
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
 		if (!dim.equals(other.getDimension())) {
 			return false;
 		}
-		for (int i = 0; i < numberOfElements; ++i) {
-			Position pos = positionByIndex(i);
-			if (!elementsAreEqual(get(pos), other.get(pos))) {
+		if ((other instanceof ArrayMatrix<?>) && ((ArrayMatrix<?>) other).order == order) {
+			return Arrays.equals(values, ((ArrayMatrix<?>) other).values);
+		}
+		if ((other instanceof ImmutableMatrix<?>) && order == Order.ROW_MAJOR) {
+			return Arrays.equals(values, ((ImmutableMatrix<?>) other).values());
+		}
+		Iterator<T> elements = iterator();
+		for (Object each : other) {
+			if (!elementsAreEqual(elements.next(), each)) {
 				return false;
 			}
 		}
@@ -172,6 +384,110 @@ public class ArrayMatrix<T> implements Matrix<T>, Serializable {
 
 	@Override
 	public Iterator<T> iterator() {
-		return MatrixIterator.of(this);
+		return iterator(Order.ROW_MAJOR);
+	}
+
+	@Override
+	public Iterator<T> iterator(Order traversal) {
+		if (traversal == order) {
+			return MatrixIterator.overArray(values);
+		}
+		return MatrixIterator.acrossArray(values, (traversal == Order.ROW_MAJOR) ? dim.columns : dim.rows);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return (order == Order.ROW_MAJOR)
+					? MatrixSpliterator.overArray(values)
+					: MatrixSpliterator.of(this);
+	}
+
+	@Override
+	public Spliterator<Cell<T>> cellSpliterator() {
+		return (order == Order.ROW_MAJOR)
+					? MatrixSpliterator.cellsOfArray(values, dim.columns)
+					: MatrixSpliterator.cellsOf(this);
+	}
+
+	private Object writeReplace() {
+		return new SerializedForm(this);
+	}
+
+	/**
+	 * Matrices are written through {@link SerializedForm}, so this is only
+	 * reached for streams written before it existed, which hold the fields
+	 * {@code dim}, {@code numberOfElements} and {@code values} of a row-major
+	 * matrix. The fields are final, so the matrix is rebuilt here and
+	 * returned by {@link #readResolve()}.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		Object dimField = fields.get("dim", null);
+		Object valuesField = fields.get("values", null);
+		if (!(dimField instanceof Dimension) || !(valuesField instanceof Object[])) {
+			throw new InvalidObjectException("ArrayMatrix is serialized through SerializedForm");
+		}
+		Dimension legacyDim = (Dimension) dimField;
+		Object[] legacyValues = (Object[]) valuesField;
+		if (legacyValues.length != legacyDim.rows * legacyDim.columns) {
+			throw new InvalidObjectException(
+					legacyValues.length + " values for a matrix of dimension " + legacyDim);
+		}
+		ArrayMatrix<Object> matrix = new ArrayMatrix<Object>(legacyDim);
+		System.arraycopy(legacyValues, 0, matrix.values, 0, legacyValues.length);
+		legacyReplacement = matrix;
+	}
+
+	private Object readResolve() {
+		return legacyReplacement;
+	}
+
+	/**
+	 * Stands in for an {@link ArrayMatrix} in an object stream and writes it
+	 * in {@link MatrixFormat}, so boxed primitive cells are stored packed
+	 * instead of as one serialized object per cell.
+	 * <p>
+	 * The data starts with {@link #ORDERED_FORM} and the storage order, then
+	 * the matrix in row-major {@link MatrixFormat}. Streams from before the
+	 * storage order existed hold only the MatrixFormat data, which starts
+	 * with {@link MatrixFormat#MAGIC} instead, and are read as row-major.
+	 */
+	private static class SerializedForm implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private static final int ORDERED_FORM = 0x4d54584f;
+
+		private transient ArrayMatrix<?> matrix;
+
+		SerializedForm(ArrayMatrix<?> matrix) {
+			this.matrix = matrix;
+		}
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			out.writeInt(ORDERED_FORM);
+			out.writeByte(matrix.order.ordinal());
+			MatrixFormat.write(matrix, (DataOutput) out);
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException {
+			int form = in.readInt();
+			if (form == MatrixFormat.MAGIC) {
+				matrix = MatrixFormat.readAfterMagic((DataInput) in);
+				return;
+			}
+			if (form != ORDERED_FORM) {
+				throw new StreamCorruptedException("Unknown ArrayMatrix form " + Integer.toHexString(form));
+			}
+			int ordinal = in.readByte();
+			if (ordinal < 0 || ordinal >= Order.values().length) {
+				throw new InvalidObjectException("Unknown storage order " + ordinal);
+			}
+			ArrayMatrix<Object> rowMajor = MatrixFormat.read((DataInput) in);
+			Order order = Order.values()[ordinal];
+			matrix = (order == Order.ROW_MAJOR) ? rowMajor : copyOf(rowMajor, order);
+		}
+
+		private Object readResolve() {
+			return matrix;
+		}
 	}
 }
@@ -0,0 +1,165 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Matrix of {@code int} values with lock-free atomic updates of single
+ * cells, backed by an {@link AtomicIntegerArray}. The update functions may
+ * be called more than once under contention and must be free of side
+ * effects. {@link #fill(int)} is atomic only per cell.
+ */
+public final class AtomicIntMatrix {
+
+	private final Dimension dim;
+	private final int numberOfElements;
+	private final AtomicIntegerArray values;
+
+	public AtomicIntMatrix(Dimension dim) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+		this.values = new AtomicIntegerArray(numberOfElements);
+	}
+
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		AbstractMatrix.checkPosition(dim, row, column);
+		return row * dim.columns + column;
+	}
+
+	public int getInt(int row, int column) {
+		return values.get(indexByRowColumn(row, column));
+	}
+
+	public void setInt(int row, int column, int value) {
+		values.set(indexByRowColumn(row, column), value);
+	}
+
+	public int getAndSet(int row, int column, int value) {
+		return values.getAndSet(indexByRowColumn(row, column), value);
+	}
+
+	public boolean compareAndSet(int row, int column, int expected, int value) {
+		return values.compareAndSet(indexByRowColumn(row, column), expected, value);
+	}
+
+	public int getAndAdd(int row, int column, int delta) {
+		return values.getAndAdd(indexByRowColumn(row, column), delta);
+	}
+
+	public int addAndGet(int row, int column, int delta) {
+		return values.addAndGet(indexByRowColumn(row, column), delta);
+	}
+
+	public int incrementAndGet(int row, int column) {
+		return values.incrementAndGet(indexByRowColumn(row, column));
+	}
+
+	public int decrementAndGet(int row, int column) {
+		return values.decrementAndGet(indexByRowColumn(row, column));
+	}
+
+	public int getAndUpdate(int row, int column, IntUnaryOperator updateFunction) {
+		return values.getAndUpdate(indexByRowColumn(row, column), updateFunction);
+	}
+
+	public int updateAndGet(int row, int column, IntUnaryOperator updateFunction) {
+		return values.updateAndGet(indexByRowColumn(row, column), updateFunction);
+	}
+
+	public int getAndAccumulate(int row, int column, int x, IntBinaryOperator accumulatorFunction) {
+		return values.getAndAccumulate(indexByRowColumn(row, column), x, accumulatorFunction);
+	}
+
+	public int accumulateAndGet(int row, int column, int x, IntBinaryOperator accumulatorFunction) {
+		return values.accumulateAndGet(indexByRowColumn(row, column), x, accumulatorFunction);
+	}
+
+	public void fill(int value) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			values.set(i, value);
+		}
+	}
+
+	public boolean contains(int elem) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			if (values.get(i) == elem) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int count(int elem) {
+		int count = 0;
+		for (int i = 0; i < numberOfElements; ++i) {
+			if (values.get(i) == elem) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	public void forEach(OnEachIntHandler onEachHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachHandler.handle(row, column, values.get(index++));
+			}
+		}
+	}
+
+	/**
+	 * Returns a {@link Matrix} view of this matrix. Single-cell reads and
+	 * writes through the view are atomic, and the view boxes every value.
+	 */
+	public Matrix<Integer> asMatrix() {
+		return new BoxedView();
+	}
+
+	private class BoxedView extends AbstractMatrix<Integer> {
+
+		BoxedView() {
+			super(AtomicIntMatrix.this.dim);
+		}
+
+		@Override
+		public Integer get(Position pos) {
+			return getInt(pos.row, pos.column);
+		}
+
+		@Override
+		public void set(Position pos, Integer value) {
+			setInt(pos.row, pos.column, value);
+		}
+
+		@Override
+		public boolean contains(Integer elem) {
+			return (elem != null) && AtomicIntMatrix.this.contains(elem);
+		}
+
+		@Override
+		public int count(Integer elem) {
+			return (elem == null) ? 0 : AtomicIntMatrix.this.count(elem);
+		}
+
+		@Override
+		public void fill(Integer value) {
+			AtomicIntMatrix.this.fill(value);
+		}
+
+		@Override
+		public void forEach(final OnEachCellHandler<Integer> onEachCellHandler) {
+			AtomicIntMatrix.this.forEach(new OnEachIntHandler() {
+				@Override
+				public void handle(int row, int column, int elem) {
+					onEachCellHandler.handle(row, column, elem);
+				}
+			});
+		}
+	}
+}
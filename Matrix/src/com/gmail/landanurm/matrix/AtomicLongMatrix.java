@@ -0,0 +1,165 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Matrix of {@code long} values with lock-free atomic updates of single
+ * cells, backed by an {@link AtomicLongArray}. The update functions may
+ * be called more than once under contention and must be free of side
+ * effects. {@link #fill(long)} is atomic only per cell.
+ */
+public final class AtomicLongMatrix {
+
+	private final Dimension dim;
+	private final int numberOfElements;
+	private final AtomicLongArray values;
+
+	public AtomicLongMatrix(Dimension dim) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+		this.values = new AtomicLongArray(numberOfElements);
+	}
+
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		AbstractMatrix.checkPosition(dim, row, column);
+		return row * dim.columns + column;
+	}
+
+	public long getLong(int row, int column) {
+		return values.get(indexByRowColumn(row, column));
+	}
+
+	public void setLong(int row, int column, long value) {
+		values.set(indexByRowColumn(row, column), value);
+	}
+
+	public long getAndSet(int row, int column, long value) {
+		return values.getAndSet(indexByRowColumn(row, column), value);
+	}
+
+	public boolean compareAndSet(int row, int column, long expected, long value) {
+		return values.compareAndSet(indexByRowColumn(row, column), expected, value);
+	}
+
+	public long getAndAdd(int row, int column, long delta) {
+		return values.getAndAdd(indexByRowColumn(row, column), delta);
+	}
+
+	public long addAndGet(int row, int column, long delta) {
+		return values.addAndGet(indexByRowColumn(row, column), delta);
+	}
+
+	public long incrementAndGet(int row, int column) {
+		return values.incrementAndGet(indexByRowColumn(row, column));
+	}
+
+	public long decrementAndGet(int row, int column) {
+		return values.decrementAndGet(indexByRowColumn(row, column));
+	}
+
+	public long getAndUpdate(int row, int column, LongUnaryOperator updateFunction) {
+		return values.getAndUpdate(indexByRowColumn(row, column), updateFunction);
+	}
+
+	public long updateAndGet(int row, int column, LongUnaryOperator updateFunction) {
+		return values.updateAndGet(indexByRowColumn(row, column), updateFunction);
+	}
+
+	public long getAndAccumulate(int row, int column, long x, LongBinaryOperator accumulatorFunction) {
+		return values.getAndAccumulate(indexByRowColumn(row, column), x, accumulatorFunction);
+	}
+
+	public long accumulateAndGet(int row, int column, long x, LongBinaryOperator accumulatorFunction) {
+		return values.accumulateAndGet(indexByRowColumn(row, column), x, accumulatorFunction);
+	}
+
+	public void fill(long value) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			values.set(i, value);
+		}
+	}
+
+	public boolean contains(long elem) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			if (values.get(i) == elem) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int count(long elem) {
+		int count = 0;
+		for (int i = 0; i < numberOfElements; ++i) {
+			if (values.get(i) == elem) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	public void forEach(OnEachLongHandler onEachHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachHandler.handle(row, column, values.get(index++));
+			}
+		}
+	}
+
+	/**
+	 * Returns a {@link Matrix} view of this matrix. Single-cell reads and
+	 * writes through the view are atomic, and the view boxes every value.
+	 */
+	public Matrix<Long> asMatrix() {
+		return new BoxedView();
+	}
+
+	private class BoxedView extends AbstractMatrix<Long> {
+
+		BoxedView() {
+			super(AtomicLongMatrix.this.dim);
+		}
+
+		@Override
+		public Long get(Position pos) {
+			return getLong(pos.row, pos.column);
+		}
+
+		@Override
+		public void set(Position pos, Long value) {
+			setLong(pos.row, pos.column, value);
+		}
+
+		@Override
+		public boolean contains(Long elem) {
+			return (elem != null) && AtomicLongMatrix.this.contains(elem);
+		}
+
+		@Override
+		public int count(Long elem) {
+			return (elem == null) ? 0 : AtomicLongMatrix.this.count(elem);
+		}
+
+		@Override
+		public void fill(Long value) {
+			AtomicLongMatrix.this.fill(value);
+		}
+
+		@Override
+		public void forEach(final OnEachCellHandler<Long> onEachCellHandler) {
+			AtomicLongMatrix.this.forEach(new OnEachLongHandler() {
+				@Override
+				public void handle(int row, int column, long elem) {
+					onEachCellHandler.handle(row, column, elem);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Matrix whose cells can be updated atomically without locks. Every cell is
+ * an element of an {@link AtomicReferenceArray}, so reads and writes are
+ * volatile and read-modify-write operations retry a compare-and-set until
+ * it succeeds.
+ * <p>
+ * {@link #compareAndSet(Position, Object, Object)} compares references with
+ * {@code ==}, not {@code equals}. The update functions may be called more
+ * than once under contention and must be free of side effects. Operations
+ * that touch several cells, such as {@link #swap(Position, Position)} and
+ * {@link #fill(Object)}, are atomic only per cell.
+ */
+public class AtomicMatrix<T> extends AbstractMatrix<T> {
+
+	private final AtomicReferenceArray<T> values;
+
+	public static <ElemType> AtomicMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		final AtomicMatrix<ElemType> copy = new AtomicMatrix<ElemType>(other.getDimension());
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				copy.values.set(row * copy.dim.columns + column, elem);
+			}
+		});
+		return copy;
+	}
+
+	public AtomicMatrix(Dimension dim) {
+		super(dim);
+		this.values = new AtomicReferenceArray<T>(numberOfElements);
+	}
+
+	private int indexByPosition(Position pos) {
+		checkPosition(pos);
+		return pos.row * dim.columns + pos.column;
+	}
+
+	@Override
+	public T get(Position pos) {
+		return values.get(indexByPosition(pos));
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		values.set(indexByPosition(pos), value);
+	}
+
+	public T getAndSet(Position pos, T value) {
+		return values.getAndSet(indexByPosition(pos), value);
+	}
+
+	public boolean compareAndSet(Position pos, T expected, T value) {
+		return values.compareAndSet(indexByPosition(pos), expected, value);
+	}
+
+	public T getAndUpdate(Position pos, UnaryOperator<T> updateFunction) {
+		return values.getAndUpdate(indexByPosition(pos), updateFunction);
+	}
+
+	public T updateAndGet(Position pos, UnaryOperator<T> updateFunction) {
+		return values.updateAndGet(indexByPosition(pos), updateFunction);
+	}
+
+	public T getAndAccumulate(Position pos, T x, BinaryOperator<T> accumulatorFunction) {
+		return values.getAndAccumulate(indexByPosition(pos), x, accumulatorFunction);
+	}
+
+	public T accumulateAndGet(Position pos, T x, BinaryOperator<T> accumulatorFunction) {
+		return values.accumulateAndGet(indexByPosition(pos), x, accumulatorFunction);
+	}
+
+	@Override
+	public void fill(T value) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			values.set(i, value);
+		}
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			if (elementsAreEqual(values.get(i), elem)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		for (int i = 0; i < numberOfElements; ++i) {
+			if (elementsAreEqual(values.get(i), elem)) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, values.get(index++));
+			}
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Matrix of booleans packed one bit per cell into a {@code long[]}, in
+ * row-major order. It takes a 32nd to a 64th of the memory of an
+ * {@link ArrayMatrix}{@code <Boolean>}, and {@link #count}, {@link #contains}
+ * and {@link #fill} work on 64 cells at a time.
+ * <p>
+ * A new matrix holds {@code false} in every cell. A cell cannot hold
+ * {@code null}: storing it causes a {@link NullPointerException}, and
+ * {@code null} is never contained.
+ */
+public class BooleanMatrix extends AbstractMatrix<Boolean> {
+
+	private final long[] bits;
+
+	public static BooleanMatrix copyOf(ReadOnlyMatrix<Boolean> other) {
+		final BooleanMatrix copy = new BooleanMatrix(other.getDimension());
+		other.forEach(new OnEachCellHandler<Boolean>() {
+			@Override
+			public void handle(int row, int column, Boolean elem) {
+				if (elem) {
+					int index = row * copy.dim.columns + column;
+					copy.bits[index >>> 6] |= 1L << index;
+				}
+			}
+		});
+		return copy;
+	}
+
+	public BooleanMatrix(Dimension dim) {
+		super(dim);
+		this.bits = new long[(numberOfElements + 63) >>> 6];
+	}
+
+	public boolean getBoolean(int row, int column) {
+		int index = indexByRowColumn(row, column);
+		return (bits[index >>> 6] & (1L << index)) != 0;
+	}
+
+	public void setBoolean(int row, int column, boolean value) {
+		int index = indexByRowColumn(row, column);
+		if (value) {
+			bits[index >>> 6] |= 1L << index;
+		} else {
+			bits[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		checkPosition(row, column);
+		return row * dim.columns + column;
+	}
+
+	@Override
+	public Boolean get(Position pos) {
+		return getBoolean(pos.row, pos.column);
+	}
+
+	@Override
+	public void set(Position pos, Boolean value) {
+		setBoolean(pos.row, pos.column, value);
+	}
+
+	@Override
+	public void fill(Boolean value) {
+		fill(value.booleanValue());
+	}
+
+	/**
+	 * Sets whole words, then clears the bits past the last cell so that
+	 * counting never has to mask them.
+	 */
+	public void fill(boolean value) {
+		Arrays.fill(bits, value ? -1L : 0L);
+		if (value && (numberOfElements & 63) != 0) {
+			bits[bits.length - 1] = (1L << numberOfElements) - 1;
+		}
+	}
+
+	/**
+	 * Returns the number of cells holding {@code true}.
+	 */
+	public int countTrue() {
+		int count = 0;
+		for (long each : bits) {
+			count += Long.bitCount(each);
+		}
+		return count;
+	}
+
+	@Override
+	public int count(Boolean elem) {
+		if (elem == null) {
+			return 0;
+		}
+		int countTrue = countTrue();
+		return elem ? countTrue : numberOfElements - countTrue;
+	}
+
+	@Override
+	public boolean contains(Boolean elem) {
+		if (elem == null || numberOfElements == 0) {
+			return false;
+		}
+		if (elem) {
+			for (long each : bits) {
+				if (each != 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+		int lastWord = bits.length - 1;
+		for (int word = 0; word < lastWord; ++word) {
+			if (bits[word] != -1L) {
+				return true;
+			}
+		}
+		int bitsInLastWord = numberOfElements - (lastWord << 6);
+		long lastWordMask = (bitsInLastWord == 64) ? -1L : (1L << bitsInLastWord) - 1;
+		return bits[lastWord] != lastWordMask;
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<Boolean> onEachCellHandler) {
+		int row = 0;
+		int column = 0;
+		for (int index = 0; index < numberOfElements; ++index) {
+			onEachCellHandler.handle(row, column, (bits[index >>> 6] & (1L << index)) != 0);
+			if (++column == dim.columns) {
+				column = 0;
+				++row;
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof BooleanMatrix) {
+			BooleanMatrix other = (BooleanMatrix) obj;
+			return dim.equals(other.dim) && Arrays.equals(bits, other.bits);
+		}
+		return super.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		int countTrue = countTrue();
+		return countTrue * Boolean.TRUE.hashCode()
+			   + (numberOfElements - countTrue) * Boolean.FALSE.hashCode()
+			   + dim.hashCode();
+	}
+}
@@ -0,0 +1,339 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Matrix whose cells are stored in {@link ByteBuffer}s. A single buffer holds
+ * at most 2 GB, so the cells are split into chunks of {@code 1 << CHUNK_SHIFT}
+ * bytes. The cell widths of {@link CellType} divide that exactly, so no cell
+ * spans two chunks.
+ * <p>
+ * A matrix can hold more than {@link Integer#MAX_VALUE} cells, which the int
+ * cell count of {@link AbstractMatrix} cannot represent. Every bulk operation
+ * therefore walks the chunks or counts cells with longs instead of relying
+ * on the inherited implementations.
+ */
+abstract class BufferMatrix<T> extends AbstractMatrix<T> implements Closeable {
+
+	static final int CHUNK_SHIFT = 30;
+	static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+	private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private final CellType<T> type;
+	private final int cellSize;
+	private final long numberOfCells;
+	private ByteBuffer[] chunks;
+
+	BufferMatrix(Dimension dim, CellType<T> type, ByteBuffer[] chunks) {
+		super(dim);
+		this.type = type;
+		this.cellSize = type.getSize();
+		this.numberOfCells = (long) dim.rows * dim.columns;
+		this.chunks = chunks;
+	}
+
+	static long dataSize(Dimension dim, CellType<?> type) {
+		return (long) dim.rows * dim.columns * type.getSize();
+	}
+
+	static int numberOfChunks(long dataSize) {
+		return (int) ((dataSize + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+	}
+
+	static int chunkCapacity(long dataSize, int chunkIndex) {
+		return (int) Math.min(CHUNK_SIZE, dataSize - ((long) chunkIndex << CHUNK_SHIFT));
+	}
+
+	public CellType<T> getCellType() {
+		return type;
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		long byteOffset = byteOffsetByRowColumn(pos.row, pos.column);
+		return type.read(chunk(byteOffset), offsetInChunk(byteOffset));
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		if (value == null) {
+			throw new NullPointerException("Cells of " + type + " matrix cannot be null");
+		}
+		long byteOffset = byteOffsetByRowColumn(pos.row, pos.column);
+		type.write(chunk(byteOffset), offsetInChunk(byteOffset), value);
+	}
+
+	private long byteOffsetByRowColumn(int row, int column) {
+		return ((long) row * dim.columns + column) * cellSize;
+	}
+
+	private ByteBuffer chunk(long byteOffset) {
+		return openChunks()[(int) (byteOffset >>> CHUNK_SHIFT)];
+	}
+
+	private static int offsetInChunk(long byteOffset) {
+		return (int) (byteOffset & CHUNK_MASK);
+	}
+
+	ByteBuffer[] openChunks() {
+		ByteBuffer[] current = chunks;
+		if (current == null) {
+			throw new IllegalStateException("Matrix is closed");
+		}
+		return current;
+	}
+
+	public boolean isClosed() {
+		return chunks == null;
+	}
+
+	/**
+	 * Writes one cell and then doubles the written prefix with bulk copies,
+	 * so filling a chunk takes a logarithmic number of memory copies.
+	 */
+	@Override
+	public void fill(T value) {
+		if (value == null) {
+			throw new NullPointerException("Cells of " + type + " matrix cannot be null");
+		}
+		for (ByteBuffer chunk : openChunks()) {
+			int capacity = chunk.capacity();
+			type.write(chunk, 0, value);
+			int filled = cellSize;
+			while (filled < capacity) {
+				int length = Math.min(filled, capacity - filled);
+				ByteBuffer source = chunk.duplicate();
+				source.limit(length);
+				ByteBuffer destination = chunk.duplicate();
+				destination.position(filled);
+				destination.put(source);
+				filled += length;
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		if (elem == null) {
+			return false;
+		}
+		for (ByteBuffer chunk : openChunks()) {
+			int capacity = chunk.capacity();
+			for (int offset = 0; offset < capacity; offset += cellSize) {
+				if (type.equalsAt(chunk, offset, elem)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int count(T elem) {
+		if (elem == null) {
+			return 0;
+		}
+		int count = 0;
+		for (ByteBuffer chunk : openChunks()) {
+			int capacity = chunk.capacity();
+			for (int offset = 0; offset < capacity; offset += cellSize) {
+				if (type.equalsAt(chunk, offset, elem)) {
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		ByteBuffer[] current = openChunks();
+		long byteOffset = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				ByteBuffer chunk = current[(int) (byteOffset >>> CHUNK_SHIFT)];
+				onEachCellHandler.handle(row, column, type.read(chunk, offsetInChunk(byteOffset)));
+				byteOffset += cellSize;
+			}
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return iterator(Order.ROW_MAJOR);
+	}
+
+	@Override
+	public Iterator<T> iterator(final Order traversal) {
+		return new Iterator<T>() {
+			private int row;
+			private int column;
+			private long remaining = numberOfCells;
+
+			@Override
+			public boolean hasNext() {
+				return remaining > 0;
+			}
+
+			@Override
+			public T next() {
+				if (remaining == 0) {
+					throw new NoSuchElementException("All " + numberOfCells + " cells were visited");
+				}
+				long byteOffset = byteOffsetByRowColumn(row, column);
+				T elem = type.read(chunk(byteOffset), offsetInChunk(byteOffset));
+				--remaining;
+				if (traversal == Order.ROW_MAJOR) {
+					if (++column == dim.columns) {
+						column = 0;
+						++row;
+					}
+				} else if (++row == dim.rows) {
+					row = 0;
+					++column;
+				}
+				return elem;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return new RangeSpliterator<T>(false, 0, numberOfCells);
+	}
+
+	@Override
+	public Spliterator<Cell<T>> cellSpliterator() {
+		return new RangeSpliterator<Cell<T>>(true, 0, numberOfCells);
+	}
+
+	/**
+	 * Spliterator over a range of row-major cell indexes, split by halving
+	 * the range. It yields either the elements or the cells holding them.
+	 */
+	private final class RangeSpliterator<E> implements Spliterator<E> {
+		private final boolean cells;
+		private long index;
+		private final long fence;
+
+		RangeSpliterator(boolean cells, long from, long to) {
+			this.cells = cells;
+			this.index = from;
+			this.fence = to;
+		}
+
+		@SuppressWarnings("unchecked")
+		private E elementAt(long index) {
+			long byteOffset = index * cellSize;
+			T elem = type.read(chunk(byteOffset), offsetInChunk(byteOffset));
+			if (!cells) {
+				return (E) elem;
+			}
+			return (E) Cell.withRowColumnElem((int) (index / dim.columns), (int) (index % dim.columns), elem);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(elementAt(index++));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			long i = index;
+			index = fence;
+			for (; i < fence; ++i) {
+				action.accept(elementAt(i));
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			long from = index;
+			long middle = (from + fence) >>> 1;
+			if (from >= middle) {
+				return null;
+			}
+			index = middle;
+			return new RangeSpliterator<E>(cells, from, middle);
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (!dim.equals(other.getDimension())) {
+			return false;
+		}
+		Iterator<?> elements = other.iterator();
+		for (ByteBuffer chunk : openChunks()) {
+			int capacity = chunk.capacity();
+			for (int offset = 0; offset < capacity; offset += cellSize) {
+				if (!elementsAreEqual(type.read(chunk, offset), elements.next())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (ByteBuffer chunk : openChunks()) {
+			int capacity = chunk.capacity();
+			for (int offset = 0; offset < capacity; offset += cellSize) {
+				totalHashCode += type.hashCodeAt(chunk, offset);
+			}
+		}
+		return totalHashCode + dim.hashCode();
+	}
+
+	/**
+	 * Detaches the buffers and releases their memory or mapping. Any later
+	 * access throws {@link IllegalStateException}. Closing while another
+	 * thread is still reading or writing the matrix is not allowed.
+	 */
+	@Override
+	public void close() {
+		ByteBuffer[] released = chunks;
+		if (released == null) {
+			return;
+		}
+		chunks = null;
+		for (ByteBuffer each : released) {
+			DirectBuffers.release(each);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.gmail.landanurm.matrix;
+
+public final class Cell<T> {
+	public final int row;
+	public final int column;
+	public final T elem;
+
+	public static <ElemType> Cell<ElemType> withRowColumnElem(int row, int column, ElemType elem) {
+		return new Cell<ElemType>(row, column, elem);
+	}
+
+	public Cell(int row, int column, T elem) {
+		if (row < 0 || column < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.row = row;
+		this.column = column;
+		this.elem = elem;
+	}
+
+	public Position getPosition() {
+		return Position.withRowColumn(row, column);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof Cell<?>)) {
+			return false;
+		}
+		Cell<?> other = (Cell<?>) obj;
+		return (row == other.row) && (column == other.column)
+				&& ((elem == null) ? (other.elem == null) : elem.equals(other.elem));
+	}
+
+	@Override
+	public int hashCode() {
+		return row * column + row - column + ((elem == null) ? 0 : elem.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return "[" + row + ", " + column + "]: " + elem;
+	}
+}
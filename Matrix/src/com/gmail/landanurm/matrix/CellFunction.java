@@ -0,0 +1,5 @@
+package com.gmail.landanurm.matrix;
+
+public interface CellFunction<T> {
+	T valueAt(int row, int column);
+}
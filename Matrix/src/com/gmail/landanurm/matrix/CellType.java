@@ -0,0 +1,123 @@
+package com.gmail.landanurm.matrix;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Primitive element type of a matrix whose cells live in a {@link ByteBuffer}
+ * instead of on the Java heap. Each type knows its width in bytes and how to
+ * read, write and compare a cell without boxing the stored value.
+ */
+public abstract class CellType<T> {
+
+	public static final CellType<Integer> INT = new CellType<Integer>("int", (byte) 1, 4) {
+		@Override
+		Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+
+		@Override
+		void write(ByteBuffer buffer, int offset, Integer value) {
+			buffer.putInt(offset, value);
+		}
+
+		@Override
+		boolean equalsAt(ByteBuffer buffer, int offset, Integer elem) {
+			return buffer.getInt(offset) == elem;
+		}
+
+		@Override
+		int hashCodeAt(ByteBuffer buffer, int offset) {
+			return Integer.hashCode(buffer.getInt(offset));
+		}
+	};
+
+	public static final CellType<Long> LONG = new CellType<Long>("long", (byte) 2, 8) {
+		@Override
+		Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+
+		@Override
+		void write(ByteBuffer buffer, int offset, Long value) {
+			buffer.putLong(offset, value);
+		}
+
+		@Override
+		boolean equalsAt(ByteBuffer buffer, int offset, Long elem) {
+			return buffer.getLong(offset) == elem;
+		}
+
+		@Override
+		int hashCodeAt(ByteBuffer buffer, int offset) {
+			return Long.hashCode(buffer.getLong(offset));
+		}
+	};
+
+	public static final CellType<Double> DOUBLE = new CellType<Double>("double", (byte) 3, 8) {
+		@Override
+		Double read(ByteBuffer buffer, int offset) {
+			return buffer.getDouble(offset);
+		}
+
+		@Override
+		void write(ByteBuffer buffer, int offset, Double value) {
+			buffer.putDouble(offset, value);
+		}
+
+		@Override
+		boolean equalsAt(ByteBuffer buffer, int offset, Double elem) {
+			return Double.doubleToLongBits(buffer.getDouble(offset)) == Double.doubleToLongBits(elem);
+		}
+
+		@Override
+		int hashCodeAt(ByteBuffer buffer, int offset) {
+			return Double.hashCode(buffer.getDouble(offset));
+		}
+	};
+
+	private final String name;
+	private final byte code;
+	private final int size;
+
+	private CellType(String name, byte code, int size) {
+		this.name = name;
+		this.code = code;
+		this.size = size;
+	}
+
+	static CellType<?> byCode(byte code) {
+		for (CellType<?> each : new CellType<?>[] { INT, LONG, DOUBLE }) {
+			if (each.code == code) {
+				return each;
+			}
+		}
+		throw new IllegalArgumentException("Unknown cell type code: " + code);
+	}
+
+	byte getCode() {
+		return code;
+	}
+
+	/**
+	 * Width of one cell in bytes.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	abstract T read(ByteBuffer buffer, int offset);
+
+	abstract void write(ByteBuffer buffer, int offset, T value);
+
+	abstract boolean equalsAt(ByteBuffer buffer, int offset, T elem);
+
+	/**
+	 * Returns the hash code the boxed value of the cell would have.
+	 */
+	abstract int hashCodeAt(ByteBuffer buffer, int offset);
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,306 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Read-only matrix compressed for data with few distinct values. Every
+ * distinct value is stored once in a dictionary, and cells hold its index,
+ * the code. Each row keeps its codes in whichever of two forms is smaller:
+ * <ul>
+ * <li>runs of equal codes, as run end columns and codes; {@link #get} finds
+ * the run by binary search over the ends;</li>
+ * <li>codes packed into 1, 2, 4, 8, 16 or 32 bits each, the narrowest width
+ * that fits the dictionary; {@link #get} is a shift and a mask.</li>
+ * </ul>
+ * The number of cells holding every code is counted while compressing, so
+ * {@link #count} and {@link #contains} take a dictionary lookup and never
+ * touch the rows. The hash code is computed from the dictionary the same
+ * way.
+ * <p>
+ * The hash code and equality contract is the same as for {@link ArrayMatrix}.
+ */
+public final class CompressedMatrix<T> implements ReadOnlyMatrix<T> {
+
+	private final Dimension dim;
+	private final T[] dictionary;
+	private final Map<Object, Integer> codes;
+	private final int[] counts;
+	private final Row[] rows;
+	private final int hashCode;
+
+	/**
+	 * Compresses {@code other}, reading every cell once. The packed width
+	 * depends on the size of the whole dictionary, so the codes of all rows
+	 * are collected before any row is compressed.
+	 */
+	public static <ElemType> CompressedMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		if (other instanceof CompressedMatrix<?>) {
+			return (CompressedMatrix<ElemType>) other;
+		}
+		final Dimension dim = other.getDimension();
+		final Map<Object, Integer> codes = new HashMap<Object, Integer>();
+		final int[][] rowCodes = new int[dim.rows][];
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				if (rowCodes[row] == null) {
+					rowCodes[row] = new int[dim.columns];
+				}
+				Integer code = codes.get(elem);
+				if (code == null) {
+					code = codes.size();
+					codes.put(elem, code);
+				}
+				rowCodes[row][column] = code;
+			}
+		});
+		return new CompressedMatrix<ElemType>(dim, codes, rowCodes);
+	}
+
+	private CompressedMatrix(Dimension dim, Map<Object, Integer> codes, int[][] rowCodes) {
+		this.dim = dim;
+		this.codes = codes;
+		this.dictionary = arrayByLength(codes.size());
+		for (Map.Entry<Object, Integer> each : codes.entrySet()) {
+			dictionary[each.getValue()] = castElement(each.getKey());
+		}
+		this.counts = new int[dictionary.length];
+		this.rows = new Row[dim.rows];
+		int widthShift = widthShiftFor(dictionary.length);
+		for (int row = 0; row < dim.rows; ++row) {
+			int[] codesOfRow = rowCodes[row];
+			rowCodes[row] = null;
+			for (int each : codesOfRow) {
+				++counts[each];
+			}
+			rows[row] = compress(codesOfRow, widthShift);
+		}
+		int totalHashCode = 0;
+		for (int code = 0; code < dictionary.length; ++code) {
+			totalHashCode += (dictionary[code] == null) ? 0 : counts[code] * dictionary[code].hashCode();
+		}
+		this.hashCode = totalHashCode + dim.hashCode();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] arrayByLength(int length) {
+		return (T[]) new Object[length];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T castElement(Object elem) {
+		return (T) elem;
+	}
+
+	/**
+	 * Returns log2 of the narrowest power-of-two width that holds every code.
+	 * Power-of-two widths keep every code inside one word.
+	 */
+	private static int widthShiftFor(int numberOfCodes) {
+		int widthShift = 0;
+		while ((1 << widthShift) < 32 && (1L << (1 << widthShift)) < numberOfCodes) {
+			++widthShift;
+		}
+		return widthShift;
+	}
+
+	private static Row compress(int[] codes, int widthShift) {
+		int runs = 0;
+		for (int column = 0; column < codes.length; ++column) {
+			if (column == 0 || codes[column] != codes[column - 1]) {
+				++runs;
+			}
+		}
+		int cellsPerWordShift = 6 - widthShift;
+		long packedWords = (codes.length + (1 << cellsPerWordShift) - 1) >>> cellsPerWordShift;
+		// A run takes two ints, the size of one packed word.
+		if (runs <= packedWords) {
+			return new RunRow(codes, runs);
+		}
+		return new PackedRow(codes, widthShift);
+	}
+
+	private abstract static class Row {
+		abstract int codeAt(int column);
+
+		/**
+		 * Writes the code of every column into {@code codes}.
+		 */
+		abstract void decode(int[] codes);
+	}
+
+	private static final class RunRow extends Row {
+		/** Column after the last cell of every run, ascending. */
+		private final int[] ends;
+		private final int[] codes;
+
+		RunRow(int[] codesOfRow, int runs) {
+			this.ends = new int[runs];
+			this.codes = new int[runs];
+			int run = -1;
+			for (int column = 0; column < codesOfRow.length; ++column) {
+				if (column == 0 || codesOfRow[column] != codesOfRow[column - 1]) {
+					codes[++run] = codesOfRow[column];
+				}
+				ends[run] = column + 1;
+			}
+		}
+
+		@Override
+		int codeAt(int column) {
+			int found = Arrays.binarySearch(ends, column);
+			// A column equal to the end of a run is the first of the next one.
+			return codes[(found >= 0) ? found + 1 : -found - 1];
+		}
+
+		@Override
+		void decode(int[] codesOfRow) {
+			int from = 0;
+			for (int run = 0; run < ends.length; ++run) {
+				Arrays.fill(codesOfRow, from, ends[run], codes[run]);
+				from = ends[run];
+			}
+		}
+	}
+
+	private static final class PackedRow extends Row {
+		private final int widthShift;
+		private final int cellsPerWordShift;
+		private final long mask;
+		private final long[] words;
+
+		PackedRow(int[] codesOfRow, int widthShift) {
+			this.widthShift = widthShift;
+			this.cellsPerWordShift = 6 - widthShift;
+			this.mask = (1L << (1 << widthShift)) - 1;
+			this.words = new long[(codesOfRow.length + (1 << cellsPerWordShift) - 1) >>> cellsPerWordShift];
+			for (int column = 0; column < codesOfRow.length; ++column) {
+				words[column >>> cellsPerWordShift] |= (long) codesOfRow[column] << bitOffset(column);
+			}
+		}
+
+		private int bitOffset(int column) {
+			return (column & ((1 << cellsPerWordShift) - 1)) << widthShift;
+		}
+
+		@Override
+		int codeAt(int column) {
+			return (int) ((words[column >>> cellsPerWordShift] >>> bitOffset(column)) & mask);
+		}
+
+		@Override
+		void decode(int[] codesOfRow) {
+			int width = 1 << widthShift;
+			int cellsPerWord = 1 << cellsPerWordShift;
+			int column = 0;
+			for (long each : words) {
+				for (int cell = 0; cell < cellsPerWord && column < codesOfRow.length; ++cell) {
+					codesOfRow[column++] = (int) (each & mask);
+					each >>>= width;
+				}
+			}
+		}
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	/**
+	 * Returns the number of distinct values, counting {@code null} if some
+	 * cell holds it.
+	 */
+	public int getNumberOfDistinctValues() {
+		return dictionary.length;
+	}
+
+	@Override
+	public T get(Position pos) {
+		AbstractMatrix.checkPosition(dim, pos.row, pos.column);
+		return dictionary[rows[pos.row].codeAt(pos.column)];
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		return codes.containsKey(elem);
+	}
+
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		for (T each : elements) {
+			if (!contains(each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int count(T elem) {
+		Integer code = codes.get(elem);
+		return (code == null) ? 0 : counts[code];
+	}
+
+	@Override
+	public void forEach(final OnEachHandler<T> onEachHandler) {
+		forEach(new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int row, int column, T elem) {
+				onEachHandler.handle(Position.withRowColumn(row, column), elem);
+			}
+		});
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		int[] codesOfRow = new int[dim.columns];
+		for (int row = 0; row < dim.rows; ++row) {
+			rows[row].decode(codesOfRow);
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, dictionary[codesOfRow[column]]);
+			}
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return MatrixIterator.of(this);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (!dim.equals(other.getDimension())) {
+			return false;
+		}
+		if ((other instanceof CompressedMatrix<?>) && hashCode != other.hashCode()) {
+			return false;
+		}
+		Iterator<?> elements = other.iterator();
+		int[] codesOfRow = new int[dim.columns];
+		for (int row = 0; row < dim.rows; ++row) {
+			rows[row].decode(codesOfRow);
+			for (int column = 0; column < dim.columns; ++column) {
+				if (!AbstractMatrix.elementsAreEqual(dictionary[codesOfRow[column]], elements.next())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
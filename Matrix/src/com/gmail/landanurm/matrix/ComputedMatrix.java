@@ -0,0 +1,398 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only matrix whose cells are given by a {@link CellFunction} and
+ * computed when they are read, so cells nobody reads cost nothing. It
+ * comes in three modes:
+ * <ul>
+ * <li>{@link #of} computes a cell on every {@link #get};</li>
+ * <li>{@link #memoized} keeps every computed cell, so the function runs
+ * about once per cell;</li>
+ * <li>{@link #cached} keeps at most a given number of cells in a
+ * direct-mapped cache: a cell goes to slot {@code index % capacity} and
+ * evicts whatever was there.</li>
+ * </ul>
+ * Every mode can be read from many threads, and the function must be safe
+ * to call from them. Caches are filled without locks: threads that read
+ * the same missing cell at once may all compute it, but one result is
+ * published and every reader of a memoized cell gets that same object. A
+ * function may read other cells of its own matrix.
+ * <p>
+ * {@link #forEach(OnEachCellHandler)}, iteration, {@link #count} and
+ * {@link #contains} compute blocks of cells on the common fork/join pool
+ * and then visit them in order, as does {@link ArrayMatrix#copyOf} when it
+ * copies a computed matrix. The first block is small and every next one is
+ * twice as large, so a search that ends early or an iterator that is only
+ * asked for its first elements computes little more than it reads. A
+ * memoized matrix keeps the cells computed that way; the other modes leave
+ * their cache alone during full scans, which would only evict the cells
+ * worth keeping.
+ * <p>
+ * The hash code and equality contract is the same as for {@link ArrayMatrix},
+ * and both compute every cell.
+ */
+public final class ComputedMatrix<T> implements ReadOnlyMatrix<T> {
+
+	private static final int FIRST_BLOCK_SIZE = 1 << 6;
+	private static final int BLOCK_SIZE = 1 << 16;
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 10;
+	private static final Object NULL_VALUE = new Object();
+
+	private final Dimension dim;
+	private final int numberOfElements;
+	private final CellFunction<T> function;
+	private final Cells cells;
+
+	public static <ElemType> ComputedMatrix<ElemType> of(Dimension dim, CellFunction<ElemType> function) {
+		return new ComputedMatrix<ElemType>(dim, function, Mode.UNCACHED, 0);
+	}
+
+	public static <ElemType> ComputedMatrix<ElemType> memoized(Dimension dim, CellFunction<ElemType> function) {
+		return new ComputedMatrix<ElemType>(dim, function, Mode.MEMOIZED, 0);
+	}
+
+	public static <ElemType> ComputedMatrix<ElemType> cached(Dimension dim, CellFunction<ElemType> function,
+															 int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+		}
+		return new ComputedMatrix<ElemType>(dim, function, Mode.BOUNDED, capacity);
+	}
+
+	private enum Mode {
+		UNCACHED, MEMOIZED, BOUNDED
+	}
+
+	private ComputedMatrix(Dimension dim, CellFunction<T> function, Mode mode, int capacity) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+		this.function = function;
+		if (mode == Mode.MEMOIZED) {
+			this.cells = new MemoizedCells(numberOfElements);
+		} else if (mode == Mode.BOUNDED) {
+			this.cells = new BoundedCells(Math.min(capacity, numberOfElements));
+		} else {
+			this.cells = new UncachedCells();
+		}
+	}
+
+	private T compute(int index) {
+		return function.valueAt(index / dim.columns, index % dim.columns);
+	}
+
+	/**
+	 * Where the computed cells are kept. {@link #valueAt} serves
+	 * {@link ComputedMatrix#get}; {@link #scannedValueAt} serves full scans.
+	 */
+	private abstract class Cells {
+		abstract T valueAt(int index);
+
+		T scannedValueAt(int index) {
+			return compute(index);
+		}
+	}
+
+	private final class UncachedCells extends Cells {
+		@Override
+		T valueAt(int index) {
+			return compute(index);
+		}
+	}
+
+	/**
+	 * One slot per cell. An empty slot holds {@code null}, so a computed
+	 * {@code null} is stored as {@link ComputedMatrix#NULL_VALUE}.
+	 */
+	private final class MemoizedCells extends Cells {
+		private final AtomicReferenceArray<Object> slots;
+
+		MemoizedCells(int numberOfElements) {
+			this.slots = new AtomicReferenceArray<Object>(numberOfElements);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		T valueAt(int index) {
+			Object value = slots.get(index);
+			if (value == null) {
+				T computed = compute(index);
+				value = (computed == null) ? NULL_VALUE : computed;
+				if (!slots.compareAndSet(index, null, value)) {
+					value = slots.get(index);
+				}
+			}
+			return (value == NULL_VALUE) ? null : (T) value;
+		}
+
+		@Override
+		T scannedValueAt(int index) {
+			return valueAt(index);
+		}
+	}
+
+	private static final class Entry<E> {
+		final int index;
+		final E value;
+
+		Entry(int index, E value) {
+			this.index = index;
+			this.value = value;
+		}
+	}
+
+	private final class BoundedCells extends Cells {
+		private final AtomicReferenceArray<Entry<T>> slots;
+
+		BoundedCells(int capacity) {
+			this.slots = new AtomicReferenceArray<Entry<T>>(capacity);
+		}
+
+		@Override
+		T valueAt(int index) {
+			int slot = index % slots.length();
+			Entry<T> entry = slots.get(slot);
+			if (entry != null && entry.index == index) {
+				return entry.value;
+			}
+			T value = compute(index);
+			slots.set(slot, new Entry<T>(index, value));
+			return value;
+		}
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	@Override
+	public T get(Position pos) {
+		AbstractMatrix.checkPosition(dim, pos.row, pos.column);
+		return cells.valueAt(pos.row * dim.columns + pos.column);
+	}
+
+	/**
+	 * Fills {@code target[0 .. to - from)} with the cells {@code from} to
+	 * {@code to} in {@code traversal} order, computing them in parallel.
+	 */
+	void materialize(Object[] target, int from, int to, Order traversal) {
+		MaterializeTask task = new MaterializeTask(target, from, traversal, from, to);
+		if (to - from <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			ForkJoinPool.commonPool().invoke(task);
+		}
+	}
+
+	private int indexInOrder(int position, Order traversal) {
+		if (traversal == Order.ROW_MAJOR) {
+			return position;
+		}
+		return (position % dim.rows) * dim.columns + position / dim.rows;
+	}
+
+	private final class MaterializeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] target;
+		private final int base;
+		private final Order traversal;
+		private final int from;
+		private final int to;
+
+		MaterializeTask(Object[] target, int base, Order traversal, int from, int to) {
+			this.target = target;
+			this.base = base;
+			this.traversal = traversal;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int position = from; position < to; ++position) {
+					target[position - base] = cells.scannedValueAt(indexInOrder(position, traversal));
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new MaterializeTask(target, base, traversal, from, middle),
+					  new MaterializeTask(target, base, traversal, middle, to));
+		}
+	}
+
+	private Object[] firstBlock() {
+		return new Object[Math.min(FIRST_BLOCK_SIZE, numberOfElements)];
+	}
+
+	/**
+	 * Returns a block twice as large as {@code block}, or {@code block}
+	 * itself once it has reached {@link #BLOCK_SIZE}.
+	 */
+	private Object[] nextBlock(Object[] block) {
+		int size = Math.min(Math.min(block.length * 2, BLOCK_SIZE), numberOfElements);
+		return (size == block.length) ? block : new Object[size];
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		Object[] block = firstBlock();
+		for (int from = 0; from < numberOfElements; from += block.length, block = nextBlock(block)) {
+			int to = Math.min(from + block.length, numberOfElements);
+			materialize(block, from, to, Order.ROW_MAJOR);
+			for (int i = 0; i < to - from; ++i) {
+				if (AbstractMatrix.elementsAreEqual(block[i], elem)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		for (T each : elements) {
+			if (!contains(each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		Object[] block = firstBlock();
+		for (int from = 0; from < numberOfElements; from += block.length, block = nextBlock(block)) {
+			int to = Math.min(from + block.length, numberOfElements);
+			materialize(block, from, to, Order.ROW_MAJOR);
+			for (int i = 0; i < to - from; ++i) {
+				if (AbstractMatrix.elementsAreEqual(block[i], elem)) {
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(final OnEachHandler<T> onEachHandler) {
+		forEach(new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int row, int column, T elem) {
+				onEachHandler.handle(Position.withRowColumn(row, column), elem);
+			}
+		});
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		forEach(onEachCellHandler, Order.ROW_MAJOR);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler, Order traversal) {
+		int lineLength = (traversal == Order.ROW_MAJOR) ? dim.columns : dim.rows;
+		Object[] block = firstBlock();
+		for (int from = 0; from < numberOfElements; from += block.length, block = nextBlock(block)) {
+			int to = Math.min(from + block.length, numberOfElements);
+			materialize(block, from, to, traversal);
+			int line = from / lineLength;
+			int offset = from % lineLength;
+			for (int i = 0; i < to - from; ++i) {
+				T elem = (T) block[i];
+				if (traversal == Order.ROW_MAJOR) {
+					onEachCellHandler.handle(line, offset, elem);
+				} else {
+					onEachCellHandler.handle(offset, line, elem);
+				}
+				if (++offset == lineLength) {
+					offset = 0;
+					++line;
+				}
+			}
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return iterator(Order.ROW_MAJOR);
+	}
+
+	@Override
+	public Iterator<T> iterator(final Order traversal) {
+		return new Iterator<T>() {
+			private Object[] block = firstBlock();
+			private int blockStart = 0;
+			private int blockEnd = 0;
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < numberOfElements;
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException(
+						"Index " + next + " outside of matrix with " + numberOfElements + " elements"
+					);
+				}
+				if (next == blockEnd) {
+					if (next > 0) {
+						block = nextBlock(block);
+					}
+					blockStart = next;
+					blockEnd = Math.min(blockStart + block.length, numberOfElements);
+					materialize(block, blockStart, blockEnd, traversal);
+				}
+				return (T) block[next++ - blockStart];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (!dim.equals(other.getDimension())) {
+			return false;
+		}
+		Iterator<T> elements = iterator();
+		for (Object each : other) {
+			if (!AbstractMatrix.elementsAreEqual(elements.next(), each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (T each : this) {
+			totalHashCode += (each == null) ? 0 : each.hashCode();
+		}
+		return totalHashCode + dim.hashCode();
+	}
+}
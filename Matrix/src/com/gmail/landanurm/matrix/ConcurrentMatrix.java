@@ -0,0 +1,252 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Iterator;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe matrix whose rows are guarded by a fixed number of read-write
+ * locks: row {@code r} belongs to stripe {@code r % numberOfStripes}. Threads
+ * working on rows of different stripes never wait for each other, and
+ * readers of the same stripe share it.
+ * <p>
+ * Consistency of the bulk operations:
+ * <ul>
+ * <li>{@link #get(Position)} and {@link #set(Position, Object)} are atomic.</li>
+ * <li>{@link #swap(Position, Position)} is atomic. It locks both stripes in
+ * ascending stripe order, so two swaps can never deadlock.</li>
+ * <li>{@link #fill(Object)} is atomic. It takes every stripe in ascending
+ * order, so no reader sees a partially filled matrix.</li>
+ * <li>{@link #forEach(OnEachCellHandler)}, {@link #count(Object)},
+ * {@link #contains(Object)}, {@code equals} and {@code hashCode} see each row
+ * as a consistent whole, but different rows may be seen at different
+ * moments. forEach and equals copy a row under its lock and look at it
+ * after releasing it, so the handler may freely write to the matrix, and
+ * comparing two concurrent matrices never holds the locks of both.</li>
+ * </ul>
+ */
+public class ConcurrentMatrix<T> extends AbstractMatrix<T> {
+
+	private static final int DEFAULT_MAX_STRIPES = 64;
+
+	private final T[] values;
+	private final ReadWriteLock[] stripes;
+
+	public static <ElemType> ConcurrentMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		final ConcurrentMatrix<ElemType> copy = new ConcurrentMatrix<ElemType>(other.getDimension());
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				copy.values[row * copy.dim.columns + column] = elem;
+			}
+		});
+		return copy;
+	}
+
+	public ConcurrentMatrix(Dimension dim) {
+		this(dim, Math.min(dim.rows, DEFAULT_MAX_STRIPES));
+	}
+
+	public ConcurrentMatrix(Dimension dim, int numberOfStripes) {
+		super(dim);
+		if (numberOfStripes <= 0) {
+			throw new IllegalArgumentException("ConcurrentMatrix: number of stripes must be positive");
+		}
+		this.values = arrayByLength(numberOfElements);
+		this.stripes = new ReadWriteLock[Math.min(numberOfStripes, dim.rows)];
+		for (int i = 0; i < stripes.length; ++i) {
+			stripes[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] arrayByLength(int length) {
+		return (T[]) new Object[length];
+	}
+
+	public int getNumberOfStripes() {
+		return stripes.length;
+	}
+
+	private int stripeOf(int row) {
+		return row % stripes.length;
+	}
+
+	private int indexByPosition(Position pos) {
+		return pos.row * dim.columns + pos.column;
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		Lock lock = stripes[stripeOf(pos.row)].readLock();
+		lock.lock();
+		try {
+			return values[indexByPosition(pos)];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		Lock lock = stripes[stripeOf(pos.row)].writeLock();
+		lock.lock();
+		try {
+			values[indexByPosition(pos)] = value;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void swap(Position pos1, Position pos2) {
+		checkPosition(pos1);
+		checkPosition(pos2);
+		int stripe1 = stripeOf(pos1.row);
+		int stripe2 = stripeOf(pos2.row);
+		Lock first = stripes[Math.min(stripe1, stripe2)].writeLock();
+		Lock second = stripes[Math.max(stripe1, stripe2)].writeLock();
+		first.lock();
+		try {
+			if (second != first) {
+				second.lock();
+			}
+			try {
+				int index1 = indexByPosition(pos1);
+				int index2 = indexByPosition(pos2);
+				T temp = values[index1];
+				values[index1] = values[index2];
+				values[index2] = temp;
+			} finally {
+				if (second != first) {
+					second.unlock();
+				}
+			}
+		} finally {
+			first.unlock();
+		}
+	}
+
+	@Override
+	public void fill(T value) {
+		int locked = 0;
+		try {
+			for (; locked < stripes.length; ++locked) {
+				stripes[locked].writeLock().lock();
+			}
+			for (int i = 0; i < numberOfElements; ++i) {
+				values[i] = value;
+			}
+		} finally {
+			while (locked > 0) {
+				stripes[--locked].writeLock().unlock();
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		for (int row = 0; row < dim.rows; ++row) {
+			Lock lock = stripes[stripeOf(row)].readLock();
+			lock.lock();
+			try {
+				int end = (row + 1) * dim.columns;
+				for (int i = row * dim.columns; i < end; ++i) {
+					if (elementsAreEqual(values[i], elem)) {
+						return true;
+					}
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			Lock lock = stripes[stripeOf(row)].readLock();
+			lock.lock();
+			try {
+				int end = (row + 1) * dim.columns;
+				for (int i = row * dim.columns; i < end; ++i) {
+					if (elementsAreEqual(values[i], elem)) {
+						++count;
+					}
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		T[] rowValues = arrayByLength(dim.columns);
+		for (int row = 0; row < dim.rows; ++row) {
+			copyRow(row, rowValues);
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, rowValues[column]);
+			}
+		}
+	}
+
+	private void copyRow(int row, T[] rowValues) {
+		Lock lock = stripes[stripeOf(row)].readLock();
+		lock.lock();
+		try {
+			System.arraycopy(values, row * dim.columns, rowValues, 0, dim.columns);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (!dim.equals(other.getDimension())) {
+			return false;
+		}
+		Iterator<?> elements = other.iterator();
+		T[] rowValues = arrayByLength(dim.columns);
+		for (int row = 0; row < dim.rows; ++row) {
+			copyRow(row, rowValues);
+			for (T each : rowValues) {
+				if (!elementsAreEqual(each, elements.next())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			Lock lock = stripes[stripeOf(row)].readLock();
+			lock.lock();
+			try {
+				int end = (row + 1) * dim.columns;
+				for (int i = row * dim.columns; i < end; ++i) {
+					totalHashCode += (values[i] == null) ? 0 : values[i].hashCode();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return totalHashCode + dim.hashCode();
+	}
+}
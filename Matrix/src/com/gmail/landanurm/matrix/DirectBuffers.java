@@ -0,0 +1,44 @@
+package com.gmail.landanurm.matrix;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory of direct and mapped buffers without waiting
+ * for the collector. The JDK exposes no public API for it, so this goes
+ * through {@code sun.misc.Unsafe.invokeCleaner} on Java 9 and later and
+ * through the buffer's cleaner on Java 8. If neither is reachable, the
+ * memory is freed once the buffer becomes unreachable.
+ */
+final class DirectBuffers {
+
+	private DirectBuffers() {
+	}
+
+	static void release(ByteBuffer buffer) {
+		if (!buffer.isDirect()) {
+			return;
+		}
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			return;
+		} catch (Exception e) {
+			// Java 8 or a restricted runtime: try the buffer's own cleaner.
+		}
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			// Leave it to the collector.
+		}
+	}
+}
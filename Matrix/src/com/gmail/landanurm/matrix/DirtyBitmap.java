@@ -0,0 +1,146 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One bit per cell, in row-major order, plus one bit per row that is set
+ * when any cell of the row is. Walking the set cells skips clean rows
+ * through the row bits, and clean stretches of a row a word at a time.
+ * The whole bitmap of a 1000 x 1000 matrix takes about 125 KB.
+ */
+final class DirtyBitmap {
+	private final Dimension dim;
+	private final long[] cells;
+	private final long[] rows;
+
+	DirtyBitmap(Dimension dim) {
+		this.dim = dim;
+		this.cells = new long[wordsFor(dim.rows * dim.columns)];
+		this.rows = new long[wordsFor(dim.rows)];
+	}
+
+	private static int wordsFor(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	void mark(int row, int column) {
+		int index = row * dim.columns + column;
+		cells[index >>> 6] |= 1L << index;
+		rows[row >>> 6] |= 1L << row;
+	}
+
+	void markAll() {
+		setFirstBits(cells, dim.rows * dim.columns);
+		setFirstBits(rows, dim.rows);
+	}
+
+	private static void setFirstBits(long[] words, int bits) {
+		Arrays.fill(words, -1L);
+		if ((bits & 63) != 0) {
+			words[words.length - 1] = (1L << bits) - 1;
+		}
+	}
+
+	/**
+	 * Clears only the words of marked rows, so clearing a few changes does
+	 * not cost a pass over the whole bitmap. A word shared with a clean row
+	 * holds no marked bits of that row, so zeroing it whole is safe.
+	 */
+	void clear() {
+		for (int rowWord = 0; rowWord < rows.length; ++rowWord) {
+			long rowBits = rows[rowWord];
+			while (rowBits != 0) {
+				int row = (rowWord << 6) + Long.numberOfTrailingZeros(rowBits);
+				rowBits &= rowBits - 1;
+				int from = row * dim.columns;
+				Arrays.fill(cells, from >>> 6, wordsFor(from + dim.columns), 0);
+			}
+			rows[rowWord] = 0;
+		}
+	}
+
+	boolean isMarked(int row, int column) {
+		int index = row * dim.columns + column;
+		return (cells[index >>> 6] & (1L << index)) != 0;
+	}
+
+	boolean isRowMarked(int row) {
+		return (rows[row >>> 6] & (1L << row)) != 0;
+	}
+
+	boolean isEmpty() {
+		for (long each : rows) {
+			if (each != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Counts only the words of marked rows. Rows are visited in order, so a
+	 * word shared by two marked rows is counted once by skipping words
+	 * already passed.
+	 */
+	int cardinality() {
+		int cardinality = 0;
+		int nextWord = 0;
+		for (int rowWord = 0; rowWord < rows.length; ++rowWord) {
+			long rowBits = rows[rowWord];
+			while (rowBits != 0) {
+				int row = (rowWord << 6) + Long.numberOfTrailingZeros(rowBits);
+				rowBits &= rowBits - 1;
+				int from = row * dim.columns;
+				int to = wordsFor(from + dim.columns);
+				for (int word = Math.max(from >>> 6, nextWord); word < to; ++word) {
+					cardinality += Long.bitCount(cells[word]);
+				}
+				nextWord = Math.max(nextWord, to);
+			}
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Calls the handler for every marked cell in row-major order, passing
+	 * {@code null} as the element.
+	 */
+	void forEachMarked(OnEachCellHandler<Object> onEachCellHandler) {
+		for (int rowWord = 0; rowWord < rows.length; ++rowWord) {
+			long rowBits = rows[rowWord];
+			while (rowBits != 0) {
+				int row = (rowWord << 6) + Long.numberOfTrailingZeros(rowBits);
+				rowBits &= rowBits - 1;
+				forEachMarkedInRow(row, onEachCellHandler);
+			}
+		}
+	}
+
+	private void forEachMarkedInRow(int row, OnEachCellHandler<Object> onEachCellHandler) {
+		int from = row * dim.columns;
+		int to = from + dim.columns;
+		for (int word = from >>> 6; word < wordsFor(to); ++word) {
+			long bits = cells[word];
+			while (bits != 0) {
+				int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				if (index >= from && index < to) {
+					onEachCellHandler.handle(row, index - from, null);
+				}
+			}
+		}
+	}
+
+	List<Position> positions() {
+		final List<Position> positions = new ArrayList<Position>(cardinality());
+		forEachMarked(new OnEachCellHandler<Object>() {
+			@Override
+			public void handle(int row, int column, Object elem) {
+				positions.add(Position.withRowColumn(row, column));
+			}
+		});
+		return positions;
+	}
+}
@@ -0,0 +1,185 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * Matrix of {@code double} values stored unboxed in a flat row-major array.
+ * Use {@link #asMatrix()} to pass it to code written against
+ * {@link Matrix}{@code <Double>}.
+ */
+public final class DoubleMatrix implements Serializable {
+	private static final long serialVersionUID = -6730165611386689040L;
+
+	private final Dimension dim;
+	private final int numberOfElements;
+	private final double[] values;
+
+	public static DoubleMatrix copyOf(ReadOnlyMatrix<Double> other) {
+		final DoubleMatrix copy = new DoubleMatrix(other.getDimension());
+		other.forEach(new OnEachHandler<Double>() {
+			@Override
+			public void handle(Position pos, Double elem) {
+				copy.setDouble(pos.row, pos.column, elem);
+			}
+		});
+		return copy;
+	}
+
+	public DoubleMatrix(Dimension dim) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+		this.values = new double[numberOfElements];
+	}
+
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	double[] values() {
+		return values;
+	}
+
+	public double getDouble(int row, int column) {
+		return values[indexByRowColumn(row, column)];
+	}
+
+	public void setDouble(int row, int column, double value) {
+		values[indexByRowColumn(row, column)] = value;
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		AbstractMatrix.checkPosition(dim, row, column);
+		return row * dim.columns + column;
+	}
+
+	public void fill(double value) {
+		Arrays.fill(values, value);
+	}
+
+	/**
+	 * Values are compared the way {@link Double#equals(Object)} does, so
+	 * {@code NaN} is found and {@code 0.0} differs from {@code -0.0}.
+	 */
+	public boolean contains(double elem) {
+		return PrimitiveKernels.contains(values, elem);
+	}
+
+	public int count(double elem) {
+		return PrimitiveKernels.count(values, elem);
+	}
+
+	/**
+	 * Like {@link Math#min(double, double)}, returns {@code NaN} if any
+	 * value is {@code NaN}, and treats {@code -0.0} as smaller than
+	 * {@code 0.0}; the same goes for {@link #max()}.
+	 */
+	public double min() {
+		return PrimitiveKernels.min(values);
+	}
+
+	public double max() {
+		return PrimitiveKernels.max(values);
+	}
+
+	public void forEach(OnEachDoubleHandler onEachHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachHandler.handle(row, column, values[index++]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the values in row-major order. The stream is sized and splits
+	 * evenly, so it can be made parallel.
+	 */
+	public DoubleStream stream() {
+		return Arrays.stream(values);
+	}
+
+	/**
+	 * Returns a {@link Matrix} view of this matrix. The view boxes values on
+	 * every access, and writes through it go to this matrix. A {@code null}
+	 * value cannot be stored and causes a {@link NullPointerException}.
+	 */
+	public Matrix<Double> asMatrix() {
+		return new BoxedView();
+	}
+
+	private class BoxedView extends AbstractMatrix<Double> {
+
+		BoxedView() {
+			super(DoubleMatrix.this.dim);
+		}
+
+		@Override
+		public Double get(Position pos) {
+			return getDouble(pos.row, pos.column);
+		}
+
+		@Override
+		public void set(Position pos, Double value) {
+			setDouble(pos.row, pos.column, value);
+		}
+
+		@Override
+		public boolean contains(Double elem) {
+			return (elem != null) && DoubleMatrix.this.contains(elem);
+		}
+
+		@Override
+		public int count(Double elem) {
+			return (elem == null) ? 0 : DoubleMatrix.this.count(elem);
+		}
+
+		@Override
+		public void fill(Double value) {
+			DoubleMatrix.this.fill(value);
+		}
+
+		@Override
+		public void forEach(final OnEachHandler<Double> onEachHandler) {
+			DoubleMatrix.this.forEach(new OnEachDoubleHandler() {
+				@Override
+				public void handle(int row, int column, double elem) {
+					onEachHandler.handle(Position.withRowColumn(row, column), elem);
+				}
+			});
+		}
+
+		@Override
+		public void forEach(final OnEachCellHandler<Double> onEachCellHandler) {
+			DoubleMatrix.this.forEach(new OnEachDoubleHandler() {
+				@Override
+				public void handle(int row, int column, double elem) {
+					onEachCellHandler.handle(row, column, elem);
+				}
+			});
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof DoubleMatrix)) {
+			return false;
+		}
+		DoubleMatrix other = (DoubleMatrix) obj;
+		return dim.equals(other.dim) && Arrays.equals(values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (double each : values) {
+			long bits = Double.doubleToLongBits(each);
+			totalHashCode += (int) (bits ^ (bits >>> 32));
+		}
+		return totalHashCode + dim.hashCode();
+	}
+}
@@ -0,0 +1,214 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Matrix of enum constants packed into 2, 4 or 8 bits per cell, in
+ * row-major order in a {@code long[]}. A cell stores the ordinal plus one,
+ * and 0 stands for {@code null}, so a new matrix holds {@code null} in every
+ * cell like an {@link ArrayMatrix}. The width is the smallest that fits
+ * every constant: up to 3 constants take 2 bits, up to 15 take 4 bits and
+ * up to 255 take 8 bits.
+ * <p>
+ * Cells never straddle a word. {@link #fill} writes whole words, and
+ * {@link #count} and {@link #contains} compare all the cells of a word at
+ * once: the word is XORed with the searched code repeated across it, the
+ * bits of every cell are folded into its lowest bit, and the cells left at
+ * zero are the matches.
+ */
+public class EnumMatrix<E extends Enum<E>> extends AbstractMatrix<E> {
+
+	/** Lowest bit of every cell, by log2 of the cell width. */
+	private static final long[] LOWEST_BITS = {
+		0, 0x5555555555555555L, 0x1111111111111111L, 0x0101010101010101L
+	};
+
+	private final Class<E> type;
+	private final E[] constants;
+	private final int widthShift;
+	private final int cellsPerWordShift;
+	private final long cellMask;
+	private final long lowestBits;
+	private final long[] words;
+
+	public static <ElemType extends Enum<ElemType>> EnumMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other,
+																				Class<ElemType> type) {
+		final EnumMatrix<ElemType> copy = new EnumMatrix<ElemType>(other.getDimension(), type);
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				copy.setByIndex(row * copy.dim.columns + column, elem);
+			}
+		});
+		return copy;
+	}
+
+	public EnumMatrix(Dimension dim, Class<E> type) {
+		super(dim);
+		this.type = type;
+		this.constants = type.getEnumConstants();
+		if (constants.length > 255) {
+			throw new IllegalArgumentException(type.getName() + " has more than 255 constants");
+		}
+		int widthShift = 1;
+		while ((1 << (1 << widthShift)) <= constants.length) {
+			++widthShift;
+		}
+		this.widthShift = widthShift;
+		this.cellsPerWordShift = 6 - widthShift;
+		this.cellMask = (1L << (1 << widthShift)) - 1;
+		this.lowestBits = LOWEST_BITS[widthShift];
+		this.words = new long[(numberOfElements + (1 << cellsPerWordShift) - 1) >>> cellsPerWordShift];
+	}
+
+	/**
+	 * Returns 2, 4 or 8.
+	 */
+	public int getBitsPerCell() {
+		return 1 << widthShift;
+	}
+
+	public Class<E> getElementType() {
+		return type;
+	}
+
+	private int codeOf(E elem) {
+		return (elem == null) ? 0 : type.cast(elem).ordinal() + 1;
+	}
+
+	private int bitOffset(int index) {
+		return (index & ((1 << cellsPerWordShift) - 1)) << widthShift;
+	}
+
+	@Override
+	public E get(Position pos) {
+		checkPosition(pos);
+		int index = pos.row * dim.columns + pos.column;
+		int code = (int) ((words[index >>> cellsPerWordShift] >>> bitOffset(index)) & cellMask);
+		return (code == 0) ? null : constants[code - 1];
+	}
+
+	@Override
+	public void set(Position pos, E value) {
+		checkPosition(pos);
+		setByIndex(pos.row * dim.columns + pos.column, value);
+	}
+
+	private void setByIndex(int index, E value) {
+		int word = index >>> cellsPerWordShift;
+		int offset = bitOffset(index);
+		words[word] = (words[word] & ~(cellMask << offset)) | ((long) codeOf(value) << offset);
+	}
+
+	/**
+	 * Returns the code repeated in every cell of a word.
+	 */
+	private long repeated(int code) {
+		return lowestBits * code;
+	}
+
+	/**
+	 * Returns a word with the lowest bit of every cell set where the cell of
+	 * {@code word} is not zero.
+	 */
+	private long nonZeroCells(long word) {
+		word |= word >>> 1;
+		if (widthShift > 1) {
+			word |= word >>> 2;
+			if (widthShift > 2) {
+				word |= word >>> 4;
+			}
+		}
+		return word & lowestBits;
+	}
+
+	/**
+	 * Returns the lowest bits of the cells of the last word that lie inside
+	 * the matrix.
+	 */
+	private long lastWordCells() {
+		int cellsInLastWord = numberOfElements - ((words.length - 1) << cellsPerWordShift);
+		int usedBits = cellsInLastWord << widthShift;
+		return (usedBits == 64) ? lowestBits : lowestBits & ((1L << usedBits) - 1);
+	}
+
+	/**
+	 * Fills whole words, then clears the cells past the last one.
+	 */
+	@Override
+	public void fill(E value) {
+		Arrays.fill(words, repeated(codeOf(value)));
+		if (words.length > 0) {
+			words[words.length - 1] &= lastWordCells() * cellMask;
+		}
+	}
+
+	@Override
+	public int count(E elem) {
+		if (numberOfElements == 0 || !isStorable(elem)) {
+			return 0;
+		}
+		long pattern = repeated(codeOf(elem));
+		int lastWord = words.length - 1;
+		int mismatches = 0;
+		for (int word = 0; word < lastWord; ++word) {
+			mismatches += Long.bitCount(nonZeroCells(words[word] ^ pattern));
+		}
+		long lastCells = lastWordCells();
+		int matchesInLastWord = Long.bitCount(~nonZeroCells(words[lastWord] ^ pattern) & lastCells);
+		return (lastWord << cellsPerWordShift) - mismatches + matchesInLastWord;
+	}
+
+	@Override
+	public boolean contains(E elem) {
+		if (numberOfElements == 0 || !isStorable(elem)) {
+			return false;
+		}
+		long pattern = repeated(codeOf(elem));
+		int lastWord = words.length - 1;
+		for (int word = 0; word < lastWord; ++word) {
+			if (nonZeroCells(words[word] ^ pattern) != lowestBits) {
+				return true;
+			}
+		}
+		return (~nonZeroCells(words[lastWord] ^ pattern) & lastWordCells()) != 0;
+	}
+
+	/**
+	 * Tells whether {@code elem} can be in this matrix. An unchecked caller
+	 * can pass a constant of another enum, which is never contained.
+	 */
+	private boolean isStorable(Object elem) {
+		return (elem == null) || type.isInstance(elem);
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<E> onEachCellHandler) {
+		int row = 0;
+		int column = 0;
+		int cellsPerWord = 1 << cellsPerWordShift;
+		for (int word = 0, index = 0; word < words.length; ++word) {
+			long bits = words[word];
+			for (int cell = 0; cell < cellsPerWord && index < numberOfElements; ++cell, ++index) {
+				int code = (int) (bits & cellMask);
+				bits >>>= 1 << widthShift;
+				onEachCellHandler.handle(row, column, (code == 0) ? null : constants[code - 1]);
+				if (++column == dim.columns) {
+					column = 0;
+					++row;
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof EnumMatrix<?>) {
+			EnumMatrix<?> other = (EnumMatrix<?>) obj;
+			if (type == other.type) {
+				return dim.equals(other.dim) && Arrays.equals(words, other.words);
+			}
+		}
+		return super.equals(obj);
+	}
+}
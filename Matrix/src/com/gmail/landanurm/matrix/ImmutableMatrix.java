@@ -0,0 +1,212 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * Read-only matrix whose contents never change after it is built. Its hash
+ * code is computed once at construction, which makes it cheap to use as a
+ * {@link java.util.HashMap} key. It compares with other array-backed
+ * matrices by a bulk array comparison, after a hash code check when both
+ * sides are immutable.
+ * <p>
+ * The hash code and equality contract is the same as for {@link ArrayMatrix},
+ * so an immutable matrix equals any matrix with the same contents.
+ */
+public final class ImmutableMatrix<T> implements ReadOnlyMatrix<T> {
+
+	private final Dimension dim;
+	private final T[] values;
+	private final int hashCode;
+
+	public static <ElemType> Builder<ElemType> builder(Dimension dim) {
+		return new Builder<ElemType>(dim);
+	}
+
+	public static <ElemType> ImmutableMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		if (other instanceof ImmutableMatrix<?>) {
+			return (ImmutableMatrix<ElemType>) other;
+		}
+		final Builder<ElemType> builder = new Builder<ElemType>(other.getDimension());
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				builder.set(row, column, elem);
+			}
+		});
+		return builder.build();
+	}
+
+	/**
+	 * Collects cells for a new {@link ImmutableMatrix}. Cells not set are
+	 * {@code null}. {@link #build()} hands the collected cells over to the
+	 * matrix without copying, so a builder can be used only once.
+	 */
+	public static final class Builder<T> {
+		private final Dimension dim;
+		private T[] values;
+
+		private Builder(Dimension dim) {
+			this.dim = dim;
+			this.values = arrayByLength(dim.rows * dim.columns);
+		}
+
+		public Builder<T> set(Position pos, T value) {
+			return set(pos.row, pos.column, value);
+		}
+
+		public Builder<T> set(int row, int column, T value) {
+			AbstractMatrix.checkPosition(dim, row, column);
+			valuesToBuild()[row * dim.columns + column] = value;
+			return this;
+		}
+
+		public Builder<T> fill(T value) {
+			Arrays.fill(valuesToBuild(), value);
+			return this;
+		}
+
+		public ImmutableMatrix<T> build() {
+			ImmutableMatrix<T> matrix = new ImmutableMatrix<T>(dim, valuesToBuild());
+			values = null;
+			return matrix;
+		}
+
+		private T[] valuesToBuild() {
+			if (values == null) {
+				throw new IllegalStateException("ImmutableMatrix.Builder: matrix is already built");
+			}
+			return values;
+		}
+	}
+
+	private ImmutableMatrix(Dimension dim, T[] values) {
+		this.dim = dim;
+		this.values = values;
+		int totalHashCode = 0;
+		for (T each : values) {
+			totalHashCode += (each == null) ? 0 : each.hashCode();
+		}
+		this.hashCode = totalHashCode + dim.hashCode();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] arrayByLength(int length) {
+		return (T[]) new Object[length];
+	}
+
+	Object[] values() {
+		return values;
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	@Override
+	public T get(Position pos) {
+		AbstractMatrix.checkPosition(dim, pos.row, pos.column);
+		return values[pos.row * dim.columns + pos.column];
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		for (T each : values) {
+			if (AbstractMatrix.elementsAreEqual(each, elem)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		for (T each : elements) {
+			if (!contains(each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		for (T each : values) {
+			if (AbstractMatrix.elementsAreEqual(each, elem)) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(final OnEachHandler<T> onEachHandler) {
+		forEach(new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int row, int column, T elem) {
+				onEachHandler.handle(Position.withRowColumn(row, column), elem);
+			}
+		});
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, values[index++]);
+			}
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return MatrixIterator.overArray(values);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return MatrixSpliterator.overArray(values);
+	}
+
+	@Override
+	public Spliterator<Cell<T>> cellSpliterator() {
+		return MatrixSpliterator.cellsOfArray(values, dim.columns);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (!dim.equals(other.getDimension())) {
+			return false;
+		}
+		if (other instanceof ImmutableMatrix<?>) {
+			ImmutableMatrix<?> immutable = (ImmutableMatrix<?>) other;
+			return (hashCode == immutable.hashCode) && Arrays.equals(values, immutable.values);
+		}
+		if ((other instanceof ArrayMatrix<?>) && ((ArrayMatrix<?>) other).getOrder() == Order.ROW_MAJOR) {
+			return Arrays.equals(values, ((ArrayMatrix<?>) other).values());
+		}
+		int index = 0;
+		for (Object each : other) {
+			if (!AbstractMatrix.elementsAreEqual(values[index++], each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
@@ -0,0 +1,205 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matrix that keeps, next to its cells, an index from every stored value to
+ * the positions holding it. {@link #contains(Object)} and
+ * {@link #count(Object)} are answered from the index in constant time, and
+ * {@link #positionsOf(Object)} walks only the positions of one value. In
+ * exchange every write updates the index as well.
+ * <p>
+ * Every value keeps an unordered list of the row-major indexes holding it,
+ * and every cell remembers its slot in that list, so a write moves one
+ * index between two lists in constant time. The index takes two ints per
+ * cell however many distinct values there are, so mostly unique data costs
+ * no more than a few repeated values. Elements must not be changed in a way
+ * that affects {@code equals} or {@code hashCode} while stored.
+ */
+public class IndexedMatrix<T> extends AbstractMatrix<T> {
+
+	private static final int MIN_CAPACITY = 4;
+
+	private final T[] values;
+	/** Slot of every cell in the position list of its value. */
+	private final int[] slots;
+	private final Map<T, Occurrences> index;
+
+	private static class Occurrences {
+		int[] positions;
+		int count;
+
+		Occurrences(int capacity) {
+			positions = new int[Math.max(capacity, MIN_CAPACITY)];
+		}
+	}
+
+	public static <ElemType> IndexedMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		final IndexedMatrix<ElemType> copy = new IndexedMatrix<ElemType>(other.getDimension());
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				copy.setByIndex(row * copy.dim.columns + column, elem);
+			}
+		});
+		return copy;
+	}
+
+	public IndexedMatrix(Dimension dim) {
+		super(dim);
+		this.values = arrayByLength(numberOfElements);
+		this.slots = new int[numberOfElements];
+		this.index = new HashMap<T, Occurrences>();
+		fillAndIndex(null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] arrayByLength(int length) {
+		return (T[]) new Object[length];
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		return values[pos.row * dim.columns + pos.column];
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		setByIndex(pos.row * dim.columns + pos.column, value);
+	}
+
+	private void setByIndex(int i, T value) {
+		T old = values[i];
+		if (elementsAreEqual(old, value)) {
+			values[i] = value;
+			return;
+		}
+		Occurrences oldOccurrences = index.get(old);
+		if (oldOccurrences.count == 1) {
+			index.remove(old);
+		} else {
+			removePosition(oldOccurrences, i);
+		}
+		Occurrences newOccurrences = index.get(value);
+		if (newOccurrences == null) {
+			newOccurrences = new Occurrences(MIN_CAPACITY);
+			index.put(value, newOccurrences);
+		}
+		addPosition(newOccurrences, i);
+		values[i] = value;
+	}
+
+	private void addPosition(Occurrences occurrences, int i) {
+		if (occurrences.count == occurrences.positions.length) {
+			occurrences.positions = Arrays.copyOf(occurrences.positions, occurrences.count * 2);
+		}
+		slots[i] = occurrences.count;
+		occurrences.positions[occurrences.count++] = i;
+	}
+
+	/**
+	 * Moves the last position into the slot of the removed one, and halves
+	 * the list when it is a quarter full, so a value that once filled the
+	 * matrix does not keep its memory.
+	 */
+	private void removePosition(Occurrences occurrences, int i) {
+		int last = occurrences.positions[--occurrences.count];
+		occurrences.positions[slots[i]] = last;
+		slots[last] = slots[i];
+		int capacity = occurrences.positions.length;
+		if (capacity > MIN_CAPACITY && occurrences.count <= capacity / 4) {
+			occurrences.positions = Arrays.copyOf(occurrences.positions, capacity / 2);
+		}
+	}
+
+	@Override
+	public void fill(T value) {
+		fillAndIndex(value);
+	}
+
+	/**
+	 * Sets every cell to {@code value} and rebuilds the index to match. The
+	 * constructor uses it too, so a subclass overriding {@link #fill} is not
+	 * called on a half-built matrix.
+	 */
+	private void fillAndIndex(T value) {
+		for (int i = 0; i < numberOfElements; ++i) {
+			values[i] = value;
+		}
+		index.clear();
+		Occurrences occurrences = new Occurrences(numberOfElements);
+		for (int i = 0; i < numberOfElements; ++i) {
+			occurrences.positions[i] = i;
+			slots[i] = i;
+		}
+		occurrences.count = numberOfElements;
+		index.put(value, occurrences);
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		return index.containsKey(elem);
+	}
+
+	@Override
+	public int count(T elem) {
+		Occurrences occurrences = index.get(elem);
+		return (occurrences == null) ? 0 : occurrences.count;
+	}
+
+	/**
+	 * Returns the positions holding {@code elem} in row-major order.
+	 */
+	public List<Position> positionsOf(T elem) {
+		Occurrences occurrences = index.get(elem);
+		if (occurrences == null) {
+			return new ArrayList<Position>();
+		}
+		int[] sorted = Arrays.copyOf(occurrences.positions, occurrences.count);
+		Arrays.sort(sorted);
+		List<Position> positions = new ArrayList<Position>(sorted.length);
+		for (int i : sorted) {
+			positions.add(Position.withRowColumn(i / dim.columns, i % dim.columns));
+		}
+		return positions;
+	}
+
+	/**
+	 * Returns the number of distinct values currently stored.
+	 */
+	public int getNumberOfDistinctElements() {
+		return index.size();
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		int i = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, values[i++]);
+			}
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return MatrixIterator.overArray(values);
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (Map.Entry<T, Occurrences> each : index.entrySet()) {
+			T value = each.getKey();
+			totalHashCode += ((value == null) ? 0 : value.hashCode()) * each.getValue().count;
+		}
+		return totalHashCode + dim.hashCode();
+	}
+}
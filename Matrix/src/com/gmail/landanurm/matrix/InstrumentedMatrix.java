@@ -0,0 +1,261 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * Decorator that forwards every call to another matrix and records it in a
+ * {@link MatrixMetrics}. The counts show how a matrix is really used, for
+ * example whether it is read far more than written, or whether
+ * {@code contains} keeps scanning it to the end, and so which specialized
+ * implementation would suit it.
+ * <p>
+ * {@code forEach} is timed including the handler. An iteration is timed
+ * from {@link #iterator()} until {@code hasNext()} first returns
+ * {@code false}; iterations abandoned earlier are counted but not timed.
+ * Spliterators, and so streams, are counted as iterations and not timed.
+ * The decorator is as thread-safe as the matrix it wraps.
+ */
+public class InstrumentedMatrix<T> implements Matrix<T> {
+
+	private final Matrix<T> matrix;
+	private final MatrixMetrics metrics;
+
+	public InstrumentedMatrix(Matrix<T> matrix) {
+		this(matrix, new MatrixMetrics());
+	}
+
+	public InstrumentedMatrix(Matrix<T> matrix, MatrixMetrics metrics) {
+		this.matrix = matrix;
+		this.metrics = metrics;
+	}
+
+	public MatrixMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return matrix.getDimension();
+	}
+
+	@Override
+	public T get(Position pos) {
+		if (!metrics.recordCall(MatrixOperation.GET)) {
+			return matrix.get(pos);
+		}
+		long start = System.nanoTime();
+		try {
+			return matrix.get(pos);
+		} finally {
+			metrics.recordLatency(MatrixOperation.GET, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		if (!metrics.recordCall(MatrixOperation.SET)) {
+			matrix.set(pos, value);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			matrix.set(pos, value);
+		} finally {
+			metrics.recordLatency(MatrixOperation.SET, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void swap(Position pos1, Position pos2) {
+		if (!metrics.recordCall(MatrixOperation.SWAP)) {
+			matrix.swap(pos1, pos2);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			matrix.swap(pos1, pos2);
+		} finally {
+			metrics.recordLatency(MatrixOperation.SWAP, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void fill(T value) {
+		metrics.recordCall(MatrixOperation.FILL);
+		long start = System.nanoTime();
+		try {
+			matrix.fill(value);
+		} finally {
+			metrics.recordLatency(MatrixOperation.FILL, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		metrics.recordCall(MatrixOperation.CONTAINS);
+		long start = System.nanoTime();
+		boolean found;
+		try {
+			found = matrix.contains(elem);
+		} finally {
+			metrics.recordLatency(MatrixOperation.CONTAINS, System.nanoTime() - start);
+		}
+		if (!found) {
+			metrics.recordFullScan();
+		}
+		return found;
+	}
+
+	/**
+	 * Recorded as one {@code contains} call, which is a full scan if some
+	 * element was not found.
+	 */
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		metrics.recordCall(MatrixOperation.CONTAINS);
+		long start = System.nanoTime();
+		boolean found;
+		try {
+			found = matrix.containsAll(elements);
+		} finally {
+			metrics.recordLatency(MatrixOperation.CONTAINS, System.nanoTime() - start);
+		}
+		if (!found) {
+			metrics.recordFullScan();
+		}
+		return found;
+	}
+
+	@Override
+	public int count(T elem) {
+		metrics.recordCall(MatrixOperation.COUNT);
+		long start = System.nanoTime();
+		try {
+			return matrix.count(elem);
+		} finally {
+			metrics.recordLatency(MatrixOperation.COUNT, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void forEach(OnEachHandler<T> onEachHandler) {
+		metrics.recordCall(MatrixOperation.FOR_EACH);
+		long start = System.nanoTime();
+		try {
+			matrix.forEach(onEachHandler);
+		} finally {
+			metrics.recordLatency(MatrixOperation.FOR_EACH, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		metrics.recordCall(MatrixOperation.FOR_EACH);
+		long start = System.nanoTime();
+		try {
+			matrix.forEach(onEachCellHandler);
+		} finally {
+			metrics.recordLatency(MatrixOperation.FOR_EACH, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler, Order traversal) {
+		metrics.recordCall(MatrixOperation.FOR_EACH);
+		long start = System.nanoTime();
+		try {
+			matrix.forEach(onEachCellHandler, traversal);
+		} finally {
+			metrics.recordLatency(MatrixOperation.FOR_EACH, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return timed(matrix.iterator());
+	}
+
+	@Override
+	public Iterator<T> iterator(Order traversal) {
+		return timed(matrix.iterator(traversal));
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		metrics.recordCall(MatrixOperation.ITERATE);
+		return matrix.spliterator();
+	}
+
+	@Override
+	public Spliterator<Cell<T>> cellSpliterator() {
+		metrics.recordCall(MatrixOperation.ITERATE);
+		return matrix.cellSpliterator();
+	}
+
+	private Iterator<T> timed(final Iterator<T> iterator) {
+		metrics.recordCall(MatrixOperation.ITERATE);
+		final long start = System.nanoTime();
+		return new Iterator<T>() {
+			private boolean finished;
+
+			@Override
+			public boolean hasNext() {
+				boolean hasNext = iterator.hasNext();
+				if (!hasNext && !finished) {
+					finished = true;
+					metrics.recordLatency(MatrixOperation.ITERATE, System.nanoTime() - start);
+				}
+				return hasNext;
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+			}
+		};
+	}
+
+	/**
+	 * Compares the cells the way {@link ArrayMatrix} does, reading the
+	 * wrapped matrices directly so that neither side records an iteration.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof ReadOnlyMatrix<?>)) {
+			return false;
+		}
+		ReadOnlyMatrix<?> other = (ReadOnlyMatrix<?>) obj;
+		if (other instanceof InstrumentedMatrix<?>) {
+			other = ((InstrumentedMatrix<?>) other).matrix;
+		}
+		if (!getDimension().equals(other.getDimension())) {
+			return false;
+		}
+		Iterator<T> elements = matrix.iterator();
+		for (Object each : other) {
+			if (!AbstractMatrix.elementsAreEqual(elements.next(), each)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return matrix.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return matrix.toString();
+	}
+}
@@ -0,0 +1,175 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Matrix of {@code int} values stored unboxed in a flat row-major array.
+ * Use {@link #asMatrix()} to pass it to code written against
+ * {@link Matrix}{@code <Integer>}.
+ */
+public final class IntMatrix implements Serializable {
+	private static final long serialVersionUID = -2431529013404741370L;
+
+	private final Dimension dim;
+	private final int numberOfElements;
+	private final int[] values;
+
+	public static IntMatrix copyOf(ReadOnlyMatrix<Integer> other) {
+		final IntMatrix copy = new IntMatrix(other.getDimension());
+		other.forEach(new OnEachHandler<Integer>() {
+			@Override
+			public void handle(Position pos, Integer elem) {
+				copy.setInt(pos.row, pos.column, elem);
+			}
+		});
+		return copy;
+	}
+
+	public IntMatrix(Dimension dim) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+		this.values = new int[numberOfElements];
+	}
+
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	int[] values() {
+		return values;
+	}
+
+	public int getInt(int row, int column) {
+		return values[indexByRowColumn(row, column)];
+	}
+
+	public void setInt(int row, int column, int value) {
+		values[indexByRowColumn(row, column)] = value;
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		AbstractMatrix.checkPosition(dim, row, column);
+		return row * dim.columns + column;
+	}
+
+	public void fill(int value) {
+		Arrays.fill(values, value);
+	}
+
+	public boolean contains(int elem) {
+		return PrimitiveKernels.contains(values, elem);
+	}
+
+	public int count(int elem) {
+		return PrimitiveKernels.count(values, elem);
+	}
+
+	public int min() {
+		return PrimitiveKernels.min(values);
+	}
+
+	public int max() {
+		return PrimitiveKernels.max(values);
+	}
+
+	public void forEach(OnEachIntHandler onEachHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachHandler.handle(row, column, values[index++]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the values in row-major order. The stream is sized and splits
+	 * evenly, so it can be made parallel.
+	 */
+	public IntStream stream() {
+		return Arrays.stream(values);
+	}
+
+	/**
+	 * Returns a {@link Matrix} view of this matrix. The view boxes values on
+	 * every access, and writes through it go to this matrix. A {@code null}
+	 * value cannot be stored and causes a {@link NullPointerException}.
+	 */
+	public Matrix<Integer> asMatrix() {
+		return new BoxedView();
+	}
+
+	private class BoxedView extends AbstractMatrix<Integer> {
+
+		BoxedView() {
+			super(IntMatrix.this.dim);
+		}
+
+		@Override
+		public Integer get(Position pos) {
+			return getInt(pos.row, pos.column);
+		}
+
+		@Override
+		public void set(Position pos, Integer value) {
+			setInt(pos.row, pos.column, value);
+		}
+
+		@Override
+		public boolean contains(Integer elem) {
+			return (elem != null) && IntMatrix.this.contains(elem);
+		}
+
+		@Override
+		public int count(Integer elem) {
+			return (elem == null) ? 0 : IntMatrix.this.count(elem);
+		}
+
+		@Override
+		public void fill(Integer value) {
+			IntMatrix.this.fill(value);
+		}
+
+		@Override
+		public void forEach(final OnEachHandler<Integer> onEachHandler) {
+			IntMatrix.this.forEach(new OnEachIntHandler() {
+				@Override
+				public void handle(int row, int column, int elem) {
+					onEachHandler.handle(Position.withRowColumn(row, column), elem);
+				}
+			});
+		}
+
+		@Override
+		public void forEach(final OnEachCellHandler<Integer> onEachCellHandler) {
+			IntMatrix.this.forEach(new OnEachIntHandler() {
+				@Override
+				public void handle(int row, int column, int elem) {
+					onEachCellHandler.handle(row, column, elem);
+				}
+			});
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof IntMatrix)) {
+			return false;
+		}
+		IntMatrix other = (IntMatrix) obj;
+		return dim.equals(other.dim) && Arrays.equals(values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (int each : values) {
+			totalHashCode += each;
+		}
+		return totalHashCode + dim.hashCode();
+	}
+}
@@ -0,0 +1,58 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counter and latency histogram of one operation. Every field is
+ * a striped adder, so threads recording at the same time rarely touch the
+ * same cache line. Bucket {@code i} counts latencies below {@code 2^i}
+ * nanoseconds and at least {@code 2^(i-1)}.
+ */
+final class LatencyRecorder {
+	static final int BUCKETS = 64;
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder timedCalls = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+	LatencyRecorder() {
+		for (int i = 0; i < BUCKETS; ++i) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	void recordCall() {
+		calls.increment();
+	}
+
+	void recordLatency(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		timedCalls.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+		buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))].increment();
+	}
+
+	OperationStats snapshot() {
+		long[] histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; ++i) {
+			histogram[i] = buckets[i].sum();
+		}
+		return new OperationStats(calls.sum(), timedCalls.sum(), totalNanos.sum(), maxNanos.get(), histogram);
+	}
+
+	void reset() {
+		calls.reset();
+		timedCalls.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+		for (LongAdder each : buckets) {
+			each.reset();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Matrix of {@code long} values stored unboxed in a flat row-major array.
+ * Use {@link #asMatrix()} to pass it to code written against
+ * {@link Matrix}{@code <Long>}.
+ */
+public final class LongMatrix implements Serializable {
+	private static final long serialVersionUID = 5208816340426925318L;
+
+	private final Dimension dim;
+	private final int numberOfElements;
+	private final long[] values;
+
+	public static LongMatrix copyOf(ReadOnlyMatrix<Long> other) {
+		final LongMatrix copy = new LongMatrix(other.getDimension());
+		other.forEach(new OnEachHandler<Long>() {
+			@Override
+			public void handle(Position pos, Long elem) {
+				copy.setLong(pos.row, pos.column, elem);
+			}
+		});
+		return copy;
+	}
+
+	public LongMatrix(Dimension dim) {
+		this.dim = dim;
+		this.numberOfElements = dim.rows * dim.columns;
+		this.values = new long[numberOfElements];
+	}
+
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	long[] values() {
+		return values;
+	}
+
+	public long getLong(int row, int column) {
+		return values[indexByRowColumn(row, column)];
+	}
+
+	public void setLong(int row, int column, long value) {
+		values[indexByRowColumn(row, column)] = value;
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		AbstractMatrix.checkPosition(dim, row, column);
+		return row * dim.columns + column;
+	}
+
+	public void fill(long value) {
+		Arrays.fill(values, value);
+	}
+
+	public boolean contains(long elem) {
+		return PrimitiveKernels.contains(values, elem);
+	}
+
+	public int count(long elem) {
+		return PrimitiveKernels.count(values, elem);
+	}
+
+	public long min() {
+		return PrimitiveKernels.min(values);
+	}
+
+	public long max() {
+		return PrimitiveKernels.max(values);
+	}
+
+	public void forEach(OnEachLongHandler onEachHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachHandler.handle(row, column, values[index++]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the values in row-major order. The stream is sized and splits
+	 * evenly, so it can be made parallel.
+	 */
+	public LongStream stream() {
+		return Arrays.stream(values);
+	}
+
+	/**
+	 * Returns a {@link Matrix} view of this matrix. The view boxes values on
+	 * every access, and writes through it go to this matrix. A {@code null}
+	 * value cannot be stored and causes a {@link NullPointerException}.
+	 */
+	public Matrix<Long> asMatrix() {
+		return new BoxedView();
+	}
+
+	private class BoxedView extends AbstractMatrix<Long> {
+
+		BoxedView() {
+			super(LongMatrix.this.dim);
+		}
+
+		@Override
+		public Long get(Position pos) {
+			return getLong(pos.row, pos.column);
+		}
+
+		@Override
+		public void set(Position pos, Long value) {
+			setLong(pos.row, pos.column, value);
+		}
+
+		@Override
+		public boolean contains(Long elem) {
+			return (elem != null) && LongMatrix.this.contains(elem);
+		}
+
+		@Override
+		public int count(Long elem) {
+			return (elem == null) ? 0 : LongMatrix.this.count(elem);
+		}
+
+		@Override
+		public void fill(Long value) {
+			LongMatrix.this.fill(value);
+		}
+
+		@Override
+		public void forEach(final OnEachHandler<Long> onEachHandler) {
+			LongMatrix.this.forEach(new OnEachLongHandler() {
+				@Override
+				public void handle(int row, int column, long elem) {
+					onEachHandler.handle(Position.withRowColumn(row, column), elem);
+				}
+			});
+		}
+
+		@Override
+		public void forEach(final OnEachCellHandler<Long> onEachCellHandler) {
+			LongMatrix.this.forEach(new OnEachLongHandler() {
+				@Override
+				public void handle(int row, int column, long elem) {
+					onEachCellHandler.handle(row, column, elem);
+				}
+			});
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if ((obj == null) || !(obj instanceof LongMatrix)) {
+			return false;
+		}
+		LongMatrix other = (LongMatrix) obj;
+		return dim.equals(other.dim) && Arrays.equals(values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (long each : values) {
+			totalHashCode += (int) (each ^ (each >>> 32));
+		}
+		return totalHashCode + dim.hashCode();
+	}
+}
@@ -0,0 +1,157 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Matrix of primitive values stored in a memory-mapped file. Reads and writes
+ * go straight to the mapped pages, so the matrix can be larger than the heap
+ * and opening an existing file does not read its cells.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE}-byte header holding a magic
+ * number, the format version, the cell type and the dimension. The cells
+ * follow in row-major order. All values are little-endian. Changes reach the
+ * file at the operating system's discretion; call {@link #force()} to write
+ * them to the storage device before {@link #close()} unmaps the file.
+ */
+public final class MappedMatrix<T> extends BufferMatrix<T> {
+
+	static final int HEADER_SIZE = 64;
+	private static final int MAGIC = 0x4d545258;
+	private static final byte VERSION = 1;
+
+	private final File file;
+
+	/**
+	 * Creates the file, replacing any existing one, and maps it. All cells
+	 * start as zero.
+	 */
+	public static <ElemType> MappedMatrix<ElemType> create(File file, Dimension dim,
+														   CellType<ElemType> type) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0);
+			raf.setLength(HEADER_SIZE + dataSize(dim, type));
+			FileChannel channel = raf.getChannel();
+			writeHeader(channel, dim, type);
+			ByteBuffer[] chunks = mapChunks(channel, FileChannel.MapMode.READ_WRITE, dataSize(dim, type));
+			return new MappedMatrix<ElemType>(file, dim, type, chunks);
+		}
+	}
+
+	/**
+	 * Maps an existing file for reading and writing. The cell type stored in
+	 * its header must be {@code type}.
+	 */
+	public static <ElemType> MappedMatrix<ElemType> open(File file, CellType<ElemType> type) throws IOException {
+		return open(file, type, false);
+	}
+
+	/**
+	 * Maps an existing file, which may be read-only, for reading. Changing a
+	 * cell of the returned matrix causes a
+	 * {@link java.nio.ReadOnlyBufferException}.
+	 */
+	public static <ElemType> MappedMatrix<ElemType> openReadOnly(File file, CellType<ElemType> type)
+			throws IOException {
+		return open(file, type, true);
+	}
+
+	/**
+	 * Reads the header with a plain read rather than a mapping, so a file
+	 * shorter than the header is reported instead of being grown to its size.
+	 */
+	private static <ElemType> MappedMatrix<ElemType> open(File file, CellType<ElemType> type,
+														  boolean readOnly) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, readOnly ? "r" : "rw")) {
+			FileChannel channel = raf.getChannel();
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException(file + " is not a matrix file");
+			}
+			ByteBuffer header = readHeader(channel);
+			if (header.getInt(0) != MAGIC) {
+				throw new IOException(file + " is not a matrix file");
+			}
+			if (header.get(4) != VERSION) {
+				throw new IOException(file + " has unsupported version " + header.get(4));
+			}
+			CellType<?> storedType;
+			try {
+				storedType = CellType.byCode(header.get(5));
+			} catch (IllegalArgumentException e) {
+				throw new IOException(file + " has unknown cell type code " + header.get(5), e);
+			}
+			if (storedType != type) {
+				throw new IOException(file + " holds " + storedType + " cells, not " + type);
+			}
+			Dimension dim;
+			try {
+				dim = Dimension.withRowsColumns(header.getInt(8), header.getInt(12));
+			} catch (IllegalArgumentException e) {
+				throw new IOException(file + " has a corrupt dimension", e);
+			}
+			long dataSize = dataSize(dim, type);
+			if (channel.size() < HEADER_SIZE + dataSize) {
+				throw new IOException(file + " is truncated");
+			}
+			FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+			return new MappedMatrix<ElemType>(file, dim, type, mapChunks(channel, mode, dataSize));
+		}
+	}
+
+	private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		return header;
+	}
+
+	private static void writeHeader(FileChannel channel, Dimension dim, CellType<?> type) throws IOException {
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0, MAGIC);
+		header.put(4, VERSION);
+		header.put(5, type.getCode());
+		header.putInt(8, dim.rows);
+		header.putInt(12, dim.columns);
+		header.force();
+		DirectBuffers.release(header);
+	}
+
+	private static ByteBuffer[] mapChunks(FileChannel channel, FileChannel.MapMode mode,
+										  long dataSize) throws IOException {
+		ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(dataSize)];
+		for (int i = 0; i < chunks.length; ++i) {
+			long position = HEADER_SIZE + ((long) i << CHUNK_SHIFT);
+			chunks[i] = channel.map(mode, position, chunkCapacity(dataSize, i))
+							   .order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return chunks;
+	}
+
+	private MappedMatrix(File file, Dimension dim, CellType<T> type, ByteBuffer[] chunks) {
+		super(dim, type, chunks);
+		this.file = file;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Writes all changes made so far to the storage device.
+	 */
+	public void force() {
+		for (ByteBuffer each : openChunks()) {
+			((MappedByteBuffer) each).force();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Arithmetic on {@link DoubleMatrix} and {@link LongMatrix}, and addition
+ * of {@link IntMatrix}, working on the unboxed backing arrays directly.
+ * <p>
+ * Every operation comes in two forms. One returns a new matrix. The other
+ * writes into a given result matrix and allocates nothing. The result of
+ * {@code add} and {@code scale} may be one of the operands, which makes
+ * them in-place. The same goes for {@code transpose} of a square matrix.
+ * The result of {@code multiply} must be distinct from both operands,
+ * since every result cell is built from a whole row and a whole column.
+ * <p>
+ * {@code multiply} is cache- and register-blocked and runs on a fork/join
+ * pool, the common pool unless another is given. Small products are
+ * computed in the calling thread. {@code long} arithmetic wraps on
+ * overflow like the Java operators do.
+ */
+public final class MatrixArithmetic {
+
+	private static final int TRANSPOSE_BLOCK = 32;
+
+	private MatrixArithmetic() {
+	}
+
+	public static IntMatrix add(IntMatrix a, IntMatrix b) {
+		return add(a, b, new IntMatrix(a.getDimension()));
+	}
+
+	public static IntMatrix add(IntMatrix a, IntMatrix b, IntMatrix result) {
+		requireDimension("add", a.getDimension(), b.getDimension());
+		requireDimension("add", a.getDimension(), result.getDimension());
+		PrimitiveKernels.add(a.values(), b.values(), result.values());
+		return result;
+	}
+
+	public static DoubleMatrix add(DoubleMatrix a, DoubleMatrix b) {
+		return add(a, b, new DoubleMatrix(a.getDimension()));
+	}
+
+	public static DoubleMatrix add(DoubleMatrix a, DoubleMatrix b, DoubleMatrix result) {
+		requireDimension("add", a.getDimension(), b.getDimension());
+		requireDimension("add", a.getDimension(), result.getDimension());
+		PrimitiveKernels.add(a.values(), b.values(), result.values());
+		return result;
+	}
+
+	public static LongMatrix add(LongMatrix a, LongMatrix b) {
+		return add(a, b, new LongMatrix(a.getDimension()));
+	}
+
+	public static LongMatrix add(LongMatrix a, LongMatrix b, LongMatrix result) {
+		requireDimension("add", a.getDimension(), b.getDimension());
+		requireDimension("add", a.getDimension(), result.getDimension());
+		PrimitiveKernels.add(a.values(), b.values(), result.values());
+		return result;
+	}
+
+	public static DoubleMatrix scale(DoubleMatrix a, double factor) {
+		return scale(a, factor, new DoubleMatrix(a.getDimension()));
+	}
+
+	public static DoubleMatrix scale(DoubleMatrix a, double factor, DoubleMatrix result) {
+		requireDimension("scale", a.getDimension(), result.getDimension());
+		double[] x = a.values();
+		double[] scaled = result.values();
+		for (int i = 0; i < scaled.length; ++i) {
+			scaled[i] = x[i] * factor;
+		}
+		return result;
+	}
+
+	public static LongMatrix scale(LongMatrix a, long factor) {
+		return scale(a, factor, new LongMatrix(a.getDimension()));
+	}
+
+	public static LongMatrix scale(LongMatrix a, long factor, LongMatrix result) {
+		requireDimension("scale", a.getDimension(), result.getDimension());
+		long[] x = a.values();
+		long[] scaled = result.values();
+		for (int i = 0; i < scaled.length; ++i) {
+			scaled[i] = x[i] * factor;
+		}
+		return result;
+	}
+
+	public static DoubleMatrix transpose(DoubleMatrix a) {
+		return transpose(a, new DoubleMatrix(transposed(a.getDimension())));
+	}
+
+	/**
+	 * Works on square blocks, so both arrays are walked a few cache lines
+	 * at a time. If {@code result} is {@code a}, which requires a square
+	 * matrix, the blocks are swapped in place.
+	 */
+	public static DoubleMatrix transpose(DoubleMatrix a, DoubleMatrix result) {
+		Dimension dim = a.getDimension();
+		requireDimension("transpose", transposed(dim), result.getDimension());
+		double[] source = a.values();
+		double[] target = result.values();
+		if (result == a) {
+			for (int rowBlock = 0; rowBlock < dim.rows; rowBlock += TRANSPOSE_BLOCK) {
+				int rowEnd = Math.min(rowBlock + TRANSPOSE_BLOCK, dim.rows);
+				for (int columnBlock = rowBlock; columnBlock < dim.columns; columnBlock += TRANSPOSE_BLOCK) {
+					int columnEnd = Math.min(columnBlock + TRANSPOSE_BLOCK, dim.columns);
+					for (int row = rowBlock; row < rowEnd; ++row) {
+						for (int column = Math.max(columnBlock, row + 1); column < columnEnd; ++column) {
+							double temp = target[row * dim.columns + column];
+							target[row * dim.columns + column] = target[column * dim.columns + row];
+							target[column * dim.columns + row] = temp;
+						}
+					}
+				}
+			}
+			return result;
+		}
+		for (int rowBlock = 0; rowBlock < dim.rows; rowBlock += TRANSPOSE_BLOCK) {
+			int rowEnd = Math.min(rowBlock + TRANSPOSE_BLOCK, dim.rows);
+			for (int columnBlock = 0; columnBlock < dim.columns; columnBlock += TRANSPOSE_BLOCK) {
+				int columnEnd = Math.min(columnBlock + TRANSPOSE_BLOCK, dim.columns);
+				for (int row = rowBlock; row < rowEnd; ++row) {
+					for (int column = columnBlock; column < columnEnd; ++column) {
+						target[column * dim.rows + row] = source[row * dim.columns + column];
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	public static LongMatrix transpose(LongMatrix a) {
+		return transpose(a, new LongMatrix(transposed(a.getDimension())));
+	}
+
+	public static LongMatrix transpose(LongMatrix a, LongMatrix result) {
+		Dimension dim = a.getDimension();
+		requireDimension("transpose", transposed(dim), result.getDimension());
+		long[] source = a.values();
+		long[] target = result.values();
+		if (result == a) {
+			for (int rowBlock = 0; rowBlock < dim.rows; rowBlock += TRANSPOSE_BLOCK) {
+				int rowEnd = Math.min(rowBlock + TRANSPOSE_BLOCK, dim.rows);
+				for (int columnBlock = rowBlock; columnBlock < dim.columns; columnBlock += TRANSPOSE_BLOCK) {
+					int columnEnd = Math.min(columnBlock + TRANSPOSE_BLOCK, dim.columns);
+					for (int row = rowBlock; row < rowEnd; ++row) {
+						for (int column = Math.max(columnBlock, row + 1); column < columnEnd; ++column) {
+							long temp = target[row * dim.columns + column];
+							target[row * dim.columns + column] = target[column * dim.columns + row];
+							target[column * dim.columns + row] = temp;
+						}
+					}
+				}
+			}
+			return result;
+		}
+		for (int rowBlock = 0; rowBlock < dim.rows; rowBlock += TRANSPOSE_BLOCK) {
+			int rowEnd = Math.min(rowBlock + TRANSPOSE_BLOCK, dim.rows);
+			for (int columnBlock = 0; columnBlock < dim.columns; columnBlock += TRANSPOSE_BLOCK) {
+				int columnEnd = Math.min(columnBlock + TRANSPOSE_BLOCK, dim.columns);
+				for (int row = rowBlock; row < rowEnd; ++row) {
+					for (int column = columnBlock; column < columnEnd; ++column) {
+						target[column * dim.rows + row] = source[row * dim.columns + column];
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	public static DoubleMatrix multiply(DoubleMatrix a, DoubleMatrix b) {
+		return multiply(a, b, new DoubleMatrix(productDimension(a.getDimension(), b.getDimension())));
+	}
+
+	public static DoubleMatrix multiply(DoubleMatrix a, DoubleMatrix b, DoubleMatrix result) {
+		return multiply(a, b, result, ForkJoinPool.commonPool());
+	}
+
+	public static DoubleMatrix multiply(DoubleMatrix a, DoubleMatrix b, DoubleMatrix result, ForkJoinPool pool) {
+		Dimension dim = productDimension(a.getDimension(), b.getDimension());
+		requireDimension("multiply", dim, result.getDimension());
+		if (result == a || result == b) {
+			throw new IllegalArgumentException("multiply: result must differ from both operands");
+		}
+		MultiplyTasks.multiply(pool, a.values(), b.values(), result.values(),
+							   dim.rows, a.getDimension().columns, dim.columns);
+		return result;
+	}
+
+	public static LongMatrix multiply(LongMatrix a, LongMatrix b) {
+		return multiply(a, b, new LongMatrix(productDimension(a.getDimension(), b.getDimension())));
+	}
+
+	public static LongMatrix multiply(LongMatrix a, LongMatrix b, LongMatrix result) {
+		return multiply(a, b, result, ForkJoinPool.commonPool());
+	}
+
+	public static LongMatrix multiply(LongMatrix a, LongMatrix b, LongMatrix result, ForkJoinPool pool) {
+		Dimension dim = productDimension(a.getDimension(), b.getDimension());
+		requireDimension("multiply", dim, result.getDimension());
+		if (result == a || result == b) {
+			throw new IllegalArgumentException("multiply: result must differ from both operands");
+		}
+		MultiplyTasks.multiply(pool, a.values(), b.values(), result.values(),
+							   dim.rows, a.getDimension().columns, dim.columns);
+		return result;
+	}
+
+	private static Dimension transposed(Dimension dim) {
+		return Dimension.withRowsColumns(dim.columns, dim.rows);
+	}
+
+	private static Dimension productDimension(Dimension a, Dimension b) {
+		if (a.columns != b.rows) {
+			throw new IllegalArgumentException("multiply: cannot multiply " + a + " by " + b);
+		}
+		return Dimension.withRowsColumns(a.rows, b.columns);
+	}
+
+	private static void requireDimension(String operation, Dimension expected, Dimension actual) {
+		if (!expected.equals(actual)) {
+			throw new IllegalArgumentException(operation + ": expected " + expected + " but got " + actual);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.List;
+
+/**
+ * The cells of a {@link TrackedMatrix} changed between two
+ * {@link TrackedMatrix#publishChanges()} calls. The event reads the dirty
+ * bitmap of its batch, which the matrix reuses after the next
+ * {@code publishChanges()}, so the event is valid until then; keep
+ * {@link #getPositions()} to hold on to the changes longer. Past that point
+ * every method that reads the changes throws {@link IllegalStateException}.
+ * The cell values are read from the matrix when asked for.
+ */
+public final class MatrixChangeEvent<T> {
+	private final TrackedMatrix<T> source;
+	private final DirtyBitmap changed;
+	private final boolean filled;
+	private final int generation;
+
+	MatrixChangeEvent(TrackedMatrix<T> source, DirtyBitmap changed, boolean filled, int generation) {
+		this.source = source;
+		this.changed = changed;
+		this.filled = filled;
+		this.generation = generation;
+	}
+
+	/**
+	 * Tells whether the bitmap of this event still holds its batch, that is
+	 * whether no later event was published by the source.
+	 */
+	public boolean isCurrent() {
+		return source.getGeneration() == generation;
+	}
+
+	private void checkCurrent() {
+		if (!isCurrent()) {
+			throw new IllegalStateException("The changes of this event were recycled by a later publishChanges()");
+		}
+	}
+
+	public TrackedMatrix<T> getSource() {
+		return source;
+	}
+
+	/**
+	 * Tells whether {@code fill} was called since the previous event, in
+	 * which case every cell counts as changed and consumers will usually
+	 * want to take the whole matrix instead of walking the positions.
+	 */
+	public boolean isFilled() {
+		return filled;
+	}
+
+	public int getNumberOfChanges() {
+		checkCurrent();
+		return changed.cardinality();
+	}
+
+	public boolean isChanged(Position pos) {
+		checkCurrent();
+		AbstractMatrix.checkPosition(source.getDimension(), pos.row, pos.column);
+		return changed.isMarked(pos.row, pos.column);
+	}
+
+	public boolean isRowChanged(int row) {
+		checkCurrent();
+		AbstractMatrix.checkPosition(source.getDimension(), row, 0);
+		return changed.isRowMarked(row);
+	}
+
+	/**
+	 * Returns the changed positions in row-major order.
+	 */
+	public List<Position> getPositions() {
+		checkCurrent();
+		return changed.positions();
+	}
+
+	/**
+	 * Calls the handler for every changed cell in row-major order, with the
+	 * value the cell has now.
+	 */
+	public void forEachChange(final OnEachCellHandler<T> onEachCellHandler) {
+		checkCurrent();
+		changed.forEachMarked(new OnEachCellHandler<Object>() {
+			@Override
+			public void handle(int row, int column, Object elem) {
+				onEachCellHandler.handle(row, column, source.get(Position.withRowColumn(row, column)));
+			}
+		});
+	}
+}
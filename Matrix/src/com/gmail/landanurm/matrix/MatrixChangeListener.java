@@ -0,0 +1,9 @@
+package com.gmail.landanurm.matrix;
+
+/**
+ * Receives the changes of a {@link TrackedMatrix}, one event per
+ * {@link TrackedMatrix#publishChanges()} call that found something changed.
+ */
+public interface MatrixChangeListener<T> {
+	void matrixChanged(MatrixChangeEvent<T> event);
+}
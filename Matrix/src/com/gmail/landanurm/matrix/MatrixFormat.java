@@ -0,0 +1,548 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary format for matrices.
+ * <pre>
+ * int   magic
+ * byte  version
+ * byte  element kind
+ * int   rows
+ * int   columns
+ * byte  1 if some cells are null, 0 otherwise
+ * [presence bitmap, one bit per cell, only if some cells are null]
+ * values of the non-null cells in row-major order
+ * </pre>
+ * When every non-null cell holds the same boxed primitive type or
+ * {@link String}, the values are written as packed big-endian primitives (or
+ * length-prefixed UTF-8), and moved through a fixed-size block buffer in both
+ * directions. A mix of boxed primitives and strings, such as the
+ * {@link Long}s and {@link Integer}s of a {@code Matrix<Number>}, is written
+ * with a kind byte before each value. Any other element is written with
+ * {@link ObjectOutput#writeObject(Object)}, which needs an {@link ObjectOutput}
+ * such as {@link java.io.ObjectOutputStream}.
+ * <p>
+ * Reading does not trust the dimension in the header: the backing array is
+ * allocated only once the presence bitmap or the values themselves have
+ * been read, so a corrupt dimension fails with the input instead of
+ * allocating gigabytes up front.
+ */
+public final class MatrixFormat {
+
+	static final int MAGIC = 0x4d545853;
+	static final byte VERSION = 1;
+	private static final int BLOCK_SIZE = 1 << 16;
+	/** The largest array length every common VM can allocate. */
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	private MatrixFormat() {
+	}
+
+	public static void write(ReadOnlyMatrix<?> matrix, DataOutput out) throws IOException {
+		Object[] values = valuesOf(matrix);
+		Kind kind = Kind.of(values);
+		if ((kind == Kind.OBJECT) && !(out instanceof ObjectOutput)) {
+			throw new IllegalArgumentException(
+					"Matrix of arbitrary objects can be written only to an ObjectOutput");
+		}
+		Dimension dim = matrix.getDimension();
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeByte(kind.code);
+		out.writeInt(dim.rows);
+		out.writeInt(dim.columns);
+		writePresence(values, out);
+		if (kind.fixedWidth != null) {
+			writeFixedWidth(kind.fixedWidth, values, out);
+		} else if (kind == Kind.STRING) {
+			writeStrings(values, out);
+		} else if (kind == Kind.MIXED) {
+			writeMixed(values, out);
+		} else if (kind == Kind.OBJECT) {
+			writeObjects(values, (ObjectOutput) out);
+		}
+	}
+
+	public static void write(ReadOnlyMatrix<?> matrix, WritableByteChannel channel) throws IOException {
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Channels.newOutputStream(channel), BLOCK_SIZE));
+		write(matrix, (DataOutput) out);
+		out.flush();
+	}
+
+	public static <T> ArrayMatrix<T> read(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new StreamCorruptedException("Not a matrix");
+		}
+		return readAfterMagic(in);
+	}
+
+	/**
+	 * Reads a matrix whose leading {@link #MAGIC} the caller has already
+	 * read and checked.
+	 */
+	static <T> ArrayMatrix<T> readAfterMagic(DataInput in) throws IOException {
+		byte version = in.readByte();
+		if (version != VERSION) {
+			throw new StreamCorruptedException("Unsupported matrix format version " + version);
+		}
+		Kind kind = Kind.byCode(in.readByte());
+		Dimension dim;
+		try {
+			dim = Dimension.withRowsColumns(in.readInt(), in.readInt());
+		} catch (IllegalArgumentException e) {
+			throw new StreamCorruptedException(e.getMessage());
+		}
+		long numberOfCells = (long) dim.rows * dim.columns;
+		if (numberOfCells > MAX_ARRAY_LENGTH) {
+			throw new StreamCorruptedException("Dimension " + dim + " has more cells than an array can hold");
+		}
+		int[] presentIndexes = readPresence((int) numberOfCells, in);
+		if ((presentIndexes == null) && (kind == Kind.NONE)) {
+			throw new StreamCorruptedException("Matrix without values claims to have no null cells");
+		}
+		int count = (presentIndexes == null) ? (int) numberOfCells : presentIndexes.length;
+		Object[] present;
+		if (kind.fixedWidth != null) {
+			present = readFixedWidth(kind.fixedWidth, count, in);
+		} else if (kind == Kind.STRING) {
+			present = readStrings(count, in);
+		} else if (kind == Kind.MIXED) {
+			present = readMixed(count, in);
+		} else if (kind == Kind.OBJECT) {
+			present = readObjects(count, in);
+		} else {
+			present = new Object[0];
+		}
+		if (presentIndexes == null) {
+			return wrap(dim, present);
+		}
+		Object[] values = new Object[(int) numberOfCells];
+		for (int i = 0; i < presentIndexes.length; ++i) {
+			values[presentIndexes[i]] = present[i];
+		}
+		return wrap(dim, values);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ArrayMatrix<T> wrap(Dimension dim, Object[] rowMajorValues) {
+		return new ArrayMatrix<T>(dim, (T[]) rowMajorValues);
+	}
+
+	public static <T> ArrayMatrix<T> read(ReadableByteChannel channel) throws IOException {
+		return read((DataInput) new DataInputStream(Channels.newInputStream(channel)));
+	}
+
+	private static Object[] valuesOf(ReadOnlyMatrix<?> matrix) {
+		if ((matrix instanceof ArrayMatrix<?>) && ((ArrayMatrix<?>) matrix).getOrder() == Order.ROW_MAJOR) {
+			return ((ArrayMatrix<?>) matrix).values();
+		}
+		return copyValues(matrix);
+	}
+
+	private static <T> Object[] copyValues(ReadOnlyMatrix<T> matrix) {
+		final int columns = matrix.getDimension().columns;
+		final Object[] values = new Object[matrix.getDimension().rows * columns];
+		matrix.forEach(new OnEachCellHandler<T>() {
+			@Override
+			public void handle(int row, int column, T elem) {
+				values[row * columns + column] = elem;
+			}
+		});
+		return values;
+	}
+
+	private static void writePresence(Object[] values, DataOutput out) throws IOException {
+		boolean hasNulls = false;
+		for (Object each : values) {
+			if (each == null) {
+				hasNulls = true;
+				break;
+			}
+		}
+		out.writeByte(hasNulls ? 1 : 0);
+		if (!hasNulls) {
+			return;
+		}
+		byte[] bitmap = new byte[(values.length + 7) >>> 3];
+		for (int i = 0; i < values.length; ++i) {
+			if (values[i] != null) {
+				bitmap[i >>> 3] |= 1 << (i & 7);
+			}
+		}
+		out.write(bitmap);
+	}
+
+	private static int[] readPresence(int numberOfElements, DataInput in) throws IOException {
+		boolean hasNulls = in.readByte() != 0;
+		if (!hasNulls) {
+			return null;
+		}
+		byte[] bitmap = readBytes((numberOfElements + 7) >>> 3, in);
+		int present = 0;
+		for (byte each : bitmap) {
+			present += Integer.bitCount(each & 0xff);
+		}
+		int[] presentIndexes = new int[present];
+		int next = 0;
+		for (int i = 0; i < numberOfElements; ++i) {
+			if ((bitmap[i >>> 3] & (1 << (i & 7))) != 0) {
+				presentIndexes[next++] = i;
+			}
+		}
+		return presentIndexes;
+	}
+
+	private static void writeFixedWidth(FixedWidth fixedWidth, Object[] values, DataOutput out) throws IOException {
+		ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+		for (Object each : values) {
+			if (each == null) {
+				continue;
+			}
+			if (block.remaining() < fixedWidth.width) {
+				out.write(block.array(), 0, block.position());
+				block.clear();
+			}
+			fixedWidth.put(block, each);
+		}
+		out.write(block.array(), 0, block.position());
+	}
+
+	/**
+	 * Returns {@code values}, or a copy grown to hold at least {@code length}
+	 * of the {@code count} values expected. Arrays of values grow as values are
+	 * actually read, never to a count taken from the stream up front.
+	 */
+	private static Object[] withRoom(Object[] values, int length, int count) {
+		if (length <= values.length) {
+			return values;
+		}
+		return Arrays.copyOf(values, (int) Math.min(count, Math.max(length, 2L * values.length)));
+	}
+
+	private static Object[] readFixedWidth(FixedWidth fixedWidth, int count, DataInput in) throws IOException {
+		Object[] values = new Object[Math.min(count, BLOCK_SIZE)];
+		int valuesPerBlock = BLOCK_SIZE / fixedWidth.width;
+		ByteBuffer block = ByteBuffer.allocate(valuesPerBlock * fixedWidth.width);
+		int read = 0;
+		while (read < count) {
+			int inBlock = Math.min(valuesPerBlock, count - read);
+			block.clear();
+			in.readFully(block.array(), 0, inBlock * fixedWidth.width);
+			values = withRoom(values, read + inBlock, count);
+			for (int i = 0; i < inBlock; ++i, ++read) {
+				values[read] = fixedWidth.get(block);
+			}
+		}
+		return values;
+	}
+
+	private static void writeStrings(Object[] values, DataOutput out) throws IOException {
+		for (Object each : values) {
+			if (each != null) {
+				byte[] bytes = ((String) each).getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	private static Object[] readStrings(int count, DataInput in) throws IOException {
+		Object[] values = new Object[Math.min(count, BLOCK_SIZE)];
+		for (int i = 0; i < count; ++i) {
+			values = withRoom(values, i + 1, count);
+			values[i] = new String(readBytes(in.readInt(), in), StandardCharsets.UTF_8);
+		}
+		return values;
+	}
+
+	/**
+	 * Reads {@code length} bytes. A length read from the stream is not
+	 * trusted: long strings and bitmaps are read a block at a time, so memory
+	 * grows only with the input actually there, and a length beyond the end
+	 * of the input fails instead of allocating up to 2 GB first.
+	 */
+	private static byte[] readBytes(int length, DataInput in) throws IOException {
+		if (length < 0) {
+			throw new StreamCorruptedException("Negative string length " + length);
+		}
+		try {
+			if (length <= BLOCK_SIZE) {
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				return bytes;
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(BLOCK_SIZE);
+			byte[] block = new byte[BLOCK_SIZE];
+			for (int remaining = length; remaining > 0; remaining -= block.length) {
+				int inBlock = Math.min(block.length, remaining);
+				in.readFully(block, 0, inBlock);
+				bytes.write(block, 0, inBlock);
+			}
+			return bytes.toByteArray();
+		} catch (EOFException e) {
+			StreamCorruptedException exception =
+					new StreamCorruptedException("Length " + length + " exceeds the remaining input");
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+
+	private static void writeMixed(Object[] values, DataOutput out) throws IOException {
+		ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+		for (Object each : values) {
+			if (each == null) {
+				continue;
+			}
+			Kind kind = Kind.ofClass(each.getClass());
+			out.writeByte(kind.code);
+			if (kind == Kind.STRING) {
+				byte[] bytes = ((String) each).getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			} else {
+				scratch.clear();
+				kind.fixedWidth.put(scratch, each);
+				out.write(scratch.array(), 0, kind.fixedWidth.width);
+			}
+		}
+	}
+
+	private static Object[] readMixed(int count, DataInput in) throws IOException {
+		ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+		Object[] values = new Object[Math.min(count, BLOCK_SIZE)];
+		for (int i = 0; i < count; ++i) {
+			values = withRoom(values, i + 1, count);
+			Kind kind = Kind.byCode(in.readByte());
+			if (kind == Kind.STRING) {
+				values[i] = new String(readBytes(in.readInt(), in), StandardCharsets.UTF_8);
+			} else if (kind.fixedWidth != null) {
+				in.readFully(scratch.array(), 0, kind.fixedWidth.width);
+				scratch.clear();
+				values[i] = kind.fixedWidth.get(scratch);
+			} else {
+				throw new StreamCorruptedException("Element kind " + kind + " cannot be mixed");
+			}
+		}
+		return values;
+	}
+
+	private static void writeObjects(Object[] values, ObjectOutput out) throws IOException {
+		for (Object each : values) {
+			if (each != null) {
+				out.writeObject(each);
+			}
+		}
+	}
+
+	private static Object[] readObjects(int count, DataInput in) throws IOException {
+		if (!(in instanceof ObjectInput)) {
+			throw new IllegalArgumentException(
+					"Matrix of arbitrary objects can be read only from an ObjectInput");
+		}
+		ObjectInput objectIn = (ObjectInput) in;
+		Object[] values = new Object[Math.min(count, BLOCK_SIZE)];
+		for (int i = 0; i < count; ++i) {
+			values = withRoom(values, i + 1, count);
+			try {
+				values[i] = objectIn.readObject();
+			} catch (ClassNotFoundException e) {
+				InvalidObjectException exception = new InvalidObjectException(e.getMessage());
+				exception.initCause(e);
+				throw exception;
+			}
+		}
+		return values;
+	}
+
+	private enum Kind {
+		NONE(0, null, null),
+		BOOLEAN(1, Boolean.class, FixedWidth.BOOLEAN),
+		BYTE(2, Byte.class, FixedWidth.BYTE),
+		SHORT(3, Short.class, FixedWidth.SHORT),
+		CHAR(4, Character.class, FixedWidth.CHAR),
+		INT(5, Integer.class, FixedWidth.INT),
+		LONG(6, Long.class, FixedWidth.LONG),
+		FLOAT(7, Float.class, FixedWidth.FLOAT),
+		DOUBLE(8, Double.class, FixedWidth.DOUBLE),
+		STRING(9, String.class, null),
+		OBJECT(10, null, null),
+		/** Boxed primitives and strings of several types, each tagged with its kind. */
+		MIXED(11, null, null);
+
+		final byte code;
+		final Class<?> type;
+		/** How values are packed, or {@code null} if they are not fixed-width. */
+		final FixedWidth fixedWidth;
+
+		Kind(int code, Class<?> type, FixedWidth fixedWidth) {
+			this.code = (byte) code;
+			this.type = type;
+			this.fixedWidth = fixedWidth;
+		}
+
+		static Kind of(Object[] values) {
+			Class<?> commonType = null;
+			boolean mixed = false;
+			for (Object each : values) {
+				if (each == null) {
+					continue;
+				}
+				if (commonType == null) {
+					commonType = each.getClass();
+				} else if (commonType != each.getClass()) {
+					if (ofClass(each.getClass()) == OBJECT) {
+						return OBJECT;
+					}
+					mixed = true;
+				}
+			}
+			if (commonType == null) {
+				return NONE;
+			}
+			Kind kind = ofClass(commonType);
+			return (mixed && kind != OBJECT) ? MIXED : kind;
+		}
+
+		/**
+		 * Returns the kind whose values all have the given class, or
+		 * {@link #OBJECT} if there is none.
+		 */
+		static Kind ofClass(Class<?> type) {
+			for (Kind each : values()) {
+				if (each.type == type) {
+					return each;
+				}
+			}
+			return OBJECT;
+		}
+
+		static Kind byCode(byte code) throws StreamCorruptedException {
+			for (Kind each : values()) {
+				if (each.code == code) {
+					return each;
+				}
+			}
+			throw new StreamCorruptedException("Unknown element kind " + code);
+		}
+	}
+
+	private enum FixedWidth {
+		BOOLEAN(1) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.put((byte) (((Boolean) value) ? 1 : 0));
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.get() != 0;
+			}
+		},
+		BYTE(1) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.put((Byte) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.get();
+			}
+		},
+		SHORT(2) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.putShort((Short) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.getShort();
+			}
+		},
+		CHAR(2) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.putChar((Character) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.getChar();
+			}
+		},
+		INT(4) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.putInt((Integer) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.getInt();
+			}
+		},
+		LONG(8) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.putLong((Long) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.getLong();
+			}
+		},
+		FLOAT(4) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.putFloat((Float) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.getFloat();
+			}
+		},
+		DOUBLE(8) {
+			@Override
+			void put(ByteBuffer block, Object value) {
+				block.putDouble((Double) value);
+			}
+
+			@Override
+			Object get(ByteBuffer block) {
+				return block.getDouble();
+			}
+		};
+
+		final int width;
+
+		FixedWidth(int width) {
+			this.width = width;
+		}
+
+		abstract void put(ByteBuffer block, Object value);
+
+		abstract Object get(ByteBuffer block);
+	}
+}
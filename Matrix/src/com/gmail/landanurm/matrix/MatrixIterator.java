@@ -3,49 +3,82 @@ package com.gmail.landanurm.matrix;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-class MatrixIterator<T> implements Iterator<T> {
+abstract class MatrixIterator<T> implements Iterator<T> {
 
-	static <ElemType> MatrixIterator<ElemType> of(Matrix<ElemType> matrix) {
-		return new MatrixIterator<ElemType>(matrix);
+	static <ElemType> MatrixIterator<ElemType> of(ReadOnlyMatrix<ElemType> matrix) {
+		return of(matrix, Order.ROW_MAJOR);
 	}
 
-	private final Dimension dimension;
-	private final Matrix<T> matrix;
-	private Position nextPosition;
+	static <ElemType> MatrixIterator<ElemType> of(final ReadOnlyMatrix<ElemType> matrix, Order order) {
+		final Dimension dimension = matrix.getDimension();
+		if (order == Order.COLUMN_MAJOR) {
+			return new MatrixIterator<ElemType>(dimension.rows * dimension.columns) {
+				@Override
+				ElemType elementAt(int index) {
+					int row = index % dimension.rows;
+					int column = index / dimension.rows;
+					return matrix.get(Position.withRowColumn(row, column));
+				}
+			};
+		}
+		return new MatrixIterator<ElemType>(dimension.rows * dimension.columns) {
+			@Override
+			ElemType elementAt(int index) {
+				int row = index / dimension.columns;
+				int column = index % dimension.columns;
+				return matrix.get(Position.withRowColumn(row, column));
+			}
+		};
+	}
 
-	private MatrixIterator(Matrix<T> matrix) {
-		this.matrix = matrix;
-		this.dimension = matrix.getDimension();
-		this.nextPosition = Position.withRowColumn(0, 0);
+	static <ElemType> MatrixIterator<ElemType> overArray(final ElemType[] values) {
+		return new MatrixIterator<ElemType>(values.length) {
+			@Override
+			ElemType elementAt(int index) {
+				return values[index];
+			}
+		};
 	}
 
-	@Override
-	public boolean hasNext() {
-		return insideMatrix(nextPosition);
+	/**
+	 * Iterates over an array stored in one order in the other order. Lines
+	 * are what the traversal runs along, so {@code lineLength} is the number
+	 * of columns when a column-major array is traversed row by row, and the
+	 * number of rows in the opposite case.
+	 */
+	static <ElemType> MatrixIterator<ElemType> acrossArray(final ElemType[] values, final int lineLength) {
+		final int lines = values.length / lineLength;
+		return new MatrixIterator<ElemType>(values.length) {
+			@Override
+			ElemType elementAt(int index) {
+				return values[(index % lineLength) * lines + index / lineLength];
+			}
+		};
 	}
 
-	private boolean insideMatrix(Position pos) {
-		return (pos.row < dimension.rows) && (pos.column < dimension.columns);
+	private final int numberOfElements;
+	private int nextIndex;
+
+	private MatrixIterator(int numberOfElements) {
+		this.numberOfElements = numberOfElements;
+		this.nextIndex = 0;
+	}
+
+	abstract T elementAt(int index);
+
+	@Override
+	public boolean hasNext() {
+		return nextIndex < numberOfElements;
 	}
 
 	@Override
 	public T next() {
 		if (!hasNext()) {
 			throw new NoSuchElementException(
-				"Position " + nextPosition + " outside of matrix with dimension " + dimension
+				"Index " + nextIndex + " outside of matrix with " + numberOfElements + " elements"
 			);
 		}
-		T next = matrix.get(nextPosition);
-		nextPosition = nextPosition();
-		return next;
-	}
-
-	private Position nextPosition() {
-		if (nextPosition.column + 1 < dimension.columns) {
-			return Position.withRowColumn(nextPosition.row, nextPosition.column + 1);
-		} else {
-			return Position.withRowColumn(nextPosition.row + 1, 0);
-		}
+		return elementAt(nextIndex++);
 	}
 
 	@Override
@@ -0,0 +1,367 @@
+package com.gmail.landanurm.matrix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Persists a matrix as a base image plus an append-only log of changes, so
+ * that saving costs in proportion to the number of cells changed since the
+ * last save rather than to the size of the matrix.
+ * <p>
+ * The matrix is edited through {@link #getMatrix()}, a {@link TrackedMatrix}.
+ * {@link #checkpoint()} appends one record with the index and new value of
+ * every cell changed since the previous checkpoint. The journal tracks
+ * changes in a layer of its own under that matrix, so publishing or
+ * clearing its changes does not hide them from the next checkpoint.
+ * {@link #compact()} writes the current state as a new base and empties the
+ * log. {@link #open} and {@link #replay} rebuild the state by reading the
+ * base and applying the records in order.
+ * <pre>
+ * base: int magic, long generation, matrix in {@link MatrixFormat}
+ * log:  int magic, long generation, records
+ * record: int payload length, int CRC-32 of payload, payload
+ * payload: int count, count * int index, values as a 1 x count matrix in {@link MatrixFormat}
+ * </pre>
+ * A record cut short by a crash fails its length or checksum test; replay
+ * stops before it, and {@link #open} truncates the log there. Compaction
+ * writes the new base to a temporary file, renames it over the old one
+ * and only then resets the log. The base and the log carry a generation
+ * number, so a log left over from before a compaction that was interrupted
+ * after the rename is recognized and ignored.
+ * <p>
+ * Cells are written through {@link MatrixFormat} to plain data streams, so
+ * they must be {@code null}, boxed primitives or strings, in any mix of
+ * types. A journal is not thread-safe.
+ */
+public final class MatrixJournal<T> implements Closeable {
+
+	private static final int BASE_MAGIC = 0x4d544a42;
+	private static final int LOG_MAGIC = 0x4d544a4c;
+	private static final int HEADER_SIZE = 12;
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private final File baseFile;
+	private final File logFile;
+	private final TrackedMatrix<T> journaled;
+	private final TrackedMatrix<T> matrix;
+	private long generation;
+	private FileOutputStream log;
+	/**
+	 * Whether the log on disk may be left over from an earlier generation or
+	 * cut short, because a compaction failed to reset it.
+	 */
+	private boolean logIsStale;
+
+	/**
+	 * Writes {@code initial} as the base, replacing any existing files, and
+	 * starts an empty log.
+	 */
+	public static <ElemType> MatrixJournal<ElemType> create(File baseFile, File logFile,
+															ReadOnlyMatrix<ElemType> initial) throws IOException {
+		ArrayMatrix<ElemType> copy = new ArrayMatrix<ElemType>(initial.getDimension());
+		copyInto(initial, copy);
+		writeBase(baseFile, copy, 0);
+		resetLog(logFile, 0);
+		return new MatrixJournal<ElemType>(baseFile, logFile, copy, 0);
+	}
+
+	/**
+	 * Rebuilds the state from the base and the log and continues the log
+	 * after its last complete record.
+	 */
+	public static <ElemType> MatrixJournal<ElemType> open(File baseFile, File logFile) throws IOException {
+		Replay<ElemType> replay = replayFiles(baseFile, logFile);
+		if (replay.validLogLength < 0) {
+			resetLog(logFile, replay.generation);
+		} else {
+			try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw")) {
+				raf.getChannel().truncate(replay.validLogLength);
+			}
+		}
+		return new MatrixJournal<ElemType>(baseFile, logFile, replay.matrix, replay.generation);
+	}
+
+	/**
+	 * Returns the state stored in the files without opening them for
+	 * writing.
+	 */
+	public static <ElemType> ArrayMatrix<ElemType> replay(File baseFile, File logFile) throws IOException {
+		return MatrixJournal.<ElemType>replayFiles(baseFile, logFile).matrix;
+	}
+
+	private MatrixJournal(File baseFile, File logFile, ArrayMatrix<T> state, long generation) throws IOException {
+		this.baseFile = baseFile;
+		this.logFile = logFile;
+		this.journaled = new TrackedMatrix<T>(state);
+		this.matrix = new TrackedMatrix<T>(journaled);
+		this.generation = generation;
+		this.log = new FileOutputStream(logFile, true);
+	}
+
+	public TrackedMatrix<T> getMatrix() {
+		return matrix;
+	}
+
+	public long getLogSize() {
+		return logFile.length();
+	}
+
+	/**
+	 * Appends the cells changed since the previous checkpoint to the log and
+	 * forces them to the storage device. Returns the number of cells
+	 * written, which is 0 if nothing changed; then nothing is written.
+	 */
+	public int checkpoint() throws IOException {
+		checkOpen();
+		if (logIsStale) {
+			reopenLog();
+		}
+		int count = journaled.getNumberOfDirtyCells();
+		if (count == 0) {
+			return 0;
+		}
+		final int columns = journaled.getDimension().columns;
+		final int[] indexes = new int[count];
+		final ArrayMatrix<T> values = new ArrayMatrix<T>(Dimension.withRowsColumns(1, count));
+		final Object[] valueArray = values.values();
+		journaled.forEachDirty(new OnEachCellHandler<T>() {
+			private int next;
+
+			@Override
+			public void handle(int row, int column, T elem) {
+				indexes[next] = row * columns + column;
+				valueArray[next++] = elem;
+			}
+		});
+		ByteArrayOutputStream payload = new ByteArrayOutputStream(count * 8 + 64);
+		DataOutputStream out = new DataOutputStream(payload);
+		out.writeInt(count);
+		for (int each : indexes) {
+			out.writeInt(each);
+		}
+		MatrixFormat.write(values, out);
+		out.flush();
+		writeRecord(payload.toByteArray());
+		journaled.clearDirty();
+		return count;
+	}
+
+	/**
+	 * Appends a record, or leaves the log as it was if that fails, so that
+	 * a later checkpoint is not written behind a damaged record that replay
+	 * stops at.
+	 */
+	private void writeRecord(byte[] payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+		record.putInt(payload.length);
+		record.putInt((int) crc.getValue());
+		record.put(payload);
+		record.flip();
+		FileChannel channel = log.getChannel();
+		long length = channel.size();
+		try {
+			while (record.hasRemaining()) {
+				channel.write(record);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			try {
+				channel.truncate(length);
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the current state as the new base and empties the log. Changes
+	 * not checkpointed yet become part of the base.
+	 * <p>
+	 * Once the new base is in place the compaction has taken effect, even if
+	 * emptying the log then fails: replay ignores a log of the previous
+	 * generation. The journal stays open in that case, and the next
+	 * checkpoint or compaction retries emptying the log first.
+	 */
+	public void compact() throws IOException {
+		checkOpen();
+		ArrayMatrix<T> state = new ArrayMatrix<T>(journaled.getDimension());
+		copyInto(journaled, state);
+		writeBase(baseFile, state, generation + 1);
+		++generation;
+		journaled.clearDirty();
+		logIsStale = true;
+		reopenLog();
+	}
+
+	/**
+	 * Replaces the log with an empty one of the current generation and
+	 * appends to that from now on.
+	 */
+	private void reopenLog() throws IOException {
+		resetLog(logFile, generation);
+		FileOutputStream previous = log;
+		log = new FileOutputStream(logFile, true);
+		logIsStale = false;
+		previous.close();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (log != null) {
+			log.close();
+			log = null;
+		}
+	}
+
+	private void checkOpen() {
+		if (log == null) {
+			throw new IllegalStateException("MatrixJournal is closed");
+		}
+	}
+
+	private static <ElemType> void copyInto(ReadOnlyMatrix<ElemType> source, final ArrayMatrix<ElemType> target) {
+		final Object[] values = target.values();
+		final int columns = target.getDimension().columns;
+		source.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				values[row * columns + column] = elem;
+			}
+		});
+	}
+
+	private static void writeBase(File baseFile, ArrayMatrix<?> state, long generation) throws IOException {
+		File temp = new File(baseFile.getPath() + ".tmp");
+		try (FileOutputStream file = new FileOutputStream(temp)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+			out.writeInt(BASE_MAGIC);
+			out.writeLong(generation);
+			MatrixFormat.write(state, out);
+			out.flush();
+			file.getChannel().force(false);
+		}
+		try {
+			Files.move(temp.toPath(), baseFile.toPath(),
+					   StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), baseFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void resetLog(File logFile, long generation) throws IOException {
+		try (FileOutputStream file = new FileOutputStream(logFile)) {
+			DataOutputStream out = new DataOutputStream(file);
+			out.writeInt(LOG_MAGIC);
+			out.writeLong(generation);
+			out.flush();
+			file.getChannel().force(false);
+		}
+	}
+
+	private static class Replay<T> {
+		ArrayMatrix<T> matrix;
+		long generation;
+		/**
+		 * Length of the log up to its last complete record, or -1 if the
+		 * log is missing or belongs to another generation.
+		 */
+		long validLogLength;
+	}
+
+	private static <ElemType> Replay<ElemType> replayFiles(File baseFile, File logFile) throws IOException {
+		Replay<ElemType> replay = new Replay<ElemType>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(baseFile)))) {
+			if (in.readInt() != BASE_MAGIC) {
+				throw new StreamCorruptedException(baseFile + " is not a matrix journal base");
+			}
+			replay.generation = in.readLong();
+			replay.matrix = MatrixFormat.read(in);
+		}
+		replay.validLogLength = -1;
+		if (!logFile.isFile()) {
+			return replay;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+			try {
+				if (in.readInt() != LOG_MAGIC || in.readLong() != replay.generation) {
+					return replay;
+				}
+			} catch (EOFException e) {
+				return replay;
+			}
+			long length = HEADER_SIZE;
+			long fileLength = logFile.length();
+			Object[] values = replay.matrix.values();
+			while (true) {
+				byte[] payload = readRecord(in, fileLength - length);
+				if (payload == null) {
+					break;
+				}
+				applyRecord(payload, values);
+				length += RECORD_HEADER_SIZE + payload.length;
+			}
+			replay.validLogLength = length;
+		}
+		return replay;
+	}
+
+	/**
+	 * Returns the payload of the next record, or {@code null} if the log ends
+	 * here or the record is incomplete or damaged.
+	 */
+	private static byte[] readRecord(DataInputStream in, long remaining) throws IOException {
+		if (remaining < RECORD_HEADER_SIZE) {
+			return null;
+		}
+		int length = in.readInt();
+		int checksum = in.readInt();
+		if (length < 0 || length > remaining - RECORD_HEADER_SIZE) {
+			return null;
+		}
+		byte[] payload = new byte[length];
+		in.readFully(payload);
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return ((int) crc.getValue() == checksum) ? payload : null;
+	}
+
+	private static void applyRecord(byte[] payload, Object[] values) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		int count = in.readInt();
+		int[] indexes = new int[count];
+		for (int i = 0; i < count; ++i) {
+			indexes[i] = in.readInt();
+			if (indexes[i] < 0 || indexes[i] >= values.length) {
+				throw new StreamCorruptedException("Cell index " + indexes[i] + " out of range");
+			}
+		}
+		Object[] changed = MatrixFormat.read(in).values();
+		if (changed.length != count) {
+			throw new StreamCorruptedException("Record holds " + changed.length + " values for " + count + " cells");
+		}
+		for (int i = 0; i < count; ++i) {
+			values[indexes[i]] = changed[i];
+		}
+	}
+}
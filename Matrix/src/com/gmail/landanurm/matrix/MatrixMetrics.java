@@ -0,0 +1,149 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation counters and latency histograms filled in by
+ * {@link InstrumentedMatrix}. One instance can be shared by several
+ * matrices to aggregate them. Recording is lock-free and safe from any
+ * thread.
+ * <p>
+ * Every call is counted. Reading the clock costs about as much as a
+ * {@code get} on an array, so only a random sample of the single-cell
+ * operations ({@code get}, {@code set} and {@code swap}) is timed: one in
+ * {@code singleCellSamplingInterval} calls on average. Bulk operations are
+ * always timed.
+ * <p>
+ * The metrics can be read through {@link #snapshot()}, or registered with
+ * an MBean server as an MXBean, for example
+ * {@code ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name)}.
+ */
+public final class MatrixMetrics implements MatrixMetricsMXBean {
+
+	public static final int DEFAULT_SAMPLING_INTERVAL = 16;
+
+	private static final MatrixOperation[] OPERATIONS = MatrixOperation.values();
+
+	private final LatencyRecorder[] recorders = new LatencyRecorder[OPERATIONS.length];
+	private final LongAdder fullScans = new LongAdder();
+	private final int singleCellSamplingInterval;
+
+	public MatrixMetrics() {
+		this(DEFAULT_SAMPLING_INTERVAL);
+	}
+
+	public MatrixMetrics(int singleCellSamplingInterval) {
+		if (singleCellSamplingInterval <= 0) {
+			throw new IllegalArgumentException(
+					"Sampling interval must be positive: " + singleCellSamplingInterval);
+		}
+		this.singleCellSamplingInterval = singleCellSamplingInterval;
+		for (int i = 0; i < recorders.length; ++i) {
+			recorders[i] = new LatencyRecorder();
+		}
+	}
+
+	/**
+	 * Counts a call and tells whether it should be timed.
+	 */
+	boolean recordCall(MatrixOperation operation) {
+		recorders[operation.ordinal()].recordCall();
+		switch (operation) {
+		case GET:
+		case SET:
+		case SWAP:
+			return (singleCellSamplingInterval == 1)
+					|| (ThreadLocalRandom.current().nextInt(singleCellSamplingInterval) == 0);
+		default:
+			return true;
+		}
+	}
+
+	void recordLatency(MatrixOperation operation, long nanos) {
+		recorders[operation.ordinal()].recordLatency(nanos);
+	}
+
+	void recordFullScan() {
+		fullScans.increment();
+	}
+
+	public Map<MatrixOperation, OperationStats> snapshot() {
+		Map<MatrixOperation, OperationStats> snapshot =
+				new EnumMap<MatrixOperation, OperationStats>(MatrixOperation.class);
+		for (MatrixOperation each : OPERATIONS) {
+			snapshot.put(each, recorders[each.ordinal()].snapshot());
+		}
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	public OperationStats snapshot(MatrixOperation operation) {
+		return recorders[operation.ordinal()].snapshot();
+	}
+
+	/**
+	 * Returns how many {@code contains} and {@code containsAll} lookups did
+	 * not find their element, which means they scanned the whole matrix.
+	 */
+	@Override
+	public long getFullScans() {
+		return fullScans.sum();
+	}
+
+	@Override
+	public void reset() {
+		for (LatencyRecorder each : recorders) {
+			each.reset();
+		}
+		fullScans.reset();
+	}
+
+	@Override
+	public Map<String, Long> getCalls() {
+		Map<String, Long> calls = new LinkedHashMap<String, Long>();
+		for (Map.Entry<MatrixOperation, OperationStats> each : snapshot().entrySet()) {
+			calls.put(each.getKey().name(), each.getValue().getCalls());
+		}
+		return calls;
+	}
+
+	@Override
+	public Map<String, Double> getMeanNanos() {
+		Map<String, Double> means = new LinkedHashMap<String, Double>();
+		for (Map.Entry<MatrixOperation, OperationStats> each : snapshot().entrySet()) {
+			means.put(each.getKey().name(), each.getValue().getMeanNanos());
+		}
+		return means;
+	}
+
+	@Override
+	public Map<String, Long> getP50Nanos() {
+		return percentiles(50);
+	}
+
+	@Override
+	public Map<String, Long> getP99Nanos() {
+		return percentiles(99);
+	}
+
+	private Map<String, Long> percentiles(double percentile) {
+		Map<String, Long> percentiles = new LinkedHashMap<String, Long>();
+		for (Map.Entry<MatrixOperation, OperationStats> each : snapshot().entrySet()) {
+			percentiles.put(each.getKey().name(), each.getValue().getPercentileNanos(percentile));
+		}
+		return percentiles;
+	}
+
+	@Override
+	public Map<String, Long> getMaxNanos() {
+		Map<String, Long> maxima = new LinkedHashMap<String, Long>();
+		for (Map.Entry<MatrixOperation, OperationStats> each : snapshot().entrySet()) {
+			maxima.put(each.getKey().name(), each.getValue().getMaxNanos());
+		}
+		return maxima;
+	}
+}
@@ -0,0 +1,17 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link MatrixMetrics}. Every map is keyed by
+ * {@link MatrixOperation} name.
+ */
+public interface MatrixMetricsMXBean {
+	Map<String, Long> getCalls();
+	Map<String, Double> getMeanNanos();
+	Map<String, Long> getP50Nanos();
+	Map<String, Long> getP99Nanos();
+	Map<String, Long> getMaxNanos();
+	long getFullScans();
+	void reset();
+}
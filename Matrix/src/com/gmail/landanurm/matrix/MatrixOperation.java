@@ -0,0 +1,15 @@
+package com.gmail.landanurm.matrix;
+
+/**
+ * Operations recorded by {@link InstrumentedMatrix}.
+ */
+public enum MatrixOperation {
+	GET,
+	SET,
+	SWAP,
+	FILL,
+	FOR_EACH,
+	CONTAINS,
+	COUNT,
+	ITERATE
+}
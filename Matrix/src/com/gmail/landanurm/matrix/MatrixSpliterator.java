@@ -0,0 +1,140 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of flat row-major indexes. It is split by halving
+ * the index range, so every part knows its exact size.
+ */
+abstract class MatrixSpliterator<E> implements Spliterator<E> {
+
+	static <ElemType> MatrixSpliterator<ElemType> of(final ReadOnlyMatrix<ElemType> matrix) {
+		final Dimension dimension = matrix.getDimension();
+		return new MatrixSpliterator<ElemType>(0, dimension.rows * dimension.columns) {
+			@Override
+			ElemType elementAt(int index) {
+				int row = index / dimension.columns;
+				int column = index % dimension.columns;
+				return matrix.get(Position.withRowColumn(row, column));
+			}
+
+			@Override
+			MatrixSpliterator<ElemType> withRange(int from, int to) {
+				return withRangeOf(this, from, to);
+			}
+		};
+	}
+
+	static <ElemType> MatrixSpliterator<ElemType> overArray(final ElemType[] values) {
+		return new MatrixSpliterator<ElemType>(0, values.length) {
+			@Override
+			ElemType elementAt(int index) {
+				return values[index];
+			}
+
+			@Override
+			MatrixSpliterator<ElemType> withRange(int from, int to) {
+				return withRangeOf(this, from, to);
+			}
+		};
+	}
+
+	static <ElemType> MatrixSpliterator<Cell<ElemType>> cellsOf(final ReadOnlyMatrix<ElemType> matrix) {
+		final Dimension dimension = matrix.getDimension();
+		return new MatrixSpliterator<Cell<ElemType>>(0, dimension.rows * dimension.columns) {
+			@Override
+			Cell<ElemType> elementAt(int index) {
+				int row = index / dimension.columns;
+				int column = index % dimension.columns;
+				return Cell.withRowColumnElem(row, column, matrix.get(Position.withRowColumn(row, column)));
+			}
+
+			@Override
+			MatrixSpliterator<Cell<ElemType>> withRange(int from, int to) {
+				return withRangeOf(this, from, to);
+			}
+		};
+	}
+
+	static <ElemType> MatrixSpliterator<Cell<ElemType>> cellsOfArray(final ElemType[] values,
+																	final int columns) {
+		return new MatrixSpliterator<Cell<ElemType>>(0, values.length) {
+			@Override
+			Cell<ElemType> elementAt(int index) {
+				return Cell.withRowColumnElem(index / columns, index % columns, values[index]);
+			}
+
+			@Override
+			MatrixSpliterator<Cell<ElemType>> withRange(int from, int to) {
+				return withRangeOf(this, from, to);
+			}
+		};
+	}
+
+	private static <ElemType> MatrixSpliterator<ElemType> withRangeOf(
+			final MatrixSpliterator<ElemType> parent, int from, int to) {
+		return new MatrixSpliterator<ElemType>(from, to) {
+			@Override
+			ElemType elementAt(int index) {
+				return parent.elementAt(index);
+			}
+
+			@Override
+			MatrixSpliterator<ElemType> withRange(int from, int to) {
+				return withRangeOf(parent, from, to);
+			}
+		};
+	}
+
+	private int index;
+	private final int fence;
+
+	private MatrixSpliterator(int from, int to) {
+		this.index = from;
+		this.fence = to;
+	}
+
+	abstract E elementAt(int index);
+
+	abstract MatrixSpliterator<E> withRange(int from, int to);
+
+	@Override
+	public boolean tryAdvance(Consumer<? super E> action) {
+		if (index >= fence) {
+			return false;
+		}
+		action.accept(elementAt(index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super E> action) {
+		int i = index;
+		index = fence;
+		for (; i < fence; ++i) {
+			action.accept(elementAt(i));
+		}
+	}
+
+	@Override
+	public Spliterator<E> trySplit() {
+		int from = index;
+		int middle = (from + fence) >>> 1;
+		if (from >= middle) {
+			return null;
+		}
+		index = middle;
+		return withRange(from, middle);
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+}
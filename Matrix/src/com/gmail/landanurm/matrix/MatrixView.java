@@ -0,0 +1,111 @@
+package com.gmail.landanurm.matrix;
+
+/**
+ * Window onto the backing array of an {@link ArrayMatrix}. Cell
+ * {@code [row, column]} of the view is element
+ * {@code offset + row * rowStride + column * columnStride} of that array, so
+ * sub-matrices, transposes, rows and columns are created without copying and
+ * writes go straight through to the parent matrix. Views can be sliced
+ * further in the same way.
+ */
+public final class MatrixView<T> extends AbstractMatrix<T> {
+
+	private final T[] values;
+	private final int offset;
+	private final int rowStride;
+	private final int columnStride;
+
+	MatrixView(T[] values, Dimension dim, int offset, int rowStride, int columnStride) {
+		super(dim);
+		this.values = values;
+		this.offset = offset;
+		this.rowStride = rowStride;
+		this.columnStride = columnStride;
+	}
+
+	public MatrixView<T> subMatrix(Position topLeft, Dimension subDim) {
+		checkPosition(topLeft);
+		if (topLeft.row + subDim.rows > dim.rows || topLeft.column + subDim.columns > dim.columns) {
+			throw new IndexOutOfBoundsException(
+					"Sub-matrix " + subDim + " at " + topLeft + " exceeds dimension " + dim);
+		}
+		return new MatrixView<T>(values, subDim, indexByRowColumn(topLeft.row, topLeft.column),
+								 rowStride, columnStride);
+	}
+
+	public MatrixView<T> transposed() {
+		return new MatrixView<T>(values, Dimension.withRowsColumns(dim.columns, dim.rows),
+								 offset, columnStride, rowStride);
+	}
+
+	public MatrixView<T> row(int row) {
+		return subMatrix(Position.withRowColumn(row, 0), Dimension.withRowsColumns(1, dim.columns));
+	}
+
+	public MatrixView<T> column(int column) {
+		return subMatrix(Position.withRowColumn(0, column), Dimension.withRowsColumns(dim.rows, 1));
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		return offset + row * rowStride + column * columnStride;
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		return values[indexByRowColumn(pos.row, pos.column)];
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		values[indexByRowColumn(pos.row, pos.column)] = value;
+	}
+
+	@Override
+	public void fill(T value) {
+		for (int row = 0; row < dim.rows; ++row) {
+			int index = indexByRowColumn(row, 0);
+			for (int column = 0; column < dim.columns; ++column, index += columnStride) {
+				values[index] = value;
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		for (int row = 0; row < dim.rows; ++row) {
+			int index = indexByRowColumn(row, 0);
+			for (int column = 0; column < dim.columns; ++column, index += columnStride) {
+				if (elementsAreEqual(values[index], elem)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			int index = indexByRowColumn(row, 0);
+			for (int column = 0; column < dim.columns; ++column, index += columnStride) {
+				if (elementsAreEqual(values[index], elem)) {
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		for (int row = 0; row < dim.rows; ++row) {
+			int index = indexByRowColumn(row, 0);
+			for (int column = 0; column < dim.columns; ++column, index += columnStride) {
+				onEachCellHandler.handle(row, column, values[index]);
+			}
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Cache- and register-blocked product of two row-major arrays, split by
+ * rows of the result across a fork/join pool.
+ * <p>
+ * The shared dimension and the columns of the result are cut into blocks so
+ * that the block of the right operand being used stays in cache while every
+ * row of the left operand runs over it. Within a block the kernel updates
+ * {@link #ROWS_PER_KERNEL} result rows at once, so each element of the right
+ * operand is loaded once for several rows, and the innermost loop runs along
+ * contiguous rows, which the JIT can vectorize.
+ */
+final class MultiplyTasks {
+
+	static final int ROWS_PER_KERNEL = 4;
+	private static final int SHARED_BLOCK = 128;
+	private static final int COLUMN_BLOCK = 256;
+	private static final long SEQUENTIAL_THRESHOLD = 1L << 20;
+
+	private MultiplyTasks() {
+	}
+
+	/**
+	 * Sets {@code c} ({@code n x p}) to {@code a} ({@code n x m}) times
+	 * {@code b} ({@code m x p}). {@code c} must not be {@code a} or {@code b}.
+	 */
+	static void multiply(ForkJoinPool pool, double[] a, double[] b, double[] c, int n, int m, int p) {
+		DoubleTask task = new DoubleTask(a, b, c, m, p, 0, n);
+		if ((long) n * m * p <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	static void multiply(ForkJoinPool pool, long[] a, long[] b, long[] c, int n, int m, int p) {
+		LongTask task = new LongTask(a, b, c, m, p, 0, n);
+		if ((long) n * m * p <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	/**
+	 * Splits {@code [from, to)} in two at a multiple of the kernel height, or
+	 * returns -1 if the range is not worth splitting.
+	 */
+	private static int split(int from, int to, int m, int p) {
+		if ((long) (to - from) * m * p <= SEQUENTIAL_THRESHOLD || to - from < 2 * ROWS_PER_KERNEL) {
+			return -1;
+		}
+		int middle = (from + to) >>> 1;
+		return from + (middle - from) / ROWS_PER_KERNEL * ROWS_PER_KERNEL;
+	}
+
+	private static class DoubleTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final double[] a;
+		private final double[] b;
+		private final double[] c;
+		private final int m;
+		private final int p;
+		private final int from;
+		private final int to;
+
+		DoubleTask(double[] a, double[] b, double[] c, int m, int p, int from, int to) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.m = m;
+			this.p = p;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int middle = split(from, to, m, p);
+			if (middle < 0) {
+				multiplyRows();
+				return;
+			}
+			invokeAll(new DoubleTask(a, b, c, m, p, from, middle),
+					  new DoubleTask(a, b, c, m, p, middle, to));
+		}
+
+		private void multiplyRows() {
+			Arrays.fill(c, from * p, to * p, 0);
+			for (int kBlock = 0; kBlock < m; kBlock += SHARED_BLOCK) {
+				int kEnd = Math.min(kBlock + SHARED_BLOCK, m);
+				for (int jBlock = 0; jBlock < p; jBlock += COLUMN_BLOCK) {
+					int jEnd = Math.min(jBlock + COLUMN_BLOCK, p);
+					int i = from;
+					for (; i + ROWS_PER_KERNEL <= to; i += ROWS_PER_KERNEL) {
+						kernel4(i, kBlock, kEnd, jBlock, jEnd);
+					}
+					for (; i < to; ++i) {
+						kernel1(i, kBlock, kEnd, jBlock, jEnd);
+					}
+				}
+			}
+		}
+
+		private void kernel4(int i, int kBlock, int kEnd, int jBlock, int jEnd) {
+			int c0 = i * p;
+			int c1 = c0 + p;
+			int c2 = c1 + p;
+			int c3 = c2 + p;
+			for (int k = kBlock; k < kEnd; ++k) {
+				double a0 = a[i * m + k];
+				double a1 = a[(i + 1) * m + k];
+				double a2 = a[(i + 2) * m + k];
+				double a3 = a[(i + 3) * m + k];
+				int bRow = k * p;
+				for (int j = jBlock; j < jEnd; ++j) {
+					double bValue = b[bRow + j];
+					c[c0 + j] += a0 * bValue;
+					c[c1 + j] += a1 * bValue;
+					c[c2 + j] += a2 * bValue;
+					c[c3 + j] += a3 * bValue;
+				}
+			}
+		}
+
+		private void kernel1(int i, int kBlock, int kEnd, int jBlock, int jEnd) {
+			int c0 = i * p;
+			for (int k = kBlock; k < kEnd; ++k) {
+				double a0 = a[i * m + k];
+				int bRow = k * p;
+				for (int j = jBlock; j < jEnd; ++j) {
+					c[c0 + j] += a0 * b[bRow + j];
+				}
+			}
+		}
+	}
+
+	private static class LongTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final long[] a;
+		private final long[] b;
+		private final long[] c;
+		private final int m;
+		private final int p;
+		private final int from;
+		private final int to;
+
+		LongTask(long[] a, long[] b, long[] c, int m, int p, int from, int to) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.m = m;
+			this.p = p;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int middle = split(from, to, m, p);
+			if (middle < 0) {
+				multiplyRows();
+				return;
+			}
+			invokeAll(new LongTask(a, b, c, m, p, from, middle),
+					  new LongTask(a, b, c, m, p, middle, to));
+		}
+
+		private void multiplyRows() {
+			Arrays.fill(c, from * p, to * p, 0);
+			for (int kBlock = 0; kBlock < m; kBlock += SHARED_BLOCK) {
+				int kEnd = Math.min(kBlock + SHARED_BLOCK, m);
+				for (int jBlock = 0; jBlock < p; jBlock += COLUMN_BLOCK) {
+					int jEnd = Math.min(jBlock + COLUMN_BLOCK, p);
+					int i = from;
+					for (; i + ROWS_PER_KERNEL <= to; i += ROWS_PER_KERNEL) {
+						kernel4(i, kBlock, kEnd, jBlock, jEnd);
+					}
+					for (; i < to; ++i) {
+						kernel1(i, kBlock, kEnd, jBlock, jEnd);
+					}
+				}
+			}
+		}
+
+		private void kernel4(int i, int kBlock, int kEnd, int jBlock, int jEnd) {
+			int c0 = i * p;
+			int c1 = c0 + p;
+			int c2 = c1 + p;
+			int c3 = c2 + p;
+			for (int k = kBlock; k < kEnd; ++k) {
+				long a0 = a[i * m + k];
+				long a1 = a[(i + 1) * m + k];
+				long a2 = a[(i + 2) * m + k];
+				long a3 = a[(i + 3) * m + k];
+				int bRow = k * p;
+				for (int j = jBlock; j < jEnd; ++j) {
+					long bValue = b[bRow + j];
+					c[c0 + j] += a0 * bValue;
+					c[c1 + j] += a1 * bValue;
+					c[c2 + j] += a2 * bValue;
+					c[c3 + j] += a3 * bValue;
+				}
+			}
+		}
+
+		private void kernel1(int i, int kBlock, int kEnd, int jBlock, int jEnd) {
+			int c0 = i * p;
+			for (int k = kBlock; k < kEnd; ++k) {
+				long a0 = a[i * m + k];
+				int bRow = k * p;
+				for (int j = jBlock; j < jEnd; ++j) {
+					c[c0 + j] += a0 * b[bRow + j];
+				}
+			}
+		}
+	}
+}
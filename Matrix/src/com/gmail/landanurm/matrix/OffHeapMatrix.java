@@ -0,0 +1,52 @@
+package com.gmail.landanurm.matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Matrix of primitive values kept in direct memory outside of the Java heap,
+ * so its cells are never scanned or moved by the collector. Cells start as
+ * zero and cannot hold {@code null}.
+ * <p>
+ * The native memory is owned by the matrix and is released by
+ * {@link #close()}. Use it in a try-with-resources block or close it
+ * explicitly.
+ */
+public final class OffHeapMatrix<T> extends BufferMatrix<T> {
+
+	public static OffHeapMatrix<Integer> ofInts(Dimension dim) {
+		return new OffHeapMatrix<Integer>(dim, CellType.INT);
+	}
+
+	public static OffHeapMatrix<Long> ofLongs(Dimension dim) {
+		return new OffHeapMatrix<Long>(dim, CellType.LONG);
+	}
+
+	public static OffHeapMatrix<Double> ofDoubles(Dimension dim) {
+		return new OffHeapMatrix<Double>(dim, CellType.DOUBLE);
+	}
+
+	public static <ElemType> OffHeapMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other,
+															CellType<ElemType> type) {
+		final OffHeapMatrix<ElemType> copy = new OffHeapMatrix<ElemType>(other.getDimension(), type);
+		other.forEach(new OnEachHandler<ElemType>() {
+			@Override
+			public void handle(Position pos, ElemType elem) {
+				copy.set(pos, elem);
+			}
+		});
+		return copy;
+	}
+
+	public OffHeapMatrix(Dimension dim, CellType<T> type) {
+		super(dim, type, allocateChunks(dataSize(dim, type)));
+	}
+
+	private static ByteBuffer[] allocateChunks(long dataSize) {
+		ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(dataSize)];
+		for (int i = 0; i < chunks.length; ++i) {
+			chunks[i] = ByteBuffer.allocateDirect(chunkCapacity(dataSize, i)).order(ByteOrder.nativeOrder());
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,5 @@
+package com.gmail.landanurm.matrix;
+
+public interface OnEachCellHandler<T> {
+	void handle(int row, int column, T elem);
+}
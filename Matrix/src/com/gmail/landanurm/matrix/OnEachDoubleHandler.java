@@ -0,0 +1,5 @@
+package com.gmail.landanurm.matrix;
+
+public interface OnEachDoubleHandler {
+	void handle(int row, int column, double elem);
+}
@@ -0,0 +1,5 @@
+package com.gmail.landanurm.matrix;
+
+public interface OnEachIntHandler {
+	void handle(int row, int column, int elem);
+}
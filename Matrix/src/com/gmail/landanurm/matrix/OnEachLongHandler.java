@@ -0,0 +1,5 @@
+package com.gmail.landanurm.matrix;
+
+public interface OnEachLongHandler {
+	void handle(int row, int column, long elem);
+}
@@ -0,0 +1,79 @@
+package com.gmail.landanurm.matrix;
+
+/**
+ * Counts and latencies of one {@link MatrixOperation} at the moment
+ * {@link MatrixMetrics#snapshot()} was taken. Latencies are kept in
+ * power-of-two buckets, so percentiles are upper bounds accurate to a
+ * factor of two. Calls that were not timed (see {@link MatrixMetrics})
+ * count in {@link #getCalls()} only.
+ * <p>
+ * The adders behind a snapshot are read one by one while other threads may
+ * keep recording, so its fields can be off by a few calls from each other.
+ */
+public final class OperationStats {
+	private final long calls;
+	private final long timedCalls;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long[] histogram;
+
+	OperationStats(long calls, long timedCalls, long totalNanos, long maxNanos, long[] histogram) {
+		this.calls = calls;
+		this.timedCalls = timedCalls;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.histogram = histogram;
+	}
+
+	public long getCalls() {
+		return calls;
+	}
+
+	public long getTimedCalls() {
+		return timedCalls;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public double getMeanNanos() {
+		return (timedCalls == 0) ? 0 : (double) totalNanos / timedCalls;
+	}
+
+	/**
+	 * Returns the upper bound of the histogram bucket holding the given
+	 * percentile (0 to 100) of the timed calls, or 0 if none were timed.
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+		}
+		long total = 0;
+		for (long each : histogram) {
+			total += each;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < histogram.length; ++i) {
+			seen += histogram[i];
+			if (seen >= rank) {
+				return Math.min(maxNanos, (i == 0) ? 0 : (1L << i) - 1);
+			}
+		}
+		return maxNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("calls=%d timed=%d mean=%.1fns p50=%dns p99=%dns max=%dns",
+				calls, timedCalls, getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99), maxNanos);
+	}
+}
@@ -0,0 +1,19 @@
+package com.gmail.landanurm.matrix;
+
+/**
+ * Order of cells in a flat array or in a traversal. In {@link #ROW_MAJOR}
+ * order the cells of a row are adjacent, in {@link #COLUMN_MAJOR} order the
+ * cells of a column are.
+ */
+public enum Order {
+	ROW_MAJOR,
+	COLUMN_MAJOR;
+
+	/**
+	 * Returns the flat index of cell {@code [row, column]} of a matrix with
+	 * the given dimension stored in this order.
+	 */
+	int indexOf(Dimension dim, int row, int column) {
+		return (this == ROW_MAJOR) ? row * dim.columns + column : column * dim.rows + row;
+	}
+}
@@ -0,0 +1,203 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fork/join bulk operations over a row-major backing array. Ranges of at
+ * most {@link #SEQUENTIAL_THRESHOLD} elements are processed by a plain loop,
+ * and a whole array that small never reaches the pool at all.
+ */
+final class ParallelArrayTasks {
+
+	static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+	private ParallelArrayTasks() {
+	}
+
+	static <T> void fill(ForkJoinPool pool, T[] values, T value) {
+		FillTask<T> task = new FillTask<T>(values, value, 0, values.length);
+		if (values.length <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	static <T> int count(ForkJoinPool pool, T[] values, T elem) {
+		CountTask<T> task = new CountTask<T>(values, elem, 0, values.length);
+		return (values.length <= SEQUENTIAL_THRESHOLD) ? task.compute() : pool.invoke(task);
+	}
+
+	static <T> boolean contains(ForkJoinPool pool, T[] values, T elem) {
+		AtomicBoolean found = new AtomicBoolean(false);
+		ContainsTask<T> task = new ContainsTask<T>(values, elem, found, 0, values.length);
+		if (values.length <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+		return found.get();
+	}
+
+	static <T> void forEach(ForkJoinPool pool, T[] values, int columns,
+							OnEachCellHandler<T> onEachCellHandler) {
+		ForEachTask<T> task = new ForEachTask<T>(values, columns, onEachCellHandler, 0, values.length);
+		if (values.length <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	private static int middle(int from, int to) {
+		return (from + to) >>> 1;
+	}
+
+	private static class FillTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final T[] values;
+		private final T value;
+		private final int from;
+		private final int to;
+
+		FillTask(T[] values, T value, int from, int to) {
+			this.values = values;
+			this.value = value;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int i = from; i < to; ++i) {
+					values[i] = value;
+				}
+				return;
+			}
+			int middle = middle(from, to);
+			invokeAll(new FillTask<T>(values, value, from, middle),
+					  new FillTask<T>(values, value, middle, to));
+		}
+	}
+
+	private static class CountTask<T> extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final T[] values;
+		private final T elem;
+		private final int from;
+		private final int to;
+
+		CountTask(T[] values, T elem, int from, int to) {
+			this.values = values;
+			this.elem = elem;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				int count = 0;
+				for (int i = from; i < to; ++i) {
+					if (AbstractMatrix.elementsAreEqual(values[i], elem)) {
+						++count;
+					}
+				}
+				return count;
+			}
+			int middle = middle(from, to);
+			CountTask<T> left = new CountTask<T>(values, elem, from, middle);
+			left.fork();
+			int rightCount = new CountTask<T>(values, elem, middle, to).compute();
+			return left.join() + rightCount;
+		}
+	}
+
+	/**
+	 * Every task polls the shared flag, so once one of them finds the element
+	 * the rest return without scanning their ranges.
+	 */
+	private static class ContainsTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int FLAG_CHECK_INTERVAL = 1 << 10;
+
+		private final T[] values;
+		private final T elem;
+		private final AtomicBoolean found;
+		private final int from;
+		private final int to;
+
+		ContainsTask(T[] values, T elem, AtomicBoolean found, int from, int to) {
+			this.values = values;
+			this.elem = elem;
+			this.found = found;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (found.get()) {
+				return;
+			}
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int i = from; i < to; ++i) {
+					if (AbstractMatrix.elementsAreEqual(values[i], elem)) {
+						found.set(true);
+						return;
+					}
+					if ((i % FLAG_CHECK_INTERVAL == 0) && found.get()) {
+						return;
+					}
+				}
+				return;
+			}
+			int middle = middle(from, to);
+			invokeAll(new ContainsTask<T>(values, elem, found, from, middle),
+					  new ContainsTask<T>(values, elem, found, middle, to));
+		}
+	}
+
+	private static class ForEachTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final T[] values;
+		private final int columns;
+		private final OnEachCellHandler<T> onEachCellHandler;
+		private final int from;
+		private final int to;
+
+		ForEachTask(T[] values, int columns, OnEachCellHandler<T> onEachCellHandler, int from, int to) {
+			this.values = values;
+			this.columns = columns;
+			this.onEachCellHandler = onEachCellHandler;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				int row = from / columns;
+				int column = from % columns;
+				for (int i = from; i < to; ++i) {
+					onEachCellHandler.handle(row, column, values[i]);
+					if (++column == columns) {
+						column = 0;
+						++row;
+					}
+				}
+				return;
+			}
+			int middle = middle(from, to);
+			invokeAll(new ForEachTask<T>(values, columns, onEachCellHandler, from, middle),
+					  new ForEachTask<T>(values, columns, onEachCellHandler, middle, to));
+		}
+	}
+}
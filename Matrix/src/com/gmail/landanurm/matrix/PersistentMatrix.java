@@ -0,0 +1,235 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Matrix with constant-time snapshots. Cells are kept in a trie of 64-wide
+ * nodes indexed by the row-major cell index. A snapshot shares the whole
+ * trie with its origin. Afterwards, the first write on either side copies
+ * only the leaf holding the cell and the nodes on the path to it. The memory
+ * of a snapshot therefore grows with the number of cells changed since it
+ * was taken, not with the dimension.
+ * <p>
+ * Every matrix owns the nodes it has copied and changes them in place.
+ * Taking a snapshot revokes that ownership, so nodes shared with a snapshot
+ * are never written again. A snapshot handed to another thread can
+ * therefore be read without locks while this matrix keeps changing. The
+ * handover itself must be a safe publication, for example through a
+ * concurrent queue. A single matrix is not thread-safe.
+ * <p>
+ * Missing subtrees stand for {@code null} cells, so an empty matrix costs
+ * nothing beyond its root. Subtrees left by {@link #fill} hold one value in
+ * every cell; {@link #count} and {@link #contains} answer for such a
+ * subtree, like for a missing one, without visiting its cells.
+ */
+public class PersistentMatrix<T> extends AbstractMatrix<T> {
+
+	private static final int BITS = 6;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	private static final class Node {
+		final Object owner;
+		final Object[] slots;
+		/** Set on nodes built by fill, whose cells all hold one value. */
+		final boolean filled;
+
+		Node(Object owner) {
+			this(owner, new Object[WIDTH], false);
+		}
+
+		Node(Object owner, Object[] slots, boolean filled) {
+			this.owner = owner;
+			this.slots = slots;
+			this.filled = filled;
+		}
+	}
+
+	private final int shift;
+	private Node root;
+	private Object owner;
+
+	public static <ElemType> PersistentMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		final PersistentMatrix<ElemType> copy = new PersistentMatrix<ElemType>(other.getDimension());
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				if (elem != null) {
+					copy.setByIndex(row * copy.dim.columns + column, elem);
+				}
+			}
+		});
+		return copy;
+	}
+
+	public PersistentMatrix(Dimension dim) {
+		this(dim, shiftFor(dim.rows * dim.columns), null);
+	}
+
+	private PersistentMatrix(Dimension dim, int shift, Node root) {
+		super(dim);
+		this.shift = shift;
+		this.root = root;
+		this.owner = new Object();
+	}
+
+	private static int shiftFor(int numberOfElements) {
+		int shift = 0;
+		while (((long) WIDTH << shift) < numberOfElements) {
+			shift += BITS;
+		}
+		return shift;
+	}
+
+	/**
+	 * Returns an independent matrix with the current contents of this one.
+	 * Takes constant time and memory. Later writes to either matrix are not
+	 * seen by the other.
+	 */
+	public PersistentMatrix<T> snapshot() {
+		owner = new Object();
+		return new PersistentMatrix<T>(dim, shift, root);
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		return getByIndex(pos.row * dim.columns + pos.column);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T getByIndex(int index) {
+		Node node = root;
+		for (int level = shift; level > 0 && node != null; level -= BITS) {
+			node = (Node) node.slots[(index >>> level) & MASK];
+		}
+		return (node == null) ? null : (T) node.slots[index & MASK];
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		setByIndex(pos.row * dim.columns + pos.column, value);
+	}
+
+	private void setByIndex(int index, T value) {
+		root = editable(root);
+		Node node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			int slot = (index >>> level) & MASK;
+			Node child = editable((Node) node.slots[slot]);
+			node.slots[slot] = child;
+			node = child;
+		}
+		node.slots[index & MASK] = value;
+	}
+
+	private Node editable(Node node) {
+		if (node == null) {
+			return new Node(owner);
+		}
+		return (node.owner == owner) ? node : new Node(owner, node.slots.clone(), false);
+	}
+
+	/**
+	 * Builds one node per level and points every slot of a level at the
+	 * same node below, so filling takes constant memory. The shared nodes
+	 * belong to no matrix and are copied on first write, so they stay
+	 * filled with the one value for good.
+	 */
+	@Override
+	public void fill(T value) {
+		if (value == null) {
+			root = null;
+			return;
+		}
+		Object sharedOwner = new Object();
+		Node node = new Node(sharedOwner, new Object[WIDTH], true);
+		Arrays.fill(node.slots, value);
+		for (int level = BITS; level <= shift; level += BITS) {
+			Node parent = new Node(sharedOwner, new Object[WIDTH], true);
+			Arrays.fill(parent.slots, node);
+			node = parent;
+		}
+		root = node;
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		return count(root, shift, 0, elem, true) > 0;
+	}
+
+	@Override
+	public int count(T elem) {
+		return count(root, shift, 0, elem, false);
+	}
+
+	private int count(Node node, int level, int base, T elem, boolean stopAtFirst) {
+		int end = (int) Math.min(numberOfElements, base + ((long) WIDTH << level));
+		if (node == null) {
+			return (elem == null) ? end - base : 0;
+		}
+		if (node.filled) {
+			return elementsAreEqual(filledValue(node, level), elem) ? end - base : 0;
+		}
+		int count = 0;
+		if (level == 0) {
+			for (int i = 0; i < end - base; ++i) {
+				if (elementsAreEqual(node.slots[i], elem)) {
+					++count;
+					if (stopAtFirst) {
+						return count;
+					}
+				}
+			}
+			return count;
+		}
+		for (int slot = 0; slot < WIDTH; ++slot) {
+			long childBase = base + ((long) slot << level);
+			if (childBase >= end) {
+				break;
+			}
+			count += count((Node) node.slots[slot], level - BITS, (int) childBase, elem, stopAtFirst);
+			if (stopAtFirst && count > 0) {
+				return count;
+			}
+		}
+		return count;
+	}
+
+	private static Object filledValue(Node node, int level) {
+		for (; level > 0; level -= BITS) {
+			node = (Node) node.slots[0];
+		}
+		return node.slots[0];
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		forEach(root, shift, 0, onEachCellHandler);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void forEach(Node node, int level, int base, OnEachCellHandler<T> onEachCellHandler) {
+		int end = (int) Math.min(numberOfElements, base + ((long) WIDTH << level));
+		if (node == null || level == 0) {
+			int row = base / dim.columns;
+			int column = base % dim.columns;
+			for (int i = base; i < end; ++i) {
+				onEachCellHandler.handle(row, column, (node == null) ? null : (T) node.slots[i - base]);
+				if (++column == dim.columns) {
+					column = 0;
+					++row;
+				}
+			}
+			return;
+		}
+		for (int slot = 0; slot < WIDTH; ++slot) {
+			long childBase = base + ((long) slot << level);
+			if (childBase >= end) {
+				break;
+			}
+			forEach((Node) node.slots[slot], level - BITS, (int) childBase, onEachCellHandler);
+		}
+	}
+}
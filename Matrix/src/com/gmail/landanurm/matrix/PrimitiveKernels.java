@@ -0,0 +1,194 @@
+package com.gmail.landanurm.matrix;
+
+/**
+ * Bulk loops over primitive arrays, shaped so that HotSpot's superword pass
+ * turns them into SIMD code at the widest vector size the CPU offers.
+ * Such loops are counted, have one accumulator, and do not exit early.
+ * The JIT unrolls and vectorizes them itself. Unrolling by hand into
+ * several accumulators defeats it.
+ * <p>
+ * Equality is counted without a branch. For {@code d = x ^ elem},
+ * {@code (d | -d) >>> (size - 1)} is 1 exactly when {@code d != 0}, so the
+ * loop sums mismatches with shifts and ors only. {@code contains} runs the
+ * same loop over fixed-size chunks and stops after the first chunk that
+ * has a match. Minimum and maximum of {@code int} and {@code long} are
+ * left as compare-and-select, which the JIT turns into conditional moves.
+ */
+final class PrimitiveKernels {
+
+	private static final int CHUNK = 1 << 10;
+
+	private PrimitiveKernels() {
+	}
+
+	static int count(int[] values, int elem) {
+		return values.length - mismatches(values, elem, 0, values.length);
+	}
+
+	static boolean contains(int[] values, int elem) {
+		for (int from = 0; from < values.length; from += CHUNK) {
+			int to = Math.min(from + CHUNK, values.length);
+			if (mismatches(values, elem, from, to) < to - from) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int mismatches(int[] values, int elem, int from, int to) {
+		int mismatches = 0;
+		for (int i = from; i < to; ++i) {
+			int d = values[i] ^ elem;
+			mismatches += (d | -d) >>> 31;
+		}
+		return mismatches;
+	}
+
+	static int count(long[] values, long elem) {
+		return values.length - mismatches(values, elem, 0, values.length);
+	}
+
+	static boolean contains(long[] values, long elem) {
+		for (int from = 0; from < values.length; from += CHUNK) {
+			int to = Math.min(from + CHUNK, values.length);
+			if (mismatches(values, elem, from, to) < to - from) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int mismatches(long[] values, long elem, int from, int to) {
+		long mismatches = 0;
+		for (int i = from; i < to; ++i) {
+			long d = values[i] ^ elem;
+			mismatches += (d | -d) >>> 63;
+		}
+		return (int) mismatches;
+	}
+
+	/**
+	 * Counts values equal to {@code elem} the way {@link Double#equals}
+	 * compares them. Any non-NaN value has a single bit pattern, so its
+	 * occurrences are counted on the raw bits; NaNs, which have many, are
+	 * counted as values that differ from themselves.
+	 */
+	static int count(double[] values, double elem) {
+		if (elem != elem) {
+			int count = 0;
+			for (double each : values) {
+				if (each != each) {
+					++count;
+				}
+			}
+			return count;
+		}
+		return values.length - mismatches(values, Double.doubleToRawLongBits(elem), 0, values.length);
+	}
+
+	static boolean contains(double[] values, double elem) {
+		if (elem != elem) {
+			for (double each : values) {
+				if (each != each) {
+					return true;
+				}
+			}
+			return false;
+		}
+		long elemBits = Double.doubleToRawLongBits(elem);
+		for (int from = 0; from < values.length; from += CHUNK) {
+			int to = Math.min(from + CHUNK, values.length);
+			if (mismatches(values, elemBits, from, to) < to - from) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int mismatches(double[] values, long elemBits, int from, int to) {
+		long mismatches = 0;
+		for (int i = from; i < to; ++i) {
+			long d = Double.doubleToRawLongBits(values[i]) ^ elemBits;
+			mismatches += (d | -d) >>> 63;
+		}
+		return (int) mismatches;
+	}
+
+	static int min(int[] values) {
+		int result = values[0];
+		for (int i = 1; i < values.length; ++i) {
+			if (values[i] < result) {
+				result = values[i];
+			}
+		}
+		return result;
+	}
+
+	static int max(int[] values) {
+		int result = values[0];
+		for (int i = 1; i < values.length; ++i) {
+			if (values[i] > result) {
+				result = values[i];
+			}
+		}
+		return result;
+	}
+
+	static long min(long[] values) {
+		long result = values[0];
+		for (int i = 1; i < values.length; ++i) {
+			if (values[i] < result) {
+				result = values[i];
+			}
+		}
+		return result;
+	}
+
+	static long max(long[] values) {
+		long result = values[0];
+		for (int i = 1; i < values.length; ++i) {
+			if (values[i] > result) {
+				result = values[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Follows {@link Math#min(double, double)}: a NaN anywhere makes the
+	 * result NaN, and {@code -0.0} is smaller than {@code 0.0}.
+	 */
+	static double min(double[] values) {
+		double result = values[0];
+		for (int i = 1; i < values.length; ++i) {
+			result = Math.min(result, values[i]);
+		}
+		return result;
+	}
+
+	static double max(double[] values) {
+		double result = values[0];
+		for (int i = 1; i < values.length; ++i) {
+			result = Math.max(result, values[i]);
+		}
+		return result;
+	}
+
+	static void add(int[] a, int[] b, int[] sum) {
+		for (int i = 0; i < sum.length; ++i) {
+			sum[i] = a[i] + b[i];
+		}
+	}
+
+	static void add(long[] a, long[] b, long[] sum) {
+		for (int i = 0; i < sum.length; ++i) {
+			sum[i] = a[i] + b[i];
+		}
+	}
+
+	static void add(double[] a, double[] b, double[] sum) {
+		for (int i = 0; i < sum.length; ++i) {
+			sum[i] = a[i] + b[i];
+		}
+	}
+}
@@ -1,10 +1,58 @@
 package com.gmail.landanurm.matrix;
 
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface ReadOnlyMatrix<T> extends Iterable<T> {
     Dimension getDimension();
     boolean contains(T elem);
 	boolean containsAll(Iterable<T> elements);
 	int count(T elem);
 	void forEach(OnEachHandler<T> onEachHandler);
+	void forEach(OnEachCellHandler<T> onEachCellHandler);
 	T get(Position pos);
+
+	/**
+	 * Visits every cell in the given order. Matrices that can store their
+	 * cells in either order visit them fastest in the order they are stored.
+	 */
+	default void forEach(OnEachCellHandler<T> onEachCellHandler, Order traversal) {
+		if (traversal == Order.ROW_MAJOR) {
+			forEach(onEachCellHandler);
+			return;
+		}
+		Dimension dim = getDimension();
+		for (int column = 0; column < dim.columns; ++column) {
+			for (int row = 0; row < dim.rows; ++row) {
+				onEachCellHandler.handle(row, column, get(Position.withRowColumn(row, column)));
+			}
+		}
+	}
+
+	default Iterator<T> iterator(Order traversal) {
+		return (traversal == Order.ROW_MAJOR) ? iterator() : MatrixIterator.of(this, traversal);
+	}
+
+	@Override
+	default Spliterator<T> spliterator() {
+		return MatrixSpliterator.of(this);
+	}
+
+	default Spliterator<Cell<T>> cellSpliterator() {
+		return MatrixSpliterator.cellsOf(this);
+	}
+
+	default Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	default Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	default Stream<Cell<T>> cellStream() {
+		return StreamSupport.stream(cellSpliterator(), false);
+	}
 }
@@ -0,0 +1,142 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Matrix that stores only the cells whose value differs from a default
+ * value, keyed by their row-major index. Memory use, {@link #count(Object)},
+ * {@link #contains(Object)} and {@link #forEachNonDefault(OnEachCellHandler)}
+ * depend on the number of stored cells rather than on the dimension.
+ * <p>
+ * {@link #forEach(OnEachHandler)} and iteration still visit every cell, so
+ * a sparse matrix can be used and copied like any other {@link Matrix} and
+ * equals an {@link ArrayMatrix} with the same contents.
+ */
+public class SparseMatrix<T> extends AbstractMatrix<T> {
+
+	private final Map<Integer, T> nonDefaultValues;
+	private T defaultValue;
+
+	public static <ElemType> SparseMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other, ElemType defaultValue) {
+		final SparseMatrix<ElemType> copy = new SparseMatrix<ElemType>(other.getDimension(), defaultValue);
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				copy.setByIndex(copy.indexByRowColumn(row, column), elem);
+			}
+		});
+		return copy;
+	}
+
+	public SparseMatrix(Dimension dim) {
+		this(dim, null);
+	}
+
+	public SparseMatrix(Dimension dim, T defaultValue) {
+		super(dim);
+		this.nonDefaultValues = new HashMap<Integer, T>();
+		this.defaultValue = defaultValue;
+	}
+
+	public T getDefaultValue() {
+		return defaultValue;
+	}
+
+	public int getNumberOfNonDefaultElements() {
+		return nonDefaultValues.size();
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		return nonDefaultValues.getOrDefault(indexByRowColumn(pos.row, pos.column), defaultValue);
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		setByIndex(indexByRowColumn(pos.row, pos.column), value);
+	}
+
+	private void setByIndex(int index, T value) {
+		if (elementsAreEqual(value, defaultValue)) {
+			nonDefaultValues.remove(index);
+		} else {
+			nonDefaultValues.put(index, value);
+		}
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		return row * dim.columns + column;
+	}
+
+	/**
+	 * Makes {@code value} the new default value and drops every stored cell,
+	 * so filling takes constant time whatever the dimension.
+	 */
+	@Override
+	public void fill(T value) {
+		nonDefaultValues.clear();
+		defaultValue = value;
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		if (elementsAreEqual(elem, defaultValue)) {
+			return nonDefaultValues.size() < numberOfElements;
+		}
+		for (T each : nonDefaultValues.values()) {
+			if (elementsAreEqual(each, elem)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int count(T elem) {
+		if (elementsAreEqual(elem, defaultValue)) {
+			return numberOfElements - nonDefaultValues.size();
+		}
+		int count = 0;
+		for (T each : nonDefaultValues.values()) {
+			if (elementsAreEqual(each, elem)) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				onEachCellHandler.handle(row, column, nonDefaultValues.getOrDefault(index++, defaultValue));
+			}
+		}
+	}
+
+	/**
+	 * Visits only the cells whose value differs from the default value, in
+	 * no particular order.
+	 */
+	public void forEachNonDefault(OnEachCellHandler<T> onEachCellHandler) {
+		for (Map.Entry<Integer, T> each : nonDefaultValues.entrySet()) {
+			int index = each.getKey();
+			onEachCellHandler.handle(index / dim.columns, index % dim.columns, each.getValue());
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		int totalHashCode = 0;
+		for (T each : nonDefaultValues.values()) {
+			totalHashCode += (each == null) ? 0 : each.hashCode();
+		}
+		int numberOfDefaultElements = numberOfElements - nonDefaultValues.size();
+		int defaultHashCode = (defaultValue == null) ? 0 : defaultValue.hashCode();
+		return totalHashCode + numberOfDefaultElements * defaultHashCode + dim.hashCode();
+	}
+}
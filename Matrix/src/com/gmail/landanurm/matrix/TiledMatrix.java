@@ -0,0 +1,207 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Matrix stored as square tiles, each kept contiguous in one backing array.
+ * A column sweep or a neighbourhood scan then touches a handful of tiles
+ * instead of one cache line (and often one page) per row, which is what a
+ * row-major {@link ArrayMatrix} costs on wide matrices.
+ * <p>
+ * The tile edge must be a power of two no larger than
+ * {@value #MAX_TILE_EDGE}, so a position is turned into an index with shifts
+ * and masks only, and a tile never holds more than 2<sup>30</sup> cells. An
+ * edge longer than the matrix needs is clamped to the smallest power of two
+ * that covers its longer side. Tiles on the right and bottom border are
+ * padded to full size; padding cells are never visible.
+ * <p>
+ * {@link #forEach(OnEachCellHandler)} and iteration visit cells in row-major
+ * order like every other matrix. {@link #forEachInTileOrder} visits them
+ * tile by tile, in the order they lie in memory.
+ */
+public class TiledMatrix<T> extends AbstractMatrix<T> {
+
+	public static final int DEFAULT_TILE_EDGE = 32;
+	public static final int MAX_TILE_EDGE = 1 << 15;
+
+	private final int shift;
+	private final int mask;
+	private final int tileSize;
+	private final int tileRows;
+	private final int tileColumns;
+	private final T[] values;
+
+	public static <ElemType> TiledMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other) {
+		return copyOf(other, DEFAULT_TILE_EDGE);
+	}
+
+	public static <ElemType> TiledMatrix<ElemType> copyOf(ReadOnlyMatrix<ElemType> other, int tileEdge) {
+		final TiledMatrix<ElemType> copy = new TiledMatrix<ElemType>(other.getDimension(), tileEdge);
+		other.forEach(new OnEachCellHandler<ElemType>() {
+			@Override
+			public void handle(int row, int column, ElemType elem) {
+				copy.values[copy.indexByRowColumn(row, column)] = elem;
+			}
+		});
+		return copy;
+	}
+
+	public TiledMatrix(Dimension dim) {
+		this(dim, DEFAULT_TILE_EDGE);
+	}
+
+	@SuppressWarnings("unchecked")
+	public TiledMatrix(Dimension dim, int tileEdge) {
+		super(dim);
+		if (tileEdge <= 0 || Integer.bitCount(tileEdge) != 1) {
+			throw new IllegalArgumentException("Tile edge must be a power of two: " + tileEdge);
+		}
+		if (tileEdge > MAX_TILE_EDGE) {
+			throw new IllegalArgumentException("Tile edge must not exceed " + MAX_TILE_EDGE + ": " + tileEdge);
+		}
+		int longerSide = Math.max(dim.rows, dim.columns);
+		if (longerSide < tileEdge) {
+			tileEdge = (longerSide == 1) ? 1 : Integer.highestOneBit(longerSide - 1) << 1;
+		}
+		this.shift = Integer.numberOfTrailingZeros(tileEdge);
+		this.mask = tileEdge - 1;
+		this.tileSize = tileEdge * tileEdge;
+		this.tileRows = (dim.rows + mask) >>> shift;
+		this.tileColumns = (dim.columns + mask) >>> shift;
+		long capacity = (long) tileRows * tileColumns * tileSize;
+		if (capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many cells for tile edge " + tileEdge + ": " + dim);
+		}
+		this.values = (T[]) new Object[(int) capacity];
+	}
+
+	/**
+	 * Returns the tile edge in use, which is smaller than the one asked for
+	 * if the matrix is.
+	 */
+	public int getTileEdge() {
+		return mask + 1;
+	}
+
+	private int indexByRowColumn(int row, int column) {
+		int tile = (row >>> shift) * tileColumns + (column >>> shift);
+		return (tile << (shift << 1)) + ((row & mask) << shift) + (column & mask);
+	}
+
+	@Override
+	public T get(Position pos) {
+		checkPosition(pos);
+		return values[indexByRowColumn(pos.row, pos.column)];
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		checkPosition(pos);
+		values[indexByRowColumn(pos.row, pos.column)] = value;
+	}
+
+	@Override
+	public void swap(Position pos1, Position pos2) {
+		checkPosition(pos1);
+		checkPosition(pos2);
+		int index1 = indexByRowColumn(pos1.row, pos1.column);
+		int index2 = indexByRowColumn(pos2.row, pos2.column);
+		T temp = values[index1];
+		values[index1] = values[index2];
+		values[index2] = temp;
+	}
+
+	/**
+	 * Padding cells are filled too, which keeps this a single bulk write;
+	 * they are still never read.
+	 */
+	@Override
+	public void fill(T value) {
+		Arrays.fill(values, value);
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		for (int tileRow = 0; tileRow < tileRows; ++tileRow) {
+			for (int tileColumn = 0; tileColumn < tileColumns; ++tileColumn) {
+				if (countInTile(tileRow, tileColumn, elem, true) > 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int count(T elem) {
+		int count = 0;
+		for (int tileRow = 0; tileRow < tileRows; ++tileRow) {
+			for (int tileColumn = 0; tileColumn < tileColumns; ++tileColumn) {
+				count += countInTile(tileRow, tileColumn, elem, false);
+			}
+		}
+		return count;
+	}
+
+	private int countInTile(int tileRow, int tileColumn, T elem, boolean stopAtFirst) {
+		int base = (tileRow * tileColumns + tileColumn) << (shift << 1);
+		int rows = Math.min(mask + 1, dim.rows - (tileRow << shift));
+		int columns = Math.min(mask + 1, dim.columns - (tileColumn << shift));
+		int count = 0;
+		for (int row = 0; row < rows; ++row) {
+			int from = base + (row << shift);
+			for (int i = from; i < from + columns; ++i) {
+				if (elementsAreEqual(values[i], elem)) {
+					++count;
+					if (stopAtFirst) {
+						return count;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Visits cells in row-major order. Each row is read as runs of one tile
+	 * row, so access stays sequential within a run.
+	 */
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		for (int row = 0; row < dim.rows; ++row) {
+			int rowBase = (row >>> shift) * tileColumns * tileSize + ((row & mask) << shift);
+			int column = 0;
+			for (int tileColumn = 0; tileColumn < tileColumns; ++tileColumn) {
+				int from = rowBase + tileColumn * tileSize;
+				int columns = Math.min(mask + 1, dim.columns - column);
+				for (int i = from; i < from + columns; ++i) {
+					onEachCellHandler.handle(row, column++, values[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Visits cells tile by tile, left to right and top to bottom, and within
+	 * a tile in row-major order. This is the order the cells are stored in,
+	 * so it is the fastest way to visit every cell when the order does not
+	 * matter.
+	 */
+	public void forEachInTileOrder(OnEachCellHandler<T> onEachCellHandler) {
+		for (int tileRow = 0; tileRow < tileRows; ++tileRow) {
+			int firstRow = tileRow << shift;
+			int rows = Math.min(mask + 1, dim.rows - firstRow);
+			for (int tileColumn = 0; tileColumn < tileColumns; ++tileColumn) {
+				int firstColumn = tileColumn << shift;
+				int columns = Math.min(mask + 1, dim.columns - firstColumn);
+				int base = (tileRow * tileColumns + tileColumn) * tileSize;
+				for (int row = 0; row < rows; ++row) {
+					int from = base + (row << shift);
+					for (int column = 0; column < columns; ++column) {
+						onEachCellHandler.handle(firstRow + row, firstColumn + column, values[from + column]);
+					}
+				}
+			}
+		}
+	}
+}
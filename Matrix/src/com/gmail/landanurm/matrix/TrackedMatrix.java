@@ -0,0 +1,239 @@
+package com.gmail.landanurm.matrix;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Decorator that records which cells of another matrix were changed through
+ * it. A cell counts as changed when {@code set} or {@code swap} gives it a
+ * different value, and every cell does after {@code fill}. Changes are kept
+ * in a bitmap with one bit per cell and one per row, so tracking
+ * costs one {@code get} and a couple of bit operations per write.
+ * <p>
+ * Changes can be consumed in two ways. Callers can poll
+ * {@link #dirtyPositions()} and {@link #clearDirty()}. Or they can register
+ * a {@link MatrixChangeListener} and call {@link #publishChanges()} once per
+ * tick, which sends all changes since the previous tick as one
+ * {@link MatrixChangeEvent} and starts a new batch.
+ * <p>
+ * Writes made to the wrapped matrix directly are not seen. Like
+ * {@link ArrayMatrix}, a tracked matrix is not thread-safe.
+ */
+public class TrackedMatrix<T> implements Matrix<T> {
+
+	private final Matrix<T> matrix;
+	private final Dimension dim;
+	private DirtyBitmap dirty;
+	/** Bitmap of the last event, cleared and reused for the next batch. */
+	private DirtyBitmap published;
+	/** Number of events published so far, which identifies the latest one. */
+	private int generation;
+	private boolean filled;
+	private final List<MatrixChangeListener<T>> listeners = new CopyOnWriteArrayList<MatrixChangeListener<T>>();
+
+	public TrackedMatrix(Matrix<T> matrix) {
+		this.matrix = matrix;
+		this.dim = matrix.getDimension();
+		this.dirty = new DirtyBitmap(dim);
+	}
+
+	public void addChangeListener(MatrixChangeListener<T> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeChangeListener(MatrixChangeListener<T> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Sends the changes made since the previous call to every listener as
+	 * one event and clears them. Does nothing if nothing changed. Returns
+	 * the event sent, or {@code null}. The event reads the bitmap this batch
+	 * was recorded in, and the two bitmaps take turns, so an event stays
+	 * valid until the next call and no tick allocates a bitmap. After that
+	 * call the event throws instead of reading a later batch.
+	 */
+	public MatrixChangeEvent<T> publishChanges() {
+		if (dirty.isEmpty()) {
+			return null;
+		}
+		MatrixChangeEvent<T> event = new MatrixChangeEvent<T>(this, dirty, filled, ++generation);
+		DirtyBitmap changes = dirty;
+		if (published == null) {
+			dirty = new DirtyBitmap(dim);
+		} else {
+			published.clear();
+			dirty = published;
+		}
+		published = changes;
+		filled = false;
+		for (MatrixChangeListener<T> each : listeners) {
+			each.matrixChanged(event);
+		}
+		return event;
+	}
+
+	int getGeneration() {
+		return generation;
+	}
+
+	public boolean isDirty() {
+		return !dirty.isEmpty();
+	}
+
+	public boolean isDirty(Position pos) {
+		AbstractMatrix.checkPosition(dim, pos.row, pos.column);
+		return dirty.isMarked(pos.row, pos.column);
+	}
+
+	public int getNumberOfDirtyCells() {
+		return dirty.cardinality();
+	}
+
+	/**
+	 * Returns the changed positions in row-major order.
+	 */
+	public List<Position> dirtyPositions() {
+		return dirty.positions();
+	}
+
+	public void forEachDirty(final OnEachCellHandler<T> onEachCellHandler) {
+		dirty.forEachMarked(new OnEachCellHandler<Object>() {
+			@Override
+			public void handle(int row, int column, Object elem) {
+				onEachCellHandler.handle(row, column, matrix.get(Position.withRowColumn(row, column)));
+			}
+		});
+	}
+
+	public void clearDirty() {
+		dirty.clear();
+		filled = false;
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		T previous = matrix.get(pos);
+		matrix.set(pos, value);
+		if (!AbstractMatrix.elementsAreEqual(previous, value)) {
+			dirty.mark(pos.row, pos.column);
+		}
+	}
+
+	@Override
+	public void swap(Position pos1, Position pos2) {
+		T first = matrix.get(pos1);
+		T second = matrix.get(pos2);
+		matrix.swap(pos1, pos2);
+		if (!AbstractMatrix.elementsAreEqual(first, second)) {
+			dirty.mark(pos1.row, pos1.column);
+			dirty.mark(pos2.row, pos2.column);
+		}
+	}
+
+	@Override
+	public void fill(T value) {
+		matrix.fill(value);
+		dirty.markAll();
+		filled = true;
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return dim;
+	}
+
+	@Override
+	public T get(Position pos) {
+		return matrix.get(pos);
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		return matrix.contains(elem);
+	}
+
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		return matrix.containsAll(elements);
+	}
+
+	@Override
+	public int count(T elem) {
+		return matrix.count(elem);
+	}
+
+	@Override
+	public void forEach(OnEachHandler<T> onEachHandler) {
+		matrix.forEach(onEachHandler);
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		matrix.forEach(onEachCellHandler);
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler, Order traversal) {
+		matrix.forEach(onEachCellHandler, traversal);
+	}
+
+	/**
+	 * The iterator is read-only, so it cannot make changes that go untracked.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return readOnly(matrix.iterator());
+	}
+
+	@Override
+	public Iterator<T> iterator(Order traversal) {
+		return readOnly(matrix.iterator(traversal));
+	}
+
+	private Iterator<T> readOnly(final Iterator<T> iterator) {
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return matrix.spliterator();
+	}
+
+	@Override
+	public Spliterator<Cell<T>> cellSpliterator() {
+		return matrix.cellSpliterator();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return (obj == this) || matrix.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return matrix.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return matrix.toString();
+	}
+}
@@ -10,7 +10,35 @@ import org.junit.runners.Suite.SuiteClasses;
 	TestDimension.class,
 	TestArrayMatrix.class,
 	TestIterableArrayMatrix.class,
-	TestArrayMatrixSerialization.class
+	TestArrayMatrixSerialization.class,
+	TestIntMatrix.class,
+	TestLongMatrix.class,
+	TestDoubleMatrix.class,
+	TestArrayMatrixAllocation.class,
+	TestMatrixStreams.class,
+	TestArrayMatrixParallel.class,
+	TestSparseMatrix.class,
+	TestOffHeapMatrix.class,
+	TestMappedMatrix.class,
+	TestMatrixFormat.class,
+	TestMatrixView.class,
+	TestIndexedMatrix.class,
+	TestConcurrentMatrix.class,
+	TestAtomicMatrix.class,
+	TestAtomicIntMatrix.class,
+	TestAtomicLongMatrix.class,
+	TestPersistentMatrix.class,
+	TestImmutableMatrix.class,
+	TestTiledMatrix.class,
+	TestArrayMatrixOrder.class,
+	TestInstrumentedMatrix.class,
+	TestMatrixArithmetic.class,
+	TestTrackedMatrix.class,
+	TestMatrixJournal.class,
+	TestBooleanMatrix.class,
+	TestEnumMatrix.class,
+	TestCompressedMatrix.class,
+	TestComputedMatrix.class
 })
 public class AllTests {
 
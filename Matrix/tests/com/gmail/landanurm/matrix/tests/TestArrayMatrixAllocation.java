@@ -0,0 +1,87 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+
+public class TestArrayMatrixAllocation {
+	private static final Dimension DIM = Dimension.withRowsColumns(300, 400);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+	private static final int WARM_UP_SCANS = 1;
+	/** Room for the iterator and other per-call objects, far below one byte per cell. */
+	private static final long MAX_ALLOCATED_BYTES = 1024;
+
+	private com.sun.management.ThreadMXBean threadBean;
+	private Matrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		matrix = new ArrayMatrix<Integer>(DIM);
+		matrix.fill(Integer.valueOf(1));
+	}
+
+	@Test
+	public void testForEachCellDoesNotAllocatePerCell() {
+		final Counter counter = new Counter(0);
+		OnEachCellHandler<Integer> handler = new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				counter.increaseByOne();
+			}
+		};
+		for (int i = 0; i < WARM_UP_SCANS; ++i) {
+			matrix.forEach(handler);
+		}
+		counter.reset(0);
+		long allocatedBefore = allocatedBytes();
+		matrix.forEach(handler);
+		long allocated = allocatedBytes() - allocatedBefore;
+		assertEquals(NUMBER_OF_ELEMENTS, counter.getCount());
+		assertAllocationIsNotPerCell(allocated);
+	}
+
+	@Test
+	public void testIterationDoesNotAllocatePerCell() {
+		for (int i = 0; i < WARM_UP_SCANS; ++i) {
+			sumOf(matrix.iterator());
+		}
+		long allocatedBefore = allocatedBytes();
+		int sum = sumOf(matrix.iterator());
+		long allocated = allocatedBytes() - allocatedBefore;
+		assertEquals(NUMBER_OF_ELEMENTS, sum);
+		assertAllocationIsNotPerCell(allocated);
+	}
+
+	private static int sumOf(Iterator<Integer> iterator) {
+		int sum = 0;
+		while (iterator.hasNext()) {
+			sum += iterator.next();
+		}
+		return sum;
+	}
+
+	private long allocatedBytes() {
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static void assertAllocationIsNotPerCell(long allocated) {
+		assertTrue("allocated " + allocated + " bytes for " + NUMBER_OF_ELEMENTS + " cells",
+				allocated <= MAX_ALLOCATED_BYTES);
+	}
+}
@@ -0,0 +1,218 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.ImmutableMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Order;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.SparseMatrix;
+
+public class TestArrayMatrixOrder {
+	private static final Dimension DIM = Dimension.withRowsColumns(45, 70);
+
+	private ArrayMatrix<Integer> rowMajor;
+	private ArrayMatrix<Integer> columnMajor;
+
+	@Before
+	public void setUp() {
+		rowMajor = new ArrayMatrix<Integer>(DIM);
+		columnMajor = new ArrayMatrix<Integer>(DIM, Order.COLUMN_MAJOR);
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				Position pos = Position.withRowColumn(row, column);
+				rowMajor.set(pos, valueAt(row, column));
+				columnMajor.set(pos, valueAt(row, column));
+			}
+		}
+	}
+
+	private static Integer valueAt(int row, int column) {
+		return row * DIM.columns + column;
+	}
+
+	@Test
+	public void testOrder() {
+		assertEquals(Order.ROW_MAJOR, rowMajor.getOrder());
+		assertEquals(Order.COLUMN_MAJOR, columnMajor.getOrder());
+		assertEquals(Integer.valueOf(valueAt(3, 5)), columnMajor.get(Position.withRowColumn(3, 5)));
+	}
+
+	@Test
+	public void testEqualsAcrossOrders() {
+		assertEquals(rowMajor, columnMajor);
+		assertEquals(columnMajor, rowMajor);
+		assertEquals(rowMajor.hashCode(), columnMajor.hashCode());
+		assertEquals(ImmutableMatrix.copyOf(rowMajor), columnMajor);
+		assertEquals(columnMajor, ImmutableMatrix.copyOf(rowMajor));
+		columnMajor.set(Position.withRowColumn(DIM.rows - 1, 0), -1);
+		assertFalse(rowMajor.equals(columnMajor));
+		assertFalse(columnMajor.equals(rowMajor));
+	}
+
+	@Test
+	public void testDefaultIterationIsRowMajor() {
+		int index = 0;
+		for (Integer each : columnMajor) {
+			assertEquals(Integer.valueOf(index++), each);
+		}
+		assertEquals(DIM.rows * DIM.columns, index);
+		assertEquals(rowMajor.stream().reduce(0, Integer::sum),
+					 columnMajor.stream().reduce(0, Integer::sum));
+	}
+
+	@Test
+	public void testIteratorInEachOrder() {
+		for (ArrayMatrix<Integer> matrix : bothLayouts()) {
+			Iterator<Integer> rows = matrix.iterator(Order.ROW_MAJOR);
+			for (int row = 0; row < DIM.rows; ++row) {
+				for (int column = 0; column < DIM.columns; ++column) {
+					assertEquals(valueAt(row, column), rows.next());
+				}
+			}
+			assertFalse(rows.hasNext());
+			Iterator<Integer> columns = matrix.iterator(Order.COLUMN_MAJOR);
+			for (int column = 0; column < DIM.columns; ++column) {
+				for (int row = 0; row < DIM.rows; ++row) {
+					assertEquals(valueAt(row, column), columns.next());
+				}
+			}
+			assertFalse(columns.hasNext());
+		}
+	}
+
+	@Test
+	public void testForEachInEachOrder() {
+		for (ArrayMatrix<Integer> matrix : bothLayouts()) {
+			for (final Order traversal : Order.values()) {
+				final AtomicInteger visited = new AtomicInteger();
+				matrix.forEach(new OnEachCellHandler<Integer>() {
+					@Override
+					public void handle(int row, int column, Integer elem) {
+						assertEquals(valueAt(row, column), elem);
+						int expected = (traversal == Order.ROW_MAJOR)
+										? row * DIM.columns + column
+										: column * DIM.rows + row;
+						assertEquals(expected, visited.getAndIncrement());
+					}
+				}, traversal);
+				assertEquals(DIM.rows * DIM.columns, visited.get());
+			}
+		}
+	}
+
+	@Test
+	public void testDefaultForEachInColumnMajorOrder() {
+		SparseMatrix<Integer> sparse = new SparseMatrix<Integer>(DIM, 0);
+		sparse.set(Position.withRowColumn(1, 0), 7);
+		final List<Integer> visited = new ArrayList<Integer>();
+		sparse.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				visited.add(elem);
+			}
+		}, Order.COLUMN_MAJOR);
+		assertEquals(Integer.valueOf(7), visited.get(1));
+		assertEquals(Integer.valueOf(0), visited.get(DIM.rows));
+		Iterator<Integer> columns = sparse.iterator(Order.COLUMN_MAJOR);
+		columns.next();
+		assertEquals(Integer.valueOf(7), columns.next());
+	}
+
+	@Test
+	public void testCopyBetweenOrders() {
+		for (ArrayMatrix<Integer> matrix : bothLayouts()) {
+			for (Order order : Order.values()) {
+				ArrayMatrix<Integer> copy = ArrayMatrix.copyOf(matrix, order);
+				assertEquals(order, copy.getOrder());
+				assertEquals(matrix, copy);
+				copy.set(Position.withRowColumn(0, 0), -1);
+				assertEquals(Integer.valueOf(0), matrix.get(Position.withRowColumn(0, 0)));
+			}
+		}
+		Matrix<Integer> sparse = new SparseMatrix<Integer>(DIM, 5);
+		assertEquals(sparse, ArrayMatrix.copyOf(sparse, Order.COLUMN_MAJOR));
+	}
+
+	@Test
+	public void testViewsOfColumnMajor() {
+		assertEquals(rowMajor.transposed(), columnMajor.transposed());
+		assertEquals(rowMajor.column(3), columnMajor.column(3));
+		assertEquals(rowMajor.subMatrix(Position.withRowColumn(2, 4), Dimension.withRowsColumns(5, 6)),
+					 columnMajor.subMatrix(Position.withRowColumn(2, 4), Dimension.withRowsColumns(5, 6)));
+	}
+
+	@Test
+	public void testParallelForEachOfColumnMajor() {
+		final AtomicInteger mismatches = new AtomicInteger();
+		final AtomicInteger visited = new AtomicInteger();
+		columnMajor.parallelForEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				visited.incrementAndGet();
+				if (!valueAt(row, column).equals(elem)) {
+					mismatches.incrementAndGet();
+				}
+			}
+		});
+		assertEquals(DIM.rows * DIM.columns, visited.get());
+		assertEquals(0, mismatches.get());
+	}
+
+	@Test
+	public void testSerializationKeepsOrder() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(columnMajor);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		@SuppressWarnings("unchecked")
+		ArrayMatrix<Integer> read = (ArrayMatrix<Integer>) in.readObject();
+		assertEquals(Order.COLUMN_MAJOR, read.getOrder());
+		assertEquals(columnMajor, read);
+	}
+
+	/**
+	 * A 2 x 3 matrix of [[0, 1, 2], [10, null, 12]] serialized before the
+	 * storage order was written, with MatrixFormat data only.
+	 */
+	private static final String STREAM_WITHOUT_ORDER =
+			"rO0ABXNyADVjb20uZ21haWwubGFuZGFudXJtLm1hdHJpeC5BcnJheU1hdHJpeCRTZXJpYWxpemVkRm9ybQAAAAAA"
+			+ "AAABAwAAeHB3JE1UWFMBBQAAAAIAAAADAS8AAAAAAAAAAQAAAAIAAAAKAAAADHg=";
+
+	@Test
+	public void testReadStreamWithoutOrder() throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(Base64.getDecoder().decode(STREAM_WITHOUT_ORDER)));
+		@SuppressWarnings("unchecked")
+		ArrayMatrix<Integer> read = (ArrayMatrix<Integer>) in.readObject();
+		assertEquals(Order.ROW_MAJOR, read.getOrder());
+		assertEquals(Integer.valueOf(12), read.get(Position.withRowColumn(1, 2)));
+		assertEquals(null, read.get(Position.withRowColumn(1, 1)));
+	}
+
+	private List<ArrayMatrix<Integer>> bothLayouts() {
+		List<ArrayMatrix<Integer>> layouts = new ArrayList<ArrayMatrix<Integer>>();
+		layouts.add(rowMajor);
+		layouts.add(columnMajor);
+		return layouts;
+	}
+}
@@ -0,0 +1,93 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestArrayMatrixParallel {
+	private static final Dimension LARGE = Dimension.withRowsColumns(301, 403);
+	private static final Dimension SMALL = Dimension.withRowsColumns(3, 4);
+
+	private ForkJoinPool pool;
+
+	@Before
+	public void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testParallelFillAndCount() {
+		ArrayMatrix<Integer> matrix = new ArrayMatrix<Integer>(LARGE);
+		matrix.parallelFill(7, pool);
+		matrix.set(Position.withRowColumn(LARGE.rows - 1, LARGE.columns - 1), 8);
+		assertEquals(LARGE.rows * LARGE.columns - 1, matrix.parallelCount(7, pool));
+		assertEquals(matrix.count(8), matrix.parallelCount(8));
+		assertEquals(0, matrix.parallelCount(null, pool));
+	}
+
+	@Test
+	public void testParallelContains() {
+		ArrayMatrix<Integer> matrix = new ArrayMatrix<Integer>(LARGE);
+		assertFalse(matrix.parallelContains(1, pool));
+		assertTrue(matrix.parallelContains(null, pool));
+		matrix.set(Position.withRowColumn(LARGE.rows / 2, 5), 1);
+		assertTrue(matrix.parallelContains(1, pool));
+		assertTrue(matrix.parallelContains(1));
+	}
+
+	@Test
+	public void testParallelForEachVisitsEveryCellOnce() {
+		ArrayMatrix<Integer> matrix = new ArrayMatrix<Integer>(LARGE);
+		int index = 0;
+		for (int row = 0; row < LARGE.rows; ++row) {
+			for (int column = 0; column < LARGE.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++);
+			}
+		}
+		final AtomicInteger visited = new AtomicInteger();
+		final AtomicLong mismatches = new AtomicLong();
+		matrix.parallelForEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				visited.incrementAndGet();
+				if (elem != row * LARGE.columns + column) {
+					mismatches.incrementAndGet();
+				}
+			}
+		}, pool);
+		assertEquals(LARGE.rows * LARGE.columns, visited.get());
+		assertEquals(0, mismatches.get());
+	}
+
+	@Test
+	public void testSmallMatrixRunsInCallingThread() {
+		ArrayMatrix<Integer> matrix = new ArrayMatrix<Integer>(SMALL);
+		matrix.parallelFill(1, pool);
+		assertEquals(SMALL.rows * SMALL.columns, matrix.parallelCount(1, pool));
+		final Thread caller = Thread.currentThread();
+		matrix.parallelForEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertTrue(Thread.currentThread() == caller);
+			}
+		}, pool);
+	}
+}
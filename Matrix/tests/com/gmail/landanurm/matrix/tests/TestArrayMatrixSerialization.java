@@ -2,10 +2,13 @@ package com.gmail.landanurm.matrix.tests;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Base64;
 import java.util.Random;
 
 import org.junit.Test;
@@ -27,6 +30,44 @@ public class TestArrayMatrixSerialization {
 		assertEquals(matrix, deserialize(filename));
 	}
 
+	/**
+	 * A 2 x 3 matrix of [[0, 1, 2], [10, null, 12]] written by the
+	 * ArrayMatrix that serialized its fields by default.
+	 */
+	private static final String LEGACY_STREAM =
+			"rO0ABXNyACZjb20uZ21haWwubGFuZGFudXJtLm1hdHJpeC5BcnJheU1hdHJpeGGztlWP/zaJAgADSQAQbnVtYmVy"
+			+ "T2ZFbGVtZW50c0wAA2RpbXQAJkxjb20vZ21haWwvbGFuZGFudXJtL21hdHJpeC9EaW1lbnNpb247WwAGdmFsdWVz"
+			+ "dAATW0xqYXZhL2xhbmcvT2JqZWN0O3hwAAAABnNyACRjb20uZ21haWwubGFuZGFudXJtLm1hdHJpeC5EaW1lbnNp"
+			+ "b26ScNrtZ/yuSwIAAkkAB2NvbHVtbnNJAARyb3dzeHAAAAADAAAAAnVyABNbTGphdmEubGFuZy5PYmplY3Q7kM5Y"
+			+ "nxBzKWwCAAB4cAAAAAZzcgARamF2YS5sYW5nLkludGVnZXIS4qCk94GHOAIAAUkABXZhbHVleHIAEGphdmEubGFu"
+			+ "Zy5OdW1iZXKGrJUdC5TgiwIAAHhwAAAAAHNxAH4ACAAAAAFzcQB+AAgAAAACc3EAfgAIAAAACnBzcQB+AAgAAAAM";
+
+	@Test
+	public void testReadLegacyStream() throws Exception {
+		ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(Base64.getDecoder().decode(LEGACY_STREAM)));
+		@SuppressWarnings("unchecked")
+		ArrayMatrix<Integer> matrix = (ArrayMatrix<Integer>) in.readObject();
+		in.close();
+		assertEquals(Dimension.withRowsColumns(2, 3), matrix.getDimension());
+		assertEquals(Integer.valueOf(12), matrix.get(Position.withRowColumn(1, 2)));
+		assertEquals(null, matrix.get(Position.withRowColumn(1, 1)));
+		matrix.set(Position.withRowColumn(1, 1), 11);
+		assertEquals(matrix, deserialize(matrix));
+	}
+
+	private <T> Matrix<T> deserialize(Matrix<T> matrix) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(matrix);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		@SuppressWarnings("unchecked")
+		Matrix<T> readMatrix = (Matrix<T>) in.readObject();
+		in.close();
+		return readMatrix;
+	}
+
 	private void fillByRandomNumbers(final Matrix<Integer> matrix) {
 		final Random random = new Random();
 		matrix.forEach(new OnEachHandler<Integer>() {
@@ -0,0 +1,78 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.AtomicIntMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestAtomicIntMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(3, 5);
+	private static final int THREADS = 4;
+	private static final int INCREMENTS = 10000;
+
+	private AtomicIntMatrix matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new AtomicIntMatrix(DIM);
+	}
+
+	@Test
+	public void testArithmetic() {
+		assertEquals(0, matrix.getAndAdd(1, 1, 5));
+		assertEquals(8, matrix.addAndGet(1, 1, 3));
+		assertEquals(9, matrix.incrementAndGet(1, 1));
+		assertEquals(8, matrix.decrementAndGet(1, 1));
+		assertEquals(16, matrix.updateAndGet(1, 1, x -> x * 2));
+		assertEquals(16, matrix.getAndUpdate(1, 1, x -> x + 1));
+		assertEquals(17, matrix.accumulateAndGet(1, 1, 3, Math::max));
+		assertEquals(17, matrix.getAndAccumulate(1, 1, 3, Math::min));
+		assertEquals(3, matrix.getAndSet(1, 1, 0));
+	}
+
+	@Test
+	public void testCompareAndSet() {
+		assertTrue(matrix.compareAndSet(0, 0, 0, 1));
+		assertFalse(matrix.compareAndSet(0, 0, 0, 2));
+		assertEquals(1, matrix.getInt(0, 0));
+	}
+
+	@Test
+	public void testConcurrentIncrementsLoseNoUpdates() throws InterruptedException {
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; ++t) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < INCREMENTS; ++i) {
+					matrix.incrementAndGet(2, 4);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread each : threads) {
+			each.join();
+		}
+		assertEquals(THREADS * INCREMENTS, matrix.getInt(2, 4));
+	}
+
+	@Test
+	public void testFillCountContainsAndView() {
+		matrix.fill(4);
+		matrix.setInt(0, 1, 2);
+		assertEquals(DIM.rows * DIM.columns - 1, matrix.count(4));
+		assertTrue(matrix.contains(2));
+		Matrix<Integer> view = matrix.asMatrix();
+		view.set(Position.withRowColumn(2, 2), 7);
+		assertEquals(7, matrix.getInt(2, 2));
+		Matrix<Integer> dense = ArrayMatrix.copyOf(view);
+		assertEquals(dense, view);
+		assertEquals(dense.hashCode(), view.hashCode());
+	}
+}
@@ -0,0 +1,27 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.AtomicLongMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+
+public class TestAtomicLongMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(2, 3);
+
+	@Test
+	public void testAtomicOperations() {
+		AtomicLongMatrix matrix = new AtomicLongMatrix(DIM);
+		assertEquals(1L << 40, matrix.addAndGet(1, 2, 1L << 40));
+		assertTrue(matrix.compareAndSet(1, 2, 1L << 40, 5L));
+		assertEquals(15L, matrix.accumulateAndGet(1, 2, 3L, (a, b) -> a * b));
+		assertEquals(0L, matrix.getAndAccumulate(0, 0, 15L, Math::max));
+		assertEquals(2, matrix.count(15L));
+		Matrix<Long> view = matrix.asMatrix();
+		assertEquals(ArrayMatrix.copyOf(view), view);
+	}
+}
@@ -0,0 +1,95 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.AtomicMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestAtomicMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(4, 6);
+	private static final Position POS = Position.withRowColumn(2, 5);
+	private static final int THREADS = 4;
+	private static final int INCREMENTS = 10000;
+
+	private AtomicMatrix<String> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new AtomicMatrix<String>(DIM);
+	}
+
+	@Test
+	public void testInitValueIsNull() {
+		assertNull(matrix.get(POS));
+		assertEquals(DIM.rows * DIM.columns, matrix.count(null));
+	}
+
+	@Test
+	public void testCompareAndSetComparesReferences() {
+		String value = "a";
+		assertTrue(matrix.compareAndSet(POS, null, value));
+		assertFalse(matrix.compareAndSet(POS, new String("a"), "b"));
+		assertTrue(matrix.compareAndSet(POS, value, "b"));
+		assertEquals("b", matrix.get(POS));
+	}
+
+	@Test
+	public void testUpdateAndAccumulate() {
+		matrix.set(POS, "a");
+		UnaryOperator<String> twice = s -> s + s;
+		BinaryOperator<String> concat = (s, x) -> s + x;
+		assertEquals("a", matrix.getAndUpdate(POS, twice));
+		assertEquals("aaaa", matrix.updateAndGet(POS, twice));
+		assertEquals("aaaab", matrix.accumulateAndGet(POS, "b", concat));
+		assertEquals("aaaab", matrix.getAndSet(POS, "c"));
+		assertEquals("c", matrix.getAndAccumulate(POS, "d", concat));
+		assertEquals("cd", matrix.get(POS));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testCompareAndSetOutOfBounds() {
+		matrix.compareAndSet(Position.withRowColumn(DIM.rows, 0), null, "a");
+	}
+
+	@Test
+	public void testConcurrentAccumulateLosesNoUpdates() throws InterruptedException {
+		final AtomicMatrix<Integer> counters = new AtomicMatrix<Integer>(DIM);
+		counters.fill(0);
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; ++t) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < INCREMENTS; ++i) {
+					counters.accumulateAndGet(POS, 1, Integer::sum);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread each : threads) {
+			each.join();
+		}
+		assertEquals(Integer.valueOf(THREADS * INCREMENTS), counters.get(POS));
+	}
+
+	@Test
+	public void testEqualsArrayMatrixWithSameContents() {
+		matrix.fill("x");
+		matrix.set(POS, null);
+		Matrix<String> dense = ArrayMatrix.copyOf(matrix);
+		assertEquals(dense, matrix);
+		assertEquals(matrix, dense);
+		assertEquals(dense.hashCode(), matrix.hashCode());
+		assertEquals(matrix, AtomicMatrix.copyOf(dense));
+	}
+}
@@ -0,0 +1,108 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.BooleanMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestBooleanMatrix {
+	// 7 * 19 = 133 cells, so the last word is only partly used.
+	private static final Dimension DIM = Dimension.withRowsColumns(7, 19);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private BooleanMatrix matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new BooleanMatrix(DIM);
+	}
+
+	@Test
+	public void testInitValueIsFalse() {
+		assertEquals(Boolean.FALSE, matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(false));
+		assertEquals(0, matrix.countTrue());
+		assertFalse(matrix.contains(true));
+	}
+
+	@Test
+	public void testGetSet() {
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), (row + column) % 3 == 0);
+			}
+		}
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				assertEquals((row + column) % 3 == 0, matrix.getBoolean(row, column));
+			}
+		}
+		matrix.setBoolean(0, 0, false);
+		assertEquals(Boolean.FALSE, matrix.get(Position.withRowColumn(0, 0)));
+	}
+
+	@Test
+	public void testFillLeavesNoBitsPastLastCell() {
+		matrix.fill(true);
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(true));
+		assertEquals(0, matrix.count(false));
+		assertFalse(matrix.contains(false));
+		matrix.setBoolean(DIM.rows - 1, DIM.columns - 1, false);
+		assertTrue(matrix.contains(false));
+		assertEquals(1, matrix.count(false));
+		matrix.fill(Boolean.FALSE);
+		assertFalse(matrix.contains(true));
+	}
+
+	@Test
+	public void testContains() {
+		assertFalse(matrix.contains(null));
+		matrix.setBoolean(3, 11, true);
+		assertTrue(matrix.contains(true));
+		assertTrue(matrix.contains(false));
+		assertEquals(0, matrix.count(null));
+	}
+
+	@Test
+	public void testEqualsArrayMatrix() {
+		matrix.setBoolean(0, 5, true);
+		matrix.setBoolean(6, 18, true);
+		ArrayMatrix<Boolean> copy = ArrayMatrix.copyOf(matrix);
+		assertEquals(copy, matrix);
+		assertEquals(matrix, copy);
+		assertEquals(copy.hashCode(), matrix.hashCode());
+		assertEquals(matrix, BooleanMatrix.copyOf(copy));
+	}
+
+	@Test
+	public void testForEachIsRowMajor() {
+		matrix.setBoolean(2, 7, true);
+		final int[] visited = new int[1];
+		matrix.forEach(new OnEachCellHandler<Boolean>() {
+			@Override
+			public void handle(int row, int column, Boolean elem) {
+				assertEquals(visited[0]++, row * DIM.columns + column);
+				assertEquals(row == 2 && column == 7, elem);
+			}
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, visited[0]);
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testSetNull() {
+		matrix.set(Position.withRowColumn(0, 0), null);
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		matrix.getBoolean(0, DIM.columns);
+	}
+}
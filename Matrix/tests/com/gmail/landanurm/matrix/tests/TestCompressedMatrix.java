@@ -0,0 +1,134 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.CompressedMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.TiledMatrix;
+
+public class TestCompressedMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(6, 100);
+
+	private ArrayMatrix<String> source;
+
+	/**
+	 * Even rows hold a few long runs, odd rows change value on every column
+	 * and are packed instead.
+	 */
+	@Before
+	public void setUp() {
+		source = new ArrayMatrix<String>(DIM);
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				String value = (row % 2 == 0) ? "run-" + (column / 30) : "cell-" + (column % 5);
+				source.set(Position.withRowColumn(row, column), value);
+			}
+		}
+		source.set(Position.withRowColumn(2, 45), null);
+	}
+
+	@Test
+	public void testGetMatchesSource() {
+		CompressedMatrix<String> matrix = CompressedMatrix.copyOf(source);
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				Position pos = Position.withRowColumn(row, column);
+				assertEquals(source.get(pos), matrix.get(pos));
+			}
+		}
+		assertNull(matrix.get(Position.withRowColumn(2, 45)));
+	}
+
+	@Test
+	public void testNumberOfDistinctValues() {
+		// run-0..run-3, cell-0..cell-4 and null.
+		assertEquals(10, CompressedMatrix.copyOf(source).getNumberOfDistinctValues());
+	}
+
+	@Test
+	public void testCountAndContains() {
+		CompressedMatrix<String> matrix = CompressedMatrix.copyOf(source);
+		assertEquals(source.count("run-1"), matrix.count("run-1"));
+		assertEquals(source.count("cell-4"), matrix.count("cell-4"));
+		assertEquals(1, matrix.count(null));
+		assertEquals(0, matrix.count("absent"));
+		assertTrue(matrix.contains(null));
+		assertTrue(matrix.contains("run-3"));
+		assertFalse(matrix.contains("absent"));
+		assertTrue(matrix.containsAll(Arrays.asList("run-0", "cell-0")));
+		assertFalse(matrix.containsAll(Arrays.asList("run-0", "absent")));
+	}
+
+	@Test
+	public void testSingleValue() {
+		ArrayMatrix<Integer> constant = new ArrayMatrix<Integer>(DIM);
+		constant.fill(7);
+		CompressedMatrix<Integer> matrix = CompressedMatrix.copyOf(constant);
+		assertEquals(1, matrix.getNumberOfDistinctValues());
+		assertEquals(DIM.rows * DIM.columns, matrix.count(7));
+		assertEquals(Integer.valueOf(7), matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+	}
+
+	@Test
+	public void testManyDistinctValues() {
+		ArrayMatrix<Integer> distinct = new ArrayMatrix<Integer>(DIM);
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				distinct.set(Position.withRowColumn(row, column), row * DIM.columns + column);
+			}
+		}
+		CompressedMatrix<Integer> matrix = CompressedMatrix.copyOf(distinct);
+		assertEquals(DIM.rows * DIM.columns, matrix.getNumberOfDistinctValues());
+		assertEquals(distinct, matrix);
+	}
+
+	@Test
+	public void testForEachIsRowMajor() {
+		final CompressedMatrix<String> matrix = CompressedMatrix.copyOf(source);
+		final int[] visited = new int[1];
+		matrix.forEach(new OnEachCellHandler<String>() {
+			@Override
+			public void handle(int row, int column, String elem) {
+				assertEquals(visited[0]++, row * DIM.columns + column);
+				assertEquals(source.get(Position.withRowColumn(row, column)), elem);
+			}
+		});
+		assertEquals(DIM.rows * DIM.columns, visited[0]);
+	}
+
+	@Test
+	public void testEqualsArrayMatrix() {
+		CompressedMatrix<String> matrix = CompressedMatrix.copyOf(source);
+		assertEquals(source, matrix);
+		assertEquals(matrix, source);
+		assertEquals(source.hashCode(), matrix.hashCode());
+		assertEquals(matrix, CompressedMatrix.copyOf(TiledMatrix.copyOf(matrix)));
+		source.set(Position.withRowColumn(5, 99), "changed");
+		assertNotEquals(matrix, source);
+		assertNotEquals(matrix, CompressedMatrix.copyOf(source));
+	}
+
+	@Test
+	public void testCopyOfCompressedIsSame() {
+		CompressedMatrix<String> matrix = CompressedMatrix.copyOf(source);
+		assertSame(matrix, CompressedMatrix.copyOf(matrix));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		CompressedMatrix.copyOf(source).get(Position.withRowColumn(0, DIM.columns));
+	}
+}
@@ -0,0 +1,243 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.CellFunction;
+import com.gmail.landanurm.matrix.ComputedMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Order;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestComputedMatrix {
+	// Large enough to be computed in several parallel blocks.
+	private static final Dimension DIM = Dimension.withRowsColumns(300, 257);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private AtomicInteger calls;
+	private CellFunction<Integer> distance;
+
+	@Before
+	public void setUp() {
+		calls = new AtomicInteger();
+		distance = new CellFunction<Integer>() {
+			@Override
+			public Integer valueAt(int row, int column) {
+				calls.incrementAndGet();
+				return Math.abs(row - 10) + Math.abs(column - 20);
+			}
+		};
+	}
+
+	private static int expected(int row, int column) {
+		return Math.abs(row - 10) + Math.abs(column - 20);
+	}
+
+	@Test
+	public void testNothingIsComputedUntilRead() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.memoized(DIM, distance);
+		assertEquals(DIM, matrix.getDimension());
+		assertEquals(0, calls.get());
+		assertEquals(Integer.valueOf(expected(3, 4)), matrix.get(Position.withRowColumn(3, 4)));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testUncachedComputesOnEveryGet() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.of(DIM, distance);
+		matrix.get(Position.withRowColumn(1, 1));
+		matrix.get(Position.withRowColumn(1, 1));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void testMemoizedComputesOnce() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.memoized(DIM, distance);
+		Integer first = matrix.get(Position.withRowColumn(1, 1));
+		assertSame(first, matrix.get(Position.withRowColumn(1, 1)));
+		assertEquals(1, calls.get());
+		matrix.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+			}
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, calls.get());
+		matrix.count(0);
+		assertEquals(NUMBER_OF_ELEMENTS, calls.get());
+	}
+
+	@Test
+	public void testMemoizedNull() {
+		ComputedMatrix<String> matrix = ComputedMatrix.memoized(DIM, new CellFunction<String>() {
+			@Override
+			public String valueAt(int row, int column) {
+				calls.incrementAndGet();
+				return null;
+			}
+		});
+		assertNull(matrix.get(Position.withRowColumn(0, 0)));
+		assertNull(matrix.get(Position.withRowColumn(0, 0)));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testCachedKeepsRecentCells() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.cached(DIM, distance, 4);
+		matrix.get(Position.withRowColumn(0, 1));
+		matrix.get(Position.withRowColumn(0, 1));
+		assertEquals(1, calls.get());
+		// Cell 5 takes the slot of cell 1.
+		matrix.get(Position.withRowColumn(0, 5));
+		matrix.get(Position.withRowColumn(0, 1));
+		assertEquals(3, calls.get());
+		assertEquals(Integer.valueOf(expected(0, 1)), matrix.get(Position.withRowColumn(0, 1)));
+		assertEquals(3, calls.get());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCachedNeedsPositiveCapacity() {
+		ComputedMatrix.cached(DIM, distance, 0);
+	}
+
+	@Test
+	public void testForEachVisitsInOrder() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.of(DIM, distance);
+		final int[] visited = new int[1];
+		matrix.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertEquals(visited[0]++, row * DIM.columns + column);
+				assertEquals(Integer.valueOf(expected(row, column)), elem);
+			}
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, visited[0]);
+
+		visited[0] = 0;
+		matrix.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertEquals(visited[0]++, column * DIM.rows + row);
+				assertEquals(Integer.valueOf(expected(row, column)), elem);
+			}
+		}, Order.COLUMN_MAJOR);
+		assertEquals(NUMBER_OF_ELEMENTS, visited[0]);
+	}
+
+	@Test
+	public void testIterator() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.of(DIM, distance);
+		Iterator<Integer> elements = matrix.iterator();
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				assertEquals(Integer.valueOf(expected(row, column)), elements.next());
+			}
+		}
+		assertFalse(elements.hasNext());
+	}
+
+	@Test
+	public void testCountAndContains() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.cached(DIM, distance, 16);
+		assertEquals(1, matrix.count(0));
+		assertEquals(4, matrix.count(1));
+		assertTrue(matrix.contains(expected(DIM.rows - 1, DIM.columns - 1)));
+		assertFalse(matrix.contains(-1));
+	}
+
+	@Test
+	public void testCopyToArrayMatrix() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.of(DIM, distance);
+		ArrayMatrix<Integer> rowMajor = ArrayMatrix.copyOf(matrix);
+		ArrayMatrix<Integer> columnMajor = ArrayMatrix.copyOf(matrix, Order.COLUMN_MAJOR);
+		assertEquals(NUMBER_OF_ELEMENTS * 2, calls.get());
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				Position pos = Position.withRowColumn(row, column);
+				assertEquals(Integer.valueOf(expected(row, column)), rowMajor.get(pos));
+				assertEquals(Integer.valueOf(expected(row, column)), columnMajor.get(pos));
+			}
+		}
+		assertEquals(rowMajor, matrix);
+		assertEquals(matrix, rowMajor);
+		assertEquals(rowMajor.hashCode(), matrix.hashCode());
+	}
+
+	@Test
+	public void testFunctionCanReadOwnMatrix() {
+		final AtomicReference<ComputedMatrix<Integer>> self = new AtomicReference<ComputedMatrix<Integer>>();
+		self.set(ComputedMatrix.memoized(DIM, new CellFunction<Integer>() {
+			@Override
+			public Integer valueAt(int row, int column) {
+				return (column == 0) ? row : self.get().get(Position.withRowColumn(row, column - 1)) + 1;
+			}
+		}));
+		assertEquals(Integer.valueOf(5 + DIM.columns - 1), self.get().get(Position.withRowColumn(5, DIM.columns - 1)));
+	}
+
+	@Test
+	public void testEarlyHitComputesFewCells() {
+		ComputedMatrix<Integer> matrix = ComputedMatrix.of(DIM, distance);
+		assertTrue(matrix.contains(30));
+		assertTrue(calls.get() < 100);
+		calls.set(0);
+		assertEquals(Integer.valueOf(30), matrix.iterator().next());
+		assertTrue(calls.get() < 100);
+	}
+
+	@Test
+	public void testConcurrentFirstAccessSeesOneValue() throws Exception {
+		final ComputedMatrix<Object> matrix = ComputedMatrix.memoized(DIM, new CellFunction<Object>() {
+			@Override
+			public Object valueAt(int row, int column) {
+				return new Object();
+			}
+		});
+		final int threads = 4;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Object>> results = new ArrayList<Future<Object>>();
+			for (int i = 0; i < threads; ++i) {
+				results.add(executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						start.await();
+						return matrix.get(Position.withRowColumn(7, 7));
+					}
+				}));
+			}
+			start.countDown();
+			Object first = results.get(0).get();
+			for (Future<Object> each : results) {
+				assertSame(first, each.get());
+			}
+			assertSame(first, matrix.get(Position.withRowColumn(7, 7)));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		ComputedMatrix.of(DIM, distance).get(Position.withRowColumn(DIM.rows, 0));
+	}
+}
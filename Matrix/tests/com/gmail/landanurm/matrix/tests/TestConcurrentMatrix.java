@@ -0,0 +1,97 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.ConcurrentMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachHandler;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestConcurrentMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(16, 32);
+	private static final int THREADS = 8;
+	private static final int ITERATIONS = 20000;
+
+	@Test
+	public void testStripesAreLimitedByRows() {
+		assertEquals(3, new ConcurrentMatrix<Integer>(Dimension.withRowsColumns(3, 100)).getNumberOfStripes());
+		assertEquals(4, new ConcurrentMatrix<Integer>(DIM, 4).getNumberOfStripes());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testZeroStripes() {
+		new ConcurrentMatrix<Integer>(DIM, 0);
+	}
+
+	@Test
+	public void testBehavesAsMatrix() {
+		final ConcurrentMatrix<Integer> matrix = new ConcurrentMatrix<Integer>(DIM, 4);
+		matrix.fill(0);
+		matrix.forEach(new OnEachHandler<Integer>() {
+			@Override
+			public void handle(Position pos, Integer elem) {
+				matrix.set(pos, pos.row * DIM.columns + pos.column);
+			}
+		});
+		Matrix<Integer> dense = ArrayMatrix.copyOf(matrix);
+		assertEquals(dense, matrix);
+		assertEquals(matrix, dense);
+		assertEquals(dense.hashCode(), matrix.hashCode());
+		assertEquals(matrix, ConcurrentMatrix.copyOf(dense));
+		assertEquals(1, matrix.count(5));
+		assertTrue(matrix.contains(DIM.rows * DIM.columns - 1));
+		matrix.set(Position.withRowColumn(DIM.rows - 1, 0), -1);
+		assertFalse(matrix.equals(dense));
+	}
+
+	@Test
+	public void testConcurrentSwapsKeepAllValues() throws Exception {
+		final ConcurrentMatrix<Integer> matrix = new ConcurrentMatrix<Integer>(DIM, 4);
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++);
+			}
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<Void>> results = new ArrayList<Future<Void>>();
+		for (int t = 0; t < THREADS; ++t) {
+			final int seed = t;
+			results.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					Random random = new Random(seed);
+					for (int i = 0; i < ITERATIONS; ++i) {
+						matrix.swap(randomPosition(random), randomPosition(random));
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> each : results) {
+			each.get();
+		}
+		executor.shutdown();
+		for (int i = 0; i < DIM.rows * DIM.columns; ++i) {
+			assertEquals(1, matrix.count(i));
+		}
+	}
+
+	private static Position randomPosition(Random random) {
+		return Position.withRowColumn(random.nextInt(DIM.rows), random.nextInt(DIM.columns));
+	}
+}
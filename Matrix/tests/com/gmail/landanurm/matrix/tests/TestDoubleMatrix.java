@@ -0,0 +1,64 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.DoubleMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestDoubleMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(3, 4);
+
+	@Test
+	public void testGetSet() {
+		DoubleMatrix matrix = new DoubleMatrix(DIM);
+		matrix.setDouble(2, 3, 0.5);
+		assertEquals(0.5, matrix.getDouble(2, 3), 0.0);
+		assertEquals(0.0, matrix.getDouble(0, 0), 0.0);
+	}
+
+	@Test
+	public void testContainsAndCountCompareLikeDoubleEquals() {
+		DoubleMatrix matrix = new DoubleMatrix(DIM);
+		matrix.setDouble(0, 0, Double.NaN);
+		assertTrue(matrix.contains(Double.NaN));
+		assertFalse(matrix.contains(-0.0));
+		assertEquals(DIM.rows * DIM.columns - 1, matrix.count(0.0));
+	}
+
+	@Test
+	public void testAsMatrix_EqualsArrayMatrixWithSameContents() {
+		DoubleMatrix matrix = new DoubleMatrix(DIM);
+		matrix.setDouble(1, 2, 3.25);
+		Matrix<Double> view = matrix.asMatrix();
+		Matrix<Double> copy = ArrayMatrix.copyOf(view);
+		assertEquals(copy, view);
+		assertEquals(copy.hashCode(), view.hashCode());
+		view.set(Position.withRowColumn(0, 0), 1.5);
+		assertEquals(1.5, matrix.getDouble(0, 0), 0.0);
+		assertEquals(matrix, DoubleMatrix.copyOf(view));
+	}
+
+	@Test
+	public void testBulkOperationsOnLargeMatrix() {
+		DoubleMatrix large = new DoubleMatrix(Dimension.withRowsColumns(37, 61));
+		large.fill(0.0);
+		large.setDouble(36, 60, -0.0);
+		large.setDouble(20, 3, Double.longBitsToDouble(0x7ff8000000000001L));
+		assertEquals(1, large.count(-0.0));
+		assertEquals(37 * 61 - 2, large.count(0.0));
+		assertEquals(1, large.count(Double.NaN));
+		assertTrue(large.contains(Double.NaN));
+		assertFalse(large.contains(1.0));
+		assertTrue(Double.isNaN(large.max()));
+		large.setDouble(20, 3, 2.5);
+		assertEquals(2.5, large.max(), 0.0);
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(large.min()));
+	}
+}
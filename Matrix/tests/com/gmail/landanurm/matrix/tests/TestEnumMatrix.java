@@ -0,0 +1,140 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.EnumMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestEnumMatrix {
+	// 5 * 13 = 65 cells, so the last word is only partly used at every width.
+	private static final Dimension DIM = Dimension.withRowsColumns(5, 13);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private enum Three { A, B, C }
+	private enum Four { A, B, C, D }
+	private enum Fifteen { A, B, C, D, E, F, G, H, I, J, K, L, M, N, O }
+	private enum Sixteen { A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P }
+
+	@Test
+	public void testBitsPerCell() {
+		assertEquals(2, new EnumMatrix<Three>(DIM, Three.class).getBitsPerCell());
+		assertEquals(4, new EnumMatrix<Four>(DIM, Four.class).getBitsPerCell());
+		assertEquals(4, new EnumMatrix<Fifteen>(DIM, Fifteen.class).getBitsPerCell());
+		assertEquals(8, new EnumMatrix<Sixteen>(DIM, Sixteen.class).getBitsPerCell());
+	}
+
+	@Test
+	public void testInitValueIsNull() {
+		EnumMatrix<Three> matrix = new EnumMatrix<Three>(DIM, Three.class);
+		assertNull(matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(null));
+		assertFalse(matrix.contains(Three.A));
+	}
+
+	@Test
+	public void testGetSetAtEveryWidth() {
+		checkGetSet(new EnumMatrix<Three>(DIM, Three.class), Three.values());
+		checkGetSet(new EnumMatrix<Fifteen>(DIM, Fifteen.class), Fifteen.values());
+		checkGetSet(new EnumMatrix<Sixteen>(DIM, Sixteen.class), Sixteen.values());
+	}
+
+	private static <E extends Enum<E>> void checkGetSet(Matrix<E> matrix, E[] constants) {
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), constantOrNull(constants, index++));
+			}
+		}
+		index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				assertEquals(constantOrNull(constants, index++), matrix.get(Position.withRowColumn(row, column)));
+			}
+		}
+	}
+
+	private static <E> E constantOrNull(E[] constants, int index) {
+		int code = index % (constants.length + 1);
+		return (code == constants.length) ? null : constants[code];
+	}
+
+	@Test
+	public void testCountAtEveryWidth() {
+		checkCount(new EnumMatrix<Three>(DIM, Three.class), Three.values());
+		checkCount(new EnumMatrix<Fifteen>(DIM, Fifteen.class), Fifteen.values());
+		checkCount(new EnumMatrix<Sixteen>(DIM, Sixteen.class), Sixteen.values());
+	}
+
+	private static <E extends Enum<E>> void checkCount(EnumMatrix<E> matrix, E[] constants) {
+		checkGetSet(matrix, constants);
+		ArrayMatrix<E> expected = ArrayMatrix.copyOf(matrix);
+		for (E each : constants) {
+			assertEquals(expected.count(each), matrix.count(each));
+			assertTrue(matrix.contains(each));
+		}
+		assertEquals(expected.count(null), matrix.count(null));
+	}
+
+	@Test
+	public void testFillLeavesNoCellsPastLastOne() {
+		EnumMatrix<Fifteen> matrix = new EnumMatrix<Fifteen>(DIM, Fifteen.class);
+		matrix.fill(Fifteen.O);
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(Fifteen.O));
+		assertEquals(0, matrix.count(null));
+		assertFalse(matrix.contains(null));
+		matrix.set(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1), Fifteen.A);
+		assertEquals(NUMBER_OF_ELEMENTS - 1, matrix.count(Fifteen.O));
+		assertTrue(matrix.contains(Fifteen.A));
+		matrix.fill(null);
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(null));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testConstantOfOtherEnumIsNotContained() {
+		EnumMatrix matrix = new EnumMatrix<Three>(DIM, Three.class);
+		matrix.fill(Three.A);
+		assertFalse(matrix.contains(Four.A));
+		assertEquals(0, matrix.count(Four.A));
+	}
+
+	@Test
+	public void testEqualsArrayMatrix() {
+		EnumMatrix<Four> matrix = new EnumMatrix<Four>(DIM, Four.class);
+		checkGetSet(matrix, Four.values());
+		ArrayMatrix<Four> copy = ArrayMatrix.copyOf(matrix);
+		assertEquals(copy, matrix);
+		assertEquals(matrix, copy);
+		assertEquals(copy.hashCode(), matrix.hashCode());
+		assertEquals(matrix, EnumMatrix.copyOf(copy, Four.class));
+	}
+
+	@Test
+	public void testForEachIsRowMajor() {
+		EnumMatrix<Three> matrix = new EnumMatrix<Three>(DIM, Three.class);
+		checkGetSet(matrix, Three.values());
+		final int[] visited = new int[1];
+		matrix.forEach(new OnEachCellHandler<Three>() {
+			@Override
+			public void handle(int row, int column, Three elem) {
+				assertEquals(visited[0], row * DIM.columns + column);
+				assertEquals(constantOrNull(Three.values(), visited[0]++), elem);
+			}
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, visited[0]);
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		new EnumMatrix<Three>(DIM, Three.class).get(Position.withRowColumn(DIM.rows, 0));
+	}
+}
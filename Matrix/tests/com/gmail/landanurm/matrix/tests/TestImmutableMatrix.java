@@ -0,0 +1,118 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.ImmutableMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.PersistentMatrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestImmutableMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(13, 17);
+
+	private ArrayMatrix<Integer> source;
+
+	@Before
+	public void setUp() {
+		source = new ArrayMatrix<Integer>(DIM);
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				source.set(Position.withRowColumn(row, column), index++ % 10);
+			}
+		}
+	}
+
+	@Test
+	public void testBuilder() {
+		ImmutableMatrix<String> matrix = ImmutableMatrix.<String>builder(DIM)
+				.fill("a")
+				.set(Position.withRowColumn(2, 3), "b")
+				.set(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1), null)
+				.build();
+		assertEquals("b", matrix.get(Position.withRowColumn(2, 3)));
+		assertEquals("a", matrix.get(Position.withRowColumn(0, 0)));
+		assertNull(matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+		assertEquals(DIM.rows * DIM.columns - 2, matrix.count("a"));
+		assertTrue(matrix.contains(null));
+		assertFalse(matrix.contains("c"));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testBuilderCannotBeReusedAfterBuild() {
+		ImmutableMatrix.Builder<String> builder = ImmutableMatrix.builder(DIM);
+		builder.build();
+		builder.set(Position.withRowColumn(0, 0), "a");
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetByOutOfBoundsPosition() {
+		ImmutableMatrix.copyOf(source).get(Position.withRowColumn(0, DIM.columns));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetByNegativePosition() {
+		ImmutableMatrix.<String>builder(DIM).set(Position.withRowColumn(-1, 0), "a");
+	}
+
+	@Test
+	public void testCopyOfImmutableReturnsSameInstance() {
+		ImmutableMatrix<Integer> copy = ImmutableMatrix.copyOf(source);
+		assertSame(copy, ImmutableMatrix.copyOf(copy));
+	}
+
+	@Test
+	public void testCopyIsNotAffectedBySource() {
+		ImmutableMatrix<Integer> copy = ImmutableMatrix.copyOf(source);
+		source.set(Position.withRowColumn(0, 0), 100);
+		assertEquals(Integer.valueOf(0), copy.get(Position.withRowColumn(0, 0)));
+	}
+
+	@Test
+	public void testEqualsAndHashCodeMatchArrayMatrix() {
+		ImmutableMatrix<Integer> copy = ImmutableMatrix.copyOf(source);
+		assertEquals(source.hashCode(), copy.hashCode());
+		assertEquals(copy, source);
+		assertEquals(source, copy);
+		assertEquals(copy, ImmutableMatrix.copyOf(PersistentMatrix.copyOf(source)));
+
+		Matrix<Integer> persistent = PersistentMatrix.copyOf(source);
+		assertEquals(copy, persistent);
+		assertEquals(persistent, copy);
+	}
+
+	@Test
+	public void testNotEqualAfterChange() {
+		ImmutableMatrix<Integer> copy = ImmutableMatrix.copyOf(source);
+		source.set(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1), 100);
+		assertFalse(copy.equals(source));
+		assertFalse(source.equals(copy));
+		assertFalse(copy.equals(ImmutableMatrix.copyOf(source)));
+	}
+
+	@Test
+	public void testNotEqualWithOtherDimension() {
+		ImmutableMatrix<Integer> matrix = ImmutableMatrix.<Integer>builder(DIM).build();
+		ImmutableMatrix<Integer> transposed =
+				ImmutableMatrix.<Integer>builder(Dimension.withRowsColumns(DIM.columns, DIM.rows)).build();
+		assertFalse(matrix.equals(transposed));
+	}
+
+	@Test
+	public void testIterationOrder() {
+		int index = 0;
+		for (Integer each : ImmutableMatrix.copyOf(source)) {
+			assertEquals(Integer.valueOf(index++ % 10), each);
+		}
+		assertEquals(DIM.rows * DIM.columns, index);
+	}
+}
@@ -0,0 +1,122 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.IndexedMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestIndexedMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(8, 8);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private IndexedMatrix<String> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new IndexedMatrix<String>(DIM);
+	}
+
+	@Test
+	public void testJustCreatedMatrixContainsOnlyNulls() {
+		assertTrue(matrix.contains(null));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(null));
+		assertFalse(matrix.contains("x"));
+		assertEquals(1, matrix.getNumberOfDistinctElements());
+	}
+
+	@Test
+	public void testSetUpdatesIndex() {
+		Position pos = Position.withRowColumn(2, 3);
+		matrix.set(pos, "x");
+		assertEquals(1, matrix.count("x"));
+		assertEquals(NUMBER_OF_ELEMENTS - 1, matrix.count(null));
+		matrix.set(pos, "o");
+		assertFalse(matrix.contains("x"));
+		assertEquals(1, matrix.count("o"));
+		assertEquals(2, matrix.getNumberOfDistinctElements());
+	}
+
+	@Test
+	public void testFillResetsIndex() {
+		matrix.set(Position.withRowColumn(0, 0), "x");
+		matrix.fill("o");
+		assertFalse(matrix.contains("x"));
+		assertFalse(matrix.contains(null));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count("o"));
+	}
+
+	@Test
+	public void testSwapKeepsIndexConsistent() {
+		Position pos1 = Position.withRowColumn(0, 0);
+		Position pos2 = Position.withRowColumn(7, 7);
+		matrix.set(pos1, "x");
+		matrix.swap(pos1, pos2);
+		assertEquals(Arrays.asList(pos2), matrix.positionsOf("x"));
+		assertEquals(1, matrix.count("x"));
+	}
+
+	@Test
+	public void testPositionsOfInRowMajorOrder() {
+		matrix.set(Position.withRowColumn(5, 1), "x");
+		matrix.set(Position.withRowColumn(1, 6), "x");
+		matrix.set(Position.withRowColumn(1, 2), "x");
+		List<Position> positions = matrix.positionsOf("x");
+		assertEquals(Arrays.asList(Position.withRowColumn(1, 2),
+								   Position.withRowColumn(1, 6),
+								   Position.withRowColumn(5, 1)), positions);
+		assertTrue(matrix.positionsOf("absent").isEmpty());
+	}
+
+	@Test
+	public void testUniqueValuesMovedAround() {
+		for (int i = 0; i < NUMBER_OF_ELEMENTS; ++i) {
+			matrix.set(Position.withRowColumn(i / DIM.columns, i % DIM.columns), "v" + i);
+		}
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.getNumberOfDistinctElements());
+		for (int i = 0; i < NUMBER_OF_ELEMENTS; i += 2) {
+			matrix.set(Position.withRowColumn(i / DIM.columns, i % DIM.columns), "even");
+		}
+		assertEquals(NUMBER_OF_ELEMENTS / 2, matrix.count("even"));
+		assertFalse(matrix.contains("v0"));
+		assertEquals(Arrays.asList(Position.withRowColumn(0, 1)), matrix.positionsOf("v1"));
+		for (int i = 0; i < NUMBER_OF_ELEMENTS - 2; i += 2) {
+			matrix.set(Position.withRowColumn(i / DIM.columns, i % DIM.columns), "odd");
+		}
+		List<Position> even = matrix.positionsOf("even");
+		assertEquals(Arrays.asList(Position.withRowColumn(DIM.rows - 1, DIM.columns - 2)), even);
+		assertEquals(NUMBER_OF_ELEMENTS / 2 - 1, matrix.count("odd"));
+		assertEquals(ArrayMatrix.copyOf(matrix), matrix);
+	}
+
+	@Test
+	public void testContainsAll() {
+		matrix.set(Position.withRowColumn(0, 0), "x");
+		assertTrue(matrix.containsAll(Arrays.asList("x", null)));
+		assertFalse(matrix.containsAll(Arrays.asList("x", "o")));
+	}
+
+	@Test
+	public void testEqualsAndHashCodeCompatibleWithArrayMatrix() {
+		matrix.fill("o");
+		matrix.set(Position.withRowColumn(3, 3), "x");
+		matrix.set(Position.withRowColumn(4, 4), null);
+		Matrix<String> dense = ArrayMatrix.copyOf(matrix);
+		assertEquals(dense, matrix);
+		assertEquals(matrix, dense);
+		assertEquals(dense.hashCode(), matrix.hashCode());
+		IndexedMatrix<String> copy = IndexedMatrix.copyOf(dense);
+		assertEquals(matrix, copy);
+		assertEquals(1, copy.count("x"));
+	}
+}
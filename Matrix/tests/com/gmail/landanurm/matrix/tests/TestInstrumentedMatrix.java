@@ -0,0 +1,188 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.InstrumentedMatrix;
+import com.gmail.landanurm.matrix.MatrixMetrics;
+import com.gmail.landanurm.matrix.MatrixOperation;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.OperationStats;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestInstrumentedMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(8, 9);
+
+	private MatrixMetrics metrics;
+	private InstrumentedMatrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		metrics = new MatrixMetrics(1);
+		matrix = new InstrumentedMatrix<Integer>(new ArrayMatrix<Integer>(DIM), metrics);
+	}
+
+	private long calls(MatrixOperation operation) {
+		return metrics.snapshot(operation).getCalls();
+	}
+
+	@Test
+	public void testForwardsAndCounts() {
+		matrix.fill(1);
+		matrix.set(Position.withRowColumn(2, 3), 5);
+		assertEquals(Integer.valueOf(5), matrix.get(Position.withRowColumn(2, 3)));
+		matrix.swap(Position.withRowColumn(2, 3), Position.withRowColumn(0, 0));
+		assertEquals(Integer.valueOf(5), matrix.get(Position.withRowColumn(0, 0)));
+		assertEquals(DIM.rows * DIM.columns - 1, matrix.count(1));
+
+		assertEquals(1, calls(MatrixOperation.FILL));
+		assertEquals(1, calls(MatrixOperation.SET));
+		assertEquals(2, calls(MatrixOperation.GET));
+		assertEquals(1, calls(MatrixOperation.SWAP));
+		assertEquals(1, calls(MatrixOperation.COUNT));
+		assertEquals(0, calls(MatrixOperation.FOR_EACH));
+	}
+
+	@Test
+	public void testEveryCallIsTimedWithoutSampling() {
+		for (int i = 0; i < 100; ++i) {
+			matrix.get(Position.withRowColumn(0, 0));
+		}
+		OperationStats gets = metrics.snapshot(MatrixOperation.GET);
+		assertEquals(100, gets.getCalls());
+		assertEquals(100, gets.getTimedCalls());
+		assertTrue(gets.getPercentileNanos(50) <= gets.getPercentileNanos(99));
+		assertTrue(gets.getPercentileNanos(99) <= gets.getMaxNanos());
+	}
+
+	@Test
+	public void testSampledSingleCellOperationsAreStillCounted() {
+		InstrumentedMatrix<Integer> sampled =
+				new InstrumentedMatrix<Integer>(new ArrayMatrix<Integer>(DIM), new MatrixMetrics(1 << 20));
+		for (int i = 0; i < 1000; ++i) {
+			sampled.get(Position.withRowColumn(0, 0));
+		}
+		OperationStats gets = sampled.getMetrics().snapshot(MatrixOperation.GET);
+		assertEquals(1000, gets.getCalls());
+		assertTrue(gets.getTimedCalls() < 1000);
+	}
+
+	@Test
+	public void testFullScans() {
+		matrix.fill(1);
+		assertTrue(matrix.contains(1));
+		assertEquals(0, metrics.getFullScans());
+		assertTrue(!matrix.contains(2));
+		assertTrue(!matrix.containsAll(Arrays.asList(1, 3)));
+		assertEquals(2, metrics.getFullScans());
+		assertEquals(3, calls(MatrixOperation.CONTAINS));
+	}
+
+	@Test
+	public void testFailedContainsIsNotFullScan() {
+		InstrumentedMatrix<Integer> failing = new InstrumentedMatrix<Integer>(new ArrayMatrix<Integer>(DIM) {
+			@Override
+			public boolean contains(Integer elem) {
+				throw new IllegalStateException();
+			}
+		}, metrics);
+		try {
+			failing.contains(1);
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(1, calls(MatrixOperation.CONTAINS));
+		assertEquals(0, metrics.getFullScans());
+	}
+
+	@Test
+	public void testForEachAndIteration() {
+		matrix.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+			}
+		});
+		assertEquals(1, calls(MatrixOperation.FOR_EACH));
+		assertEquals(1, metrics.snapshot(MatrixOperation.FOR_EACH).getTimedCalls());
+
+		int visited = 0;
+		for (Integer each : matrix) {
+			++visited;
+		}
+		assertEquals(DIM.rows * DIM.columns, visited);
+		matrix.iterator().next();
+		OperationStats iterations = metrics.snapshot(MatrixOperation.ITERATE);
+		assertEquals(2, iterations.getCalls());
+		assertEquals(1, iterations.getTimedCalls());
+		assertEquals(0, calls(MatrixOperation.GET));
+	}
+
+	@Test
+	public void testEqualsDelegate() {
+		ArrayMatrix<Integer> other = new ArrayMatrix<Integer>(DIM);
+		other.fill(7);
+		matrix.fill(7);
+		assertEquals(other, matrix);
+		assertEquals(matrix, other);
+		assertEquals(other.hashCode(), matrix.hashCode());
+	}
+
+	@Test
+	public void testEqualsBetweenDecoratorsRecordsNothing() {
+		MatrixMetrics otherMetrics = new MatrixMetrics(1);
+		InstrumentedMatrix<Integer> other =
+				new InstrumentedMatrix<Integer>(new ArrayMatrix<Integer>(DIM), otherMetrics);
+		assertTrue(matrix.equals(other));
+		assertTrue(other.equals(matrix));
+		assertEquals(0, calls(MatrixOperation.ITERATE));
+		other.set(Position.withRowColumn(7, 8), 1);
+		assertFalse(matrix.equals(other));
+		assertFalse(other.equals(matrix));
+		assertEquals(0, calls(MatrixOperation.ITERATE));
+		assertEquals(0, otherMetrics.snapshot(MatrixOperation.ITERATE).getCalls());
+	}
+
+	@Test
+	public void testReset() {
+		matrix.fill(1);
+		matrix.contains(2);
+		metrics.reset();
+		assertEquals(0, calls(MatrixOperation.FILL));
+		assertEquals(0, metrics.getFullScans());
+		assertEquals(0, metrics.snapshot(MatrixOperation.FILL).getMaxNanos());
+	}
+
+	@Test
+	public void testMXBean() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("com.gmail.landanurm.matrix:type=MatrixMetrics,name=test");
+		server.registerMBean(metrics, name);
+		try {
+			matrix.fill(1);
+			matrix.contains(2);
+			assertEquals(1L, server.getAttribute(name, "FullScans"));
+			assertTrue(server.getAttribute(name, "Calls") instanceof javax.management.openmbean.TabularData);
+			Map<String, Long> calls = metrics.getCalls();
+			assertEquals(Long.valueOf(1), calls.get("FILL"));
+			server.invoke(name, "reset", null, null);
+			assertEquals(0L, server.getAttribute(name, "FullScans"));
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+}
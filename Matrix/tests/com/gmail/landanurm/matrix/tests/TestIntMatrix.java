@@ -0,0 +1,155 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.IntMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachIntHandler;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestIntMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(6, 9);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private IntMatrix matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new IntMatrix(DIM);
+	}
+
+	@Test
+	public void testInitValueIsZero() {
+		assertEquals(0, matrix.getInt(0, 0));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(0));
+	}
+
+	@Test
+	public void testGetSet() {
+		fillByIndexes(matrix);
+		int expected = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				assertEquals(expected++, matrix.getInt(row, column));
+			}
+		}
+	}
+
+	private static void fillByIndexes(IntMatrix matrixToFill) {
+		Dimension dim = matrixToFill.getDimension();
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				matrixToFill.setInt(row, column, index++);
+			}
+		}
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetByOutOfBoundsPosition() {
+		matrix.getInt(DIM.rows, 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetByNegativePosition() {
+		matrix.setInt(0, -1, 1);
+	}
+
+	@Test
+	public void testFillContainsCount() {
+		matrix.fill(7);
+		matrix.setInt(1, 1, 3);
+		assertTrue(matrix.contains(3));
+		assertFalse(matrix.contains(0));
+		assertEquals(NUMBER_OF_ELEMENTS - 1, matrix.count(7));
+	}
+
+	@Test
+	public void testForEach_Order_LeftToRight_UpToDown() {
+		fillByIndexes(matrix);
+		final Counter counter = new Counter(0);
+		matrix.forEach(new OnEachIntHandler() {
+			@Override
+			public void handle(int row, int column, int elem) {
+				assertEquals(counter.getCount(), row * DIM.columns + column);
+				assertEquals(counter.getCount(), elem);
+				counter.increaseByOne();
+			}
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, counter.getCount());
+	}
+
+	@Test
+	public void testAsMatrix_WritesThrough() {
+		Matrix<Integer> view = matrix.asMatrix();
+		view.set(Position.withRowColumn(2, 3), 5);
+		assertEquals(5, matrix.getInt(2, 3));
+		matrix.setInt(0, 1, 4);
+		assertEquals(Integer.valueOf(4), view.get(Position.withRowColumn(0, 1)));
+	}
+
+	@Test
+	public void testAsMatrix_NullIsNeverContained() {
+		Matrix<Integer> view = matrix.asMatrix();
+		assertFalse(view.contains(null));
+		assertEquals(0, view.count(null));
+	}
+
+	@Test
+	public void testAsMatrix_EqualsArrayMatrixWithSameContents() {
+		fillByIndexes(matrix);
+		Matrix<Integer> view = matrix.asMatrix();
+		Matrix<Integer> copy = ArrayMatrix.copyOf(view);
+		assertEquals(copy, view);
+		assertEquals(view, copy);
+		assertEquals(copy.hashCode(), view.hashCode());
+	}
+
+	@Test
+	public void testCopyOf() {
+		fillByIndexes(matrix);
+		Matrix<Integer> boxed = ArrayMatrix.copyOf(matrix.asMatrix());
+		assertEquals(matrix, IntMatrix.copyOf(boxed));
+	}
+
+	@Test
+	public void testIterable() {
+		fillByIndexes(matrix);
+		int expected = 0;
+		for (Integer each : matrix.asMatrix()) {
+			assertEquals(Integer.valueOf(expected++), each);
+		}
+		assertEquals(NUMBER_OF_ELEMENTS, expected);
+	}
+
+	@Test
+	public void testBulkOperationsOnLargeMatrix() {
+		// Longer than one chunk of the bulk kernels, and not a multiple of the unroll width.
+		IntMatrix large = new IntMatrix(Dimension.withRowsColumns(37, 61));
+		large.fill(7);
+		assertEquals(37 * 61, large.count(7));
+		assertFalse(large.contains(-7));
+		large.setInt(36, 60, -7);
+		large.setInt(17, 1, Integer.MIN_VALUE);
+		assertTrue(large.contains(-7));
+		assertEquals(1, large.count(Integer.MIN_VALUE));
+		assertEquals(37 * 61 - 2, large.count(7));
+		assertEquals(Integer.MIN_VALUE, large.min());
+		assertEquals(7, large.max());
+	}
+
+	@Test
+	public void testMinMaxOfSmallMatrix() {
+		matrix.setInt(1, 1, -3);
+		matrix.setInt(0, 2, 5);
+		assertEquals(-3, matrix.min());
+		assertEquals(5, matrix.max());
+	}
+}
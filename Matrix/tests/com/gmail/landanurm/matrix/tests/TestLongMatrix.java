@@ -0,0 +1,61 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.LongMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestLongMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(3, 4);
+
+	@Test
+	public void testGetSet() {
+		LongMatrix matrix = new LongMatrix(DIM);
+		matrix.setLong(2, 3, Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, matrix.getLong(2, 3));
+		assertEquals(0L, matrix.getLong(0, 0));
+	}
+
+	@Test
+	public void testFillContainsCount() {
+		LongMatrix matrix = new LongMatrix(DIM);
+		matrix.fill(1L << 40);
+		assertTrue(matrix.contains(1L << 40));
+		assertFalse(matrix.contains(0L));
+		assertEquals(DIM.rows * DIM.columns, matrix.count(1L << 40));
+	}
+
+	@Test
+	public void testAsMatrix_EqualsArrayMatrixWithSameContents() {
+		LongMatrix matrix = new LongMatrix(DIM);
+		matrix.setLong(1, 1, -5L);
+		Matrix<Long> view = matrix.asMatrix();
+		Matrix<Long> copy = ArrayMatrix.copyOf(view);
+		assertEquals(copy, view);
+		assertEquals(copy.hashCode(), view.hashCode());
+		view.set(Position.withRowColumn(0, 0), 9L);
+		assertEquals(9L, matrix.getLong(0, 0));
+		assertEquals(matrix, LongMatrix.copyOf(view));
+	}
+
+	@Test
+	public void testBulkOperationsOnLargeMatrix() {
+		LongMatrix large = new LongMatrix(Dimension.withRowsColumns(37, 61));
+		large.fill(1L << 40);
+		assertEquals(37 * 61, large.count(1L << 40));
+		assertFalse(large.contains(1L << 41));
+		large.setLong(36, 60, Long.MIN_VALUE);
+		large.setLong(0, 0, Long.MAX_VALUE);
+		assertTrue(large.contains(Long.MIN_VALUE));
+		assertEquals(37 * 61 - 2, large.count(1L << 40));
+		assertEquals(Long.MIN_VALUE, large.min());
+		assertEquals(Long.MAX_VALUE, large.max());
+	}
+}
@@ -0,0 +1,204 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ReadOnlyBufferException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Cell;
+import com.gmail.landanurm.matrix.CellType;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.MappedMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestMappedMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(11, 7);
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("TestMappedMatrix", ".matrix");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testCreatedMatrixIsZeroFilled() throws IOException {
+		MappedMatrix<Long> matrix = MappedMatrix.create(file, DIM, CellType.LONG);
+		assertEquals(DIM, matrix.getDimension());
+		assertEquals(DIM.rows * DIM.columns, matrix.count(0L));
+		matrix.close();
+	}
+
+	@Test
+	public void testReopenedMatrixKeepsContents() throws IOException {
+		MappedMatrix<Integer> matrix = MappedMatrix.create(file, DIM, CellType.INT);
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++ * 31);
+			}
+		}
+		Matrix<Integer> expected = ArrayMatrix.copyOf(matrix);
+		matrix.force();
+		matrix.close();
+
+		MappedMatrix<Integer> reopened = MappedMatrix.open(file, CellType.INT);
+		assertEquals(DIM, reopened.getDimension());
+		assertEquals(expected, reopened);
+		reopened.set(Position.withRowColumn(0, 0), -1);
+		reopened.close();
+
+		MappedMatrix<Integer> again = MappedMatrix.open(file, CellType.INT);
+		assertEquals(Integer.valueOf(-1), again.get(Position.withRowColumn(0, 0)));
+		again.close();
+	}
+
+	@Test(expected=IOException.class)
+	public void testOpenWithDifferentCellType() throws IOException {
+		MappedMatrix.create(file, DIM, CellType.DOUBLE).close();
+		MappedMatrix.open(file, CellType.INT);
+	}
+
+	@Test(expected=IOException.class)
+	public void testOpenFileThatIsNotMatrix() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[128]);
+		out.close();
+		MappedMatrix.open(file, CellType.INT);
+	}
+
+	@Test
+	public void testOpenReadOnly() throws IOException {
+		MappedMatrix<Integer> matrix = MappedMatrix.create(file, DIM, CellType.INT);
+		matrix.fill(7);
+		matrix.close();
+		file.setReadOnly();
+
+		MappedMatrix<Integer> reopened = MappedMatrix.openReadOnly(file, CellType.INT);
+		assertEquals(DIM.rows * DIM.columns, reopened.count(7));
+		try {
+			reopened.set(Position.withRowColumn(0, 0), 1);
+			fail();
+		} catch (ReadOnlyBufferException e) {
+			// expected
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testOpenFileShorterThanHeader() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[] { 'M', 'T', 'R', 'X' });
+		out.close();
+		try {
+			MappedMatrix.open(file, CellType.INT);
+			fail();
+		} catch (IOException e) {
+			assertEquals(4, file.length());
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void testOpenFileWithCorruptDimension() throws IOException {
+		MappedMatrix.create(file, DIM, CellType.INT).close();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(8);
+		raf.writeInt(-1);
+		raf.close();
+		MappedMatrix.open(file, CellType.INT);
+	}
+
+	@Test(expected=IOException.class)
+	public void testOpenFileWithUnknownCellType() throws IOException {
+		MappedMatrix.create(file, DIM, CellType.INT).close();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(5);
+		raf.writeByte(0x7f);
+		raf.close();
+		MappedMatrix.open(file, CellType.INT);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAccessAfterClose() throws IOException {
+		MappedMatrix<Double> matrix = MappedMatrix.create(file, DIM, CellType.DOUBLE);
+		matrix.close();
+		matrix.fill(1.0);
+	}
+
+	@Test
+	public void testHashCodeMatchesArrayMatrix() throws IOException {
+		MappedMatrix<Double> matrix = MappedMatrix.create(file, DIM, CellType.DOUBLE);
+		matrix.set(Position.withRowColumn(3, 4), 2.5);
+		matrix.set(Position.withRowColumn(10, 6), -1.0);
+		assertEquals(ArrayMatrix.copyOf(matrix).hashCode(), matrix.hashCode());
+		matrix.close();
+	}
+
+	@Test
+	public void testMatrixWithMoreCellsThanIntRange() throws IOException {
+		// 46341 * 46341 is just above 2^31; the files stay sparse, so only the
+		// pages actually touched are read.
+		Dimension huge = Dimension.withRowsColumns(46341, 46341);
+		File otherFile = File.createTempFile("TestMappedMatrix", ".matrix");
+		MappedMatrix<Integer> matrix = null;
+		MappedMatrix<Integer> other = null;
+		try {
+			try {
+				matrix = MappedMatrix.create(file, huge, CellType.INT);
+				other = MappedMatrix.create(otherFile, huge, CellType.INT);
+			} catch (IOException e) {
+				Assume.assumeNoException(e);
+			}
+			matrix.set(Position.withRowColumn(0, 0), 7);
+			matrix.set(Position.withRowColumn(huge.rows - 1, huge.columns - 1), 9);
+
+			assertTrue(matrix.iterator().hasNext());
+			assertEquals(Integer.valueOf(7), matrix.iterator().next());
+			assertFalse(matrix.equals(other));
+			assertFalse(other.equals(matrix));
+
+			Spliterator<Cell<Integer>> cells = matrix.cellSpliterator();
+			assertEquals((long) huge.rows * huge.columns, cells.estimateSize());
+			while (cells.trySplit() != null) {
+				// keep the upper half, which ends with the last cell
+			}
+			assertEquals(1, cells.estimateSize());
+			final AtomicReference<Cell<Integer>> last = new AtomicReference<Cell<Integer>>();
+			assertTrue(cells.tryAdvance(cell -> last.set(cell)));
+			assertEquals(huge.rows - 1, last.get().row);
+			assertEquals(huge.columns - 1, last.get().column);
+			assertEquals(Integer.valueOf(9), last.get().elem);
+			assertNull(cells.trySplit());
+		} finally {
+			if (matrix != null) {
+				matrix.close();
+			}
+			if (other != null) {
+				other.close();
+			}
+			otherFile.delete();
+		}
+	}
+}
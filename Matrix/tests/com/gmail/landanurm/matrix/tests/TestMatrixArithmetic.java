@@ -0,0 +1,175 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.DoubleMatrix;
+import com.gmail.landanurm.matrix.IntMatrix;
+import com.gmail.landanurm.matrix.LongMatrix;
+import com.gmail.landanurm.matrix.MatrixArithmetic;
+
+public class TestMatrixArithmetic {
+	private static final double EPSILON = 1e-9;
+
+	private static DoubleMatrix randomDoubles(int rows, int columns, long seed) {
+		Random random = new Random(seed);
+		DoubleMatrix matrix = new DoubleMatrix(Dimension.withRowsColumns(rows, columns));
+		for (int row = 0; row < rows; ++row) {
+			for (int column = 0; column < columns; ++column) {
+				matrix.setDouble(row, column, random.nextDouble() - 0.5);
+			}
+		}
+		return matrix;
+	}
+
+	private static LongMatrix randomLongs(int rows, int columns, long seed) {
+		Random random = new Random(seed);
+		LongMatrix matrix = new LongMatrix(Dimension.withRowsColumns(rows, columns));
+		for (int row = 0; row < rows; ++row) {
+			for (int column = 0; column < columns; ++column) {
+				matrix.setLong(row, column, random.nextInt(2001) - 1000);
+			}
+		}
+		return matrix;
+	}
+
+	private static void assertProduct(DoubleMatrix a, DoubleMatrix b, DoubleMatrix product) {
+		Dimension dim = product.getDimension();
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				double expected = 0;
+				for (int k = 0; k < a.getDimension().columns; ++k) {
+					expected += a.getDouble(row, k) * b.getDouble(k, column);
+				}
+				assertEquals(expected, product.getDouble(row, column), EPSILON);
+			}
+		}
+	}
+
+	private static void assertProduct(LongMatrix a, LongMatrix b, LongMatrix product) {
+		Dimension dim = product.getDimension();
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				long expected = 0;
+				for (int k = 0; k < a.getDimension().columns; ++k) {
+					expected += a.getLong(row, k) * b.getLong(k, column);
+				}
+				assertEquals(expected, product.getLong(row, column));
+			}
+		}
+	}
+
+	@Test
+	public void testMultiplySmall() {
+		DoubleMatrix a = randomDoubles(7, 5, 1);
+		DoubleMatrix b = randomDoubles(5, 3, 2);
+		DoubleMatrix product = MatrixArithmetic.multiply(a, b);
+		assertEquals(Dimension.withRowsColumns(7, 3), product.getDimension());
+		assertProduct(a, b, product);
+	}
+
+	@Test
+	public void testMultiplyAcrossBlocks() {
+		DoubleMatrix a = randomDoubles(37, 261, 3);
+		DoubleMatrix b = randomDoubles(261, 290, 4);
+		assertProduct(a, b, MatrixArithmetic.multiply(a, b));
+	}
+
+	@Test
+	public void testMultiplyInParallel() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			DoubleMatrix a = randomDoubles(130, 110, 5);
+			DoubleMatrix b = randomDoubles(110, 100, 6);
+			DoubleMatrix result = new DoubleMatrix(Dimension.withRowsColumns(130, 100));
+			result.fill(Double.NaN);
+			assertSame(result, MatrixArithmetic.multiply(a, b, result, pool));
+			assertProduct(a, b, result);
+
+			LongMatrix x = randomLongs(130, 110, 7);
+			LongMatrix y = randomLongs(110, 100, 8);
+			assertProduct(x, y, MatrixArithmetic.multiply(x, y, new LongMatrix(Dimension.withRowsColumns(130, 100)), pool));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testMultiplyLongs() {
+		LongMatrix a = randomLongs(9, 6, 9);
+		LongMatrix b = randomLongs(6, 11, 10);
+		assertProduct(a, b, MatrixArithmetic.multiply(a, b));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMultiplyIncompatible() {
+		MatrixArithmetic.multiply(randomDoubles(3, 4, 1), randomDoubles(3, 4, 2));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMultiplyIntoOperand() {
+		DoubleMatrix a = randomDoubles(4, 4, 1);
+		MatrixArithmetic.multiply(a, randomDoubles(4, 4, 2), a);
+	}
+
+	@Test
+	public void testAddAndScaleInPlace() {
+		DoubleMatrix a = randomDoubles(6, 7, 1);
+		DoubleMatrix b = randomDoubles(6, 7, 2);
+		DoubleMatrix sum = MatrixArithmetic.add(a, b);
+		DoubleMatrix copy = MatrixArithmetic.scale(a, 1.0);
+		assertSame(a, MatrixArithmetic.add(a, b, a));
+		assertEquals(sum, a);
+		MatrixArithmetic.scale(a, 2.0, a);
+		assertEquals(2 * (copy.getDouble(5, 6) + b.getDouble(5, 6)), a.getDouble(5, 6), EPSILON);
+
+		LongMatrix x = randomLongs(3, 2, 3);
+		LongMatrix y = MatrixArithmetic.scale(x, -3);
+		LongMatrix zero = MatrixArithmetic.add(MatrixArithmetic.scale(x, 3), y);
+		assertEquals(zero.getDimension().rows * zero.getDimension().columns, zero.count(0));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddDifferentDimensions() {
+		MatrixArithmetic.add(randomLongs(3, 4, 1), randomLongs(4, 3, 2));
+	}
+
+	@Test
+	public void testTranspose() {
+		DoubleMatrix a = randomDoubles(45, 70, 1);
+		DoubleMatrix transposed = MatrixArithmetic.transpose(a);
+		assertEquals(Dimension.withRowsColumns(70, 45), transposed.getDimension());
+		for (int row = 0; row < 45; ++row) {
+			for (int column = 0; column < 70; ++column) {
+				assertEquals(a.getDouble(row, column), transposed.getDouble(column, row), 0);
+			}
+		}
+		assertEquals(a, MatrixArithmetic.transpose(transposed));
+	}
+
+	@Test
+	public void testTransposeSquareInPlace() {
+		LongMatrix a = randomLongs(67, 67, 1);
+		LongMatrix expected = MatrixArithmetic.transpose(a);
+		assertSame(a, MatrixArithmetic.transpose(a, a));
+		assertEquals(expected, a);
+	}
+
+	@Test
+	public void testAddInts() {
+		IntMatrix a = new IntMatrix(Dimension.withRowsColumns(5, 30));
+		IntMatrix b = new IntMatrix(Dimension.withRowsColumns(5, 30));
+		a.fill(2);
+		b.fill(-5);
+		b.setInt(4, 29, Integer.MAX_VALUE);
+		IntMatrix sum = MatrixArithmetic.add(a, b);
+		assertEquals(5 * 30 - 1, sum.count(-3));
+		assertEquals(Integer.MIN_VALUE + 1, sum.getInt(4, 29));
+	}
+}
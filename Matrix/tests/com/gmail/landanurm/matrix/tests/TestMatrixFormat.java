@@ -0,0 +1,198 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.IntMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.MatrixFormat;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.ReadOnlyMatrix;
+
+public class TestMatrixFormat {
+	private static final Dimension DIM = Dimension.withRowsColumns(11, 7);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+	private static final int HEADER_SIZE = 4 + 1 + 1 + 4 + 4 + 1;
+
+	@Test
+	public void testIntegersArePacked() throws IOException {
+		Matrix<Integer> matrix = new ArrayMatrix<Integer>(DIM);
+		matrix.fill(-3);
+		byte[] bytes = toBytes(matrix);
+		assertEquals(HEADER_SIZE + 4 * NUMBER_OF_ELEMENTS, bytes.length);
+		assertEquals(matrix, fromBytes(bytes));
+	}
+
+	@Test
+	public void testNullCells() throws IOException {
+		Matrix<Long> matrix = new ArrayMatrix<Long>(DIM);
+		matrix.set(Position.withRowColumn(3, 4), Long.MAX_VALUE);
+		matrix.set(Position.withRowColumn(10, 6), -1L);
+		assertEquals(matrix, fromBytes(toBytes(matrix)));
+	}
+
+	@Test
+	public void testAllCellsNull() throws IOException {
+		Matrix<Double> matrix = new ArrayMatrix<Double>(DIM);
+		assertEquals(matrix, fromBytes(toBytes(matrix)));
+	}
+
+	@Test
+	public void testStringsBooleansAndDoubles() throws IOException {
+		Matrix<String> strings = new ArrayMatrix<String>(DIM);
+		strings.fill("\u043c\u0430\u0442\u0440\u0438\u0446\u0430");
+		strings.set(Position.withRowColumn(0, 0), null);
+		assertEquals(strings, fromBytes(toBytes(strings)));
+
+		Matrix<Boolean> booleans = new ArrayMatrix<Boolean>(DIM);
+		booleans.fill(true);
+		booleans.set(Position.withRowColumn(1, 1), false);
+		assertEquals(booleans, fromBytes(toBytes(booleans)));
+
+		Matrix<Double> doubles = new ArrayMatrix<Double>(DIM);
+		doubles.fill(Double.NaN);
+		doubles.set(Position.withRowColumn(2, 2), -0.0);
+		assertEquals(doubles, fromBytes(toBytes(doubles)));
+	}
+
+	@Test
+	public void testLargeMatrixSpansSeveralBlocks() throws IOException {
+		IntMatrix ints = new IntMatrix(Dimension.withRowsColumns(300, 301));
+		for (int row = 0; row < 300; ++row) {
+			for (int column = 0; column < 301; ++column) {
+				ints.setInt(row, column, row * column);
+			}
+		}
+		Matrix<Integer> matrix = ArrayMatrix.copyOf(ints.asMatrix());
+		assertEquals(matrix, fromBytes(toBytes(matrix)));
+		assertEquals(ints.asMatrix(), fromBytes(toBytes(ints.asMatrix())));
+	}
+
+	@Test
+	public void testMixedPrimitivesAndStringsThroughDataStream() throws IOException {
+		Matrix<Object> matrix = new ArrayMatrix<Object>(DIM);
+		matrix.set(Position.withRowColumn(0, 0), 5L);
+		matrix.set(Position.withRowColumn(0, 1), 6);
+		matrix.set(Position.withRowColumn(3, 3), "six");
+		matrix.set(Position.withRowColumn(10, 6), 'c');
+		assertEquals(matrix, fromBytes(toBytes(matrix)));
+	}
+
+	@Test
+	public void testMixedObjectsThroughObjectStream() throws Exception {
+		Matrix<Object> matrix = new ArrayMatrix<Object>(DIM);
+		matrix.set(Position.withRowColumn(0, 0), 1);
+		matrix.set(Position.withRowColumn(0, 1), "one");
+		matrix.set(Position.withRowColumn(0, 2), Dimension.withRowsColumns(1, 1));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		MatrixFormat.write(matrix, out);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(matrix, MatrixFormat.read(in));
+	}
+
+	@Test
+	public void testMixedObjectsNeedObjectOutput() throws IOException {
+		Matrix<Object> matrix = new ArrayMatrix<Object>(DIM);
+		matrix.set(Position.withRowColumn(0, 0), 1);
+		matrix.set(Position.withRowColumn(0, 1), Dimension.withRowsColumns(1, 1));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			MatrixFormat.write(matrix, new DataOutputStream(bytes));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(0, bytes.size());
+		}
+	}
+
+	@Test
+	public void testChannels() throws IOException {
+		Matrix<Short> matrix = new ArrayMatrix<Short>(DIM);
+		matrix.fill((short) 12);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MatrixFormat.write(matrix, Channels.newChannel(bytes));
+		Matrix<Short> read = MatrixFormat.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals(matrix, read);
+	}
+
+	@Test(expected=StreamCorruptedException.class)
+	public void testReadNotMatrix() throws IOException {
+		fromBytes(new byte[32]);
+	}
+
+	@Test(expected=StreamCorruptedException.class)
+	public void testStringLengthBeyondInput() throws IOException {
+		Matrix<String> matrix = new ArrayMatrix<String>(Dimension.withRowsColumns(1, 1));
+		matrix.fill("ab");
+		byte[] bytes = toBytes(matrix);
+		// The length of the only string follows the 15-byte header.
+		ByteBuffer.wrap(bytes).putInt(15, Integer.MAX_VALUE);
+		fromBytes(bytes);
+	}
+
+	@Test
+	public void testCorruptDimension() throws IOException {
+		assertCorruptDimensionFails(65536, 65536, StreamCorruptedException.class);
+		assertCorruptDimensionFails(50000, 50000, StreamCorruptedException.class);
+		// Fits an array, but the input holds a single value, not 1.6 billion.
+		assertCorruptDimensionFails(40000, 40000, EOFException.class);
+	}
+
+	@Test
+	public void testCorruptDimensionWithNullCells() throws IOException {
+		Matrix<Integer> matrix = new ArrayMatrix<Integer>(Dimension.withRowsColumns(1, 2));
+		matrix.set(Position.withRowColumn(0, 0), 5);
+		byte[] bytes = toBytes(matrix);
+		ByteBuffer.wrap(bytes).putInt(6, 40000).putInt(10, 40000);
+		try {
+			fromBytes(bytes);
+			fail();
+		} catch (StreamCorruptedException e) {
+			// the presence bitmap is far shorter than the dimension claims
+		}
+	}
+
+	private static void assertCorruptDimensionFails(int rows, int columns,
+													Class<? extends IOException> expected) throws IOException {
+		Matrix<Integer> matrix = new ArrayMatrix<Integer>(Dimension.withRowsColumns(1, 1));
+		matrix.fill(3);
+		byte[] bytes = toBytes(matrix);
+		// Rows and columns follow the magic, version and kind.
+		ByteBuffer.wrap(bytes).putInt(6, rows).putInt(10, columns);
+		try {
+			fromBytes(bytes);
+			fail();
+		} catch (IOException e) {
+			assertEquals(expected, e.getClass());
+		}
+	}
+
+	private static byte[] toBytes(ReadOnlyMatrix<?> matrix) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		MatrixFormat.write(matrix, out);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static <T> Matrix<T> fromBytes(byte[] bytes) throws IOException {
+		return MatrixFormat.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+}
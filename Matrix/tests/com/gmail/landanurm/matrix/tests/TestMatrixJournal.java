@@ -0,0 +1,264 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.MatrixJournal;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestMatrixJournal {
+	private static final Dimension DIM = Dimension.withRowsColumns(9, 70);
+
+	private File base;
+	private File log;
+	private ArrayMatrix<Integer> initial;
+
+	@Before
+	public void setUp() throws IOException {
+		base = File.createTempFile("TestMatrixJournal", ".base");
+		log = File.createTempFile("TestMatrixJournal", ".log");
+		initial = new ArrayMatrix<Integer>(DIM);
+		initial.fill(0);
+	}
+
+	@After
+	public void tearDown() {
+		base.delete();
+		log.delete();
+	}
+
+	@Test
+	public void testCreatedJournalReplaysInitialContents() throws IOException {
+		initial.set(Position.withRowColumn(3, 4), 7);
+		MatrixJournal.create(base, log, initial).close();
+		assertEquals(initial, MatrixJournal.<Integer>replay(base, log));
+	}
+
+	@Test
+	public void testCheckpointWritesOnlyChangedCells() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		long emptyLogSize = journal.getLogSize();
+		assertEquals(0, journal.checkpoint());
+		assertEquals(emptyLogSize, journal.getLogSize());
+
+		journal.getMatrix().set(Position.withRowColumn(0, 0), 1);
+		journal.getMatrix().set(Position.withRowColumn(8, 69), 2);
+		assertEquals(2, journal.checkpoint());
+		long oneRecordSize = journal.getLogSize() - emptyLogSize;
+		assertTrue(oneRecordSize < 64);
+		assertEquals(0, journal.checkpoint());
+		journal.close();
+	}
+
+	@Test
+	public void testPublishingChangesDoesNotHideThemFromCheckpoint() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(0, 0), 42);
+		assertEquals(1, journal.getMatrix().publishChanges().getNumberOfChanges());
+		journal.getMatrix().set(Position.withRowColumn(0, 1), 43);
+		journal.getMatrix().clearDirty();
+		assertEquals(2, journal.checkpoint());
+		journal.close();
+
+		ArrayMatrix<Integer> replayed = MatrixJournal.replay(base, log);
+		assertEquals(Integer.valueOf(42), replayed.get(Position.withRowColumn(0, 0)));
+		assertEquals(Integer.valueOf(43), replayed.get(Position.withRowColumn(0, 1)));
+	}
+
+	@Test
+	public void testReplayAppliesCheckpointsInOrder() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		Matrix<Integer> matrix = journal.getMatrix();
+		matrix.set(Position.withRowColumn(1, 1), 10);
+		matrix.set(Position.withRowColumn(2, 65), 20);
+		journal.checkpoint();
+		matrix.set(Position.withRowColumn(1, 1), 11);
+		matrix.set(Position.withRowColumn(5, 5), null);
+		journal.checkpoint();
+		journal.close();
+
+		ArrayMatrix<Integer> replayed = MatrixJournal.replay(base, log);
+		assertEquals(matrix, replayed);
+		assertEquals(Integer.valueOf(11), replayed.get(Position.withRowColumn(1, 1)));
+		assertNull(replayed.get(Position.withRowColumn(5, 5)));
+	}
+
+	@Test
+	public void testChangesAfterLastCheckpointAreLost() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 10);
+		journal.checkpoint();
+		journal.getMatrix().set(Position.withRowColumn(1, 2), 20);
+		journal.close();
+
+		ArrayMatrix<Integer> replayed = MatrixJournal.replay(base, log);
+		assertEquals(Integer.valueOf(10), replayed.get(Position.withRowColumn(1, 1)));
+		assertEquals(Integer.valueOf(0), replayed.get(Position.withRowColumn(1, 2)));
+	}
+
+	@Test
+	public void testOpenContinuesLog() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 10);
+		journal.checkpoint();
+		journal.close();
+
+		journal = MatrixJournal.open(base, log);
+		assertEquals(Integer.valueOf(10), journal.getMatrix().get(Position.withRowColumn(1, 1)));
+		assertTrue(!journal.getMatrix().isDirty());
+		journal.getMatrix().set(Position.withRowColumn(2, 2), 20);
+		journal.checkpoint();
+		journal.close();
+
+		ArrayMatrix<Integer> replayed = MatrixJournal.replay(base, log);
+		assertEquals(Integer.valueOf(10), replayed.get(Position.withRowColumn(1, 1)));
+		assertEquals(Integer.valueOf(20), replayed.get(Position.withRowColumn(2, 2)));
+	}
+
+	@Test
+	public void testTornRecordIsDiscarded() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 10);
+		journal.checkpoint();
+		long goodLength = journal.getLogSize();
+		journal.getMatrix().set(Position.withRowColumn(2, 2), 20);
+		journal.checkpoint();
+		journal.close();
+		truncate(log, journal.getLogSize() - 3);
+
+		ArrayMatrix<Integer> replayed = MatrixJournal.replay(base, log);
+		assertEquals(Integer.valueOf(10), replayed.get(Position.withRowColumn(1, 1)));
+		assertEquals(Integer.valueOf(0), replayed.get(Position.withRowColumn(2, 2)));
+
+		journal = MatrixJournal.open(base, log);
+		assertEquals(goodLength, journal.getLogSize());
+		journal.getMatrix().set(Position.withRowColumn(3, 3), 30);
+		journal.checkpoint();
+		journal.close();
+		assertEquals(Integer.valueOf(30), MatrixJournal.<Integer>replay(base, log).get(Position.withRowColumn(3, 3)));
+	}
+
+	@Test
+	public void testCorruptRecordIsDiscarded() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 10);
+		journal.checkpoint();
+		journal.close();
+		try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+			file.seek(file.length() - 1);
+			int last = file.read();
+			file.seek(file.length() - 1);
+			file.write(last ^ 1);
+		}
+		assertEquals(initial, MatrixJournal.<Integer>replay(base, log));
+	}
+
+	@Test
+	public void testCompactFoldsLogIntoBase() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		long emptyLogSize = journal.getLogSize();
+		for (int i = 0; i < 5; ++i) {
+			journal.getMatrix().set(Position.withRowColumn(i, i), i + 1);
+			journal.checkpoint();
+		}
+		journal.getMatrix().set(Position.withRowColumn(8, 8), 9);
+		journal.compact();
+		assertEquals(emptyLogSize, journal.getLogSize());
+		assertEquals(0, journal.checkpoint());
+		journal.close();
+
+		ArrayMatrix<Integer> replayed = MatrixJournal.replay(base, log);
+		assertEquals(journal.getMatrix(), replayed);
+		assertEquals(Integer.valueOf(9), replayed.get(Position.withRowColumn(8, 8)));
+	}
+
+	@Test
+	public void testLogOfEarlierGenerationIsIgnored() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 10);
+		journal.checkpoint();
+		journal.close();
+		File staleLog = File.createTempFile("TestMatrixJournal", ".log");
+		try {
+			Files.copy(log.toPath(), staleLog.toPath(),
+					   StandardCopyOption.REPLACE_EXISTING);
+			journal = MatrixJournal.open(base, log);
+			journal.getMatrix().set(Position.withRowColumn(1, 1), 5);
+			journal.compact();
+			journal.close();
+
+			// As if a crash came between writing the new base and resetting the log.
+			assertEquals(Integer.valueOf(5),
+						 MatrixJournal.<Integer>replay(base, staleLog).get(Position.withRowColumn(1, 1)));
+		} finally {
+			staleLog.delete();
+		}
+	}
+
+	@Test
+	public void testCellsOfSeveralTypes() throws IOException {
+		ArrayMatrix<Number> numbers = new ArrayMatrix<Number>(DIM);
+		numbers.set(Position.withRowColumn(0, 0), 1.5);
+		MatrixJournal<Number> journal = MatrixJournal.create(base, log, numbers);
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 5L);
+		journal.getMatrix().set(Position.withRowColumn(2, 2), 6);
+		assertEquals(2, journal.checkpoint());
+		assertEquals(journal.getMatrix(), MatrixJournal.<Number>replay(base, log));
+		journal.compact();
+		assertEquals(0, journal.checkpoint());
+		journal.close();
+		assertEquals(Long.valueOf(5L), MatrixJournal.<Number>replay(base, log).get(Position.withRowColumn(1, 1)));
+	}
+
+	@Test
+	public void testJournalSurvivesFailedLogReset() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.getMatrix().set(Position.withRowColumn(0, 0), 1);
+		journal.checkpoint();
+		// The open log keeps working, but a new one cannot be created.
+		assertTrue(log.delete());
+		assertTrue(log.mkdir());
+		journal.getMatrix().set(Position.withRowColumn(1, 1), 2);
+		try {
+			journal.compact();
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+		assertEquals(Integer.valueOf(2), MatrixJournal.<Integer>replay(base, log).get(Position.withRowColumn(1, 1)));
+
+		assertTrue(log.delete());
+		journal.getMatrix().set(Position.withRowColumn(2, 2), 3);
+		assertEquals(1, journal.checkpoint());
+		journal.close();
+		assertEquals(journal.getMatrix(), MatrixJournal.<Integer>replay(base, log));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCheckpointAfterCloseFails() throws IOException {
+		MatrixJournal<Integer> journal = MatrixJournal.create(base, log, initial);
+		journal.close();
+		journal.checkpoint();
+	}
+
+	private static void truncate(File file, long length) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(length);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Cell;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.IntMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestMatrixStreams {
+	private static final Dimension DIM = Dimension.withRowsColumns(37, 41);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private Matrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new ArrayMatrix<Integer>(DIM);
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++);
+			}
+		}
+	}
+
+	@Test
+	public void testSpliteratorIsSizedAndOrdered() {
+		Spliterator<Integer> spliterator = matrix.spliterator();
+		assertEquals(NUMBER_OF_ELEMENTS, spliterator.getExactSizeIfKnown());
+		assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+	}
+
+	@Test
+	public void testSpliteratorSplitsByIndexRange() {
+		Spliterator<Integer> second = matrix.spliterator();
+		Spliterator<Integer> first = second.trySplit();
+		assertNotNull(first);
+		assertEquals(NUMBER_OF_ELEMENTS, first.estimateSize() + second.estimateSize());
+		first.tryAdvance(elem -> assertEquals(Integer.valueOf(0), elem));
+		second.tryAdvance(elem -> assertEquals(Integer.valueOf(NUMBER_OF_ELEMENTS / 2), elem));
+	}
+
+	@Test
+	public void testStreamKeepsOrder() {
+		List<Integer> elements = matrix.stream().collect(Collectors.toList());
+		assertEquals(NUMBER_OF_ELEMENTS, elements.size());
+		for (int i = 0; i < NUMBER_OF_ELEMENTS; ++i) {
+			assertEquals(Integer.valueOf(i), elements.get(i));
+		}
+	}
+
+	@Test
+	public void testParallelStreamSum() {
+		long expected = (long) NUMBER_OF_ELEMENTS * (NUMBER_OF_ELEMENTS - 1) / 2;
+		assertEquals(expected, matrix.parallelStream().mapToLong(Integer::longValue).sum());
+	}
+
+	@Test
+	public void testCellStreamCarriesCoordinates() {
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.cellStream().parallel()
+				.filter(cell -> cell.elem == cell.row * DIM.columns + cell.column)
+				.count());
+	}
+
+	@Test
+	public void testCellStreamOfMatrixView() {
+		IntMatrix ints = IntMatrix.copyOf(matrix);
+		List<Cell<Integer>> cells = ints.asMatrix().cellStream().collect(Collectors.toList());
+		assertEquals(Cell.withRowColumnElem(0, 0, 0), cells.get(0));
+		assertEquals(Cell.withRowColumnElem(DIM.rows - 1, DIM.columns - 1, NUMBER_OF_ELEMENTS - 1),
+				cells.get(NUMBER_OF_ELEMENTS - 1));
+		assertEquals(ints.stream().sum(), ints.asMatrix().parallelStream().mapToInt(Integer::intValue).sum());
+	}
+}
@@ -0,0 +1,105 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.MatrixView;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestMatrixView {
+	private static final Dimension DIM = Dimension.withRowsColumns(5, 8);
+
+	private ArrayMatrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new ArrayMatrix<Integer>(DIM);
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), valueAt(row, column));
+			}
+		}
+	}
+
+	private static Integer valueAt(int row, int column) {
+		return row * 100 + column;
+	}
+
+	@Test
+	public void testSubMatrixRemapsPositions() {
+		MatrixView<Integer> sub = matrix.subMatrix(Position.withRowColumn(1, 2), Dimension.withRowsColumns(3, 4));
+		assertEquals(Dimension.withRowsColumns(3, 4), sub.getDimension());
+		assertEquals(valueAt(1, 2), sub.get(Position.withRowColumn(0, 0)));
+		assertEquals(valueAt(3, 5), sub.get(Position.withRowColumn(2, 3)));
+	}
+
+	@Test
+	public void testSubMatrixWritesThrough() {
+		MatrixView<Integer> sub = matrix.subMatrix(Position.withRowColumn(1, 2), Dimension.withRowsColumns(3, 4));
+		sub.fill(-1);
+		assertEquals(12, matrix.count(-1));
+		assertEquals(Integer.valueOf(-1), matrix.get(Position.withRowColumn(3, 5)));
+		assertEquals(valueAt(3, 6), matrix.get(Position.withRowColumn(3, 6)));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testSubMatrixOutsideParent() {
+		matrix.subMatrix(Position.withRowColumn(3, 0), Dimension.withRowsColumns(3, 1));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetOutsideView() {
+		matrix.row(0).get(Position.withRowColumn(1, 0));
+	}
+
+	@Test
+	public void testTransposed() {
+		MatrixView<Integer> transposed = matrix.transposed();
+		assertEquals(Dimension.withRowsColumns(DIM.columns, DIM.rows), transposed.getDimension());
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				assertEquals(valueAt(row, column), transposed.get(Position.withRowColumn(column, row)));
+			}
+		}
+		assertEquals(matrix, transposed.transposed());
+		transposed.set(Position.withRowColumn(7, 4), 0);
+		assertEquals(Integer.valueOf(0), matrix.get(Position.withRowColumn(4, 7)));
+	}
+
+	@Test
+	public void testRowAndColumn() {
+		MatrixView<Integer> row = matrix.row(2);
+		MatrixView<Integer> column = matrix.column(3);
+		assertEquals(Dimension.withRowsColumns(1, DIM.columns), row.getDimension());
+		assertEquals(Dimension.withRowsColumns(DIM.rows, 1), column.getDimension());
+		assertEquals(valueAt(2, 3), row.get(Position.withRowColumn(0, 3)));
+		assertEquals(valueAt(4, 3), column.get(Position.withRowColumn(4, 0)));
+		assertTrue(column.contains(valueAt(0, 3)));
+		assertFalse(column.contains(valueAt(0, 4)));
+	}
+
+	@Test
+	public void testViewOfView() {
+		MatrixView<Integer> corner = matrix.transposed()
+				.subMatrix(Position.withRowColumn(6, 3), Dimension.withRowsColumns(2, 2));
+		assertEquals(valueAt(3, 6), corner.get(Position.withRowColumn(0, 0)));
+		assertEquals(valueAt(4, 7), corner.get(Position.withRowColumn(1, 1)));
+		assertEquals(valueAt(4, 6), corner.column(1).get(Position.withRowColumn(0, 0)));
+	}
+
+	@Test
+	public void testViewEqualsCopy() {
+		MatrixView<Integer> sub = matrix.subMatrix(Position.withRowColumn(2, 1), Dimension.withRowsColumns(2, 5));
+		Matrix<Integer> copy = ArrayMatrix.copyOf(sub);
+		assertEquals(copy, sub);
+		assertEquals(sub, copy);
+		assertEquals(copy.hashCode(), sub.hashCode());
+	}
+}
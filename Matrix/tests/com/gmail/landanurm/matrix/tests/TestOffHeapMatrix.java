@@ -0,0 +1,109 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.CellType;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OffHeapMatrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestOffHeapMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(13, 17);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private OffHeapMatrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = OffHeapMatrix.ofInts(DIM);
+	}
+
+	@After
+	public void tearDown() {
+		matrix.close();
+	}
+
+	@Test
+	public void testInitValueIsZero() {
+		assertEquals(Integer.valueOf(0), matrix.get(Position.withRowColumn(0, 0)));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(0));
+	}
+
+	@Test
+	public void testGetSet() {
+		Position pos = Position.withRowColumn(DIM.rows - 1, DIM.columns - 1);
+		matrix.set(pos, -42);
+		assertEquals(Integer.valueOf(-42), matrix.get(pos));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetByOutOfBoundsPosition() {
+		matrix.get(Position.withRowColumn(0, DIM.columns));
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testSetNull() {
+		matrix.set(Position.withRowColumn(0, 0), null);
+	}
+
+	@Test
+	public void testFillCountContains() {
+		matrix.fill(9);
+		matrix.set(Position.withRowColumn(5, 5), 1);
+		assertEquals(NUMBER_OF_ELEMENTS - 1, matrix.count(9));
+		assertTrue(matrix.contains(1));
+		assertFalse(matrix.contains(0));
+		assertFalse(matrix.contains(null));
+	}
+
+	@Test
+	public void testEqualsArrayMatrixWithSameContents() {
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++);
+			}
+		}
+		Matrix<Integer> dense = ArrayMatrix.copyOf(matrix);
+		assertEquals(dense, matrix);
+		assertEquals(matrix, dense);
+		assertEquals(dense.hashCode(), matrix.hashCode());
+		OffHeapMatrix<Integer> copy = OffHeapMatrix.copyOf(dense, CellType.INT);
+		assertEquals(matrix, copy);
+		copy.close();
+	}
+
+	@Test
+	public void testDoubleCells() {
+		OffHeapMatrix<Double> doubles = OffHeapMatrix.ofDoubles(DIM);
+		doubles.fill(Double.NaN);
+		assertEquals(NUMBER_OF_ELEMENTS, doubles.count(Double.NaN));
+		doubles.set(Position.withRowColumn(1, 2), 0.25);
+		assertEquals(Double.valueOf(0.25), doubles.get(Position.withRowColumn(1, 2)));
+		doubles.close();
+	}
+
+	@Test
+	public void testLongCells() {
+		OffHeapMatrix<Long> longs = OffHeapMatrix.ofLongs(DIM);
+		longs.set(Position.withRowColumn(3, 4), Long.MIN_VALUE);
+		assertEquals(Long.valueOf(Long.MIN_VALUE), longs.get(Position.withRowColumn(3, 4)));
+		assertEquals(1, longs.count(Long.MIN_VALUE));
+		longs.close();
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAccessAfterClose() {
+		matrix.close();
+		assertTrue(matrix.isClosed());
+		matrix.get(Position.withRowColumn(0, 0));
+	}
+}
@@ -0,0 +1,144 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.PersistentMatrix;
+import com.gmail.landanurm.matrix.Position;
+
+public class TestPersistentMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(67, 71);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+
+	private PersistentMatrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new PersistentMatrix<Integer>(DIM);
+	}
+
+	private void fillByIndexes() {
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++);
+			}
+		}
+	}
+
+	@Test
+	public void testInitValueIsNull() {
+		assertNull(matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(null));
+		assertFalse(matrix.contains(0));
+	}
+
+	@Test
+	public void testGetSet() {
+		fillByIndexes();
+		assertEquals(ArrayMatrix.copyOf(matrix), matrix);
+		assertEquals(Integer.valueOf(NUMBER_OF_ELEMENTS - 1),
+					 matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+		assertEquals(1, matrix.count(100));
+		assertEquals(0, matrix.count(null));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetByOutOfBoundsPosition() {
+		matrix.get(Position.withRowColumn(DIM.rows, 0));
+	}
+
+	@Test
+	public void testSnapshotIsIsolatedFromLaterWrites() {
+		fillByIndexes();
+		Matrix<Integer> expected = ArrayMatrix.copyOf(matrix);
+		PersistentMatrix<Integer> snapshot = matrix.snapshot();
+		Position pos = Position.withRowColumn(10, 10);
+		matrix.set(pos, -1);
+		assertEquals(expected, snapshot);
+		assertEquals(Integer.valueOf(-1), matrix.get(pos));
+		snapshot.set(Position.withRowColumn(0, 0), -2);
+		assertEquals(Integer.valueOf(0), matrix.get(Position.withRowColumn(0, 0)));
+		assertEquals(1, snapshot.count(-2));
+	}
+
+	@Test
+	public void testSnapshotsOfSnapshots() {
+		Position pos = Position.withRowColumn(5, 6);
+		matrix.set(pos, 1);
+		PersistentMatrix<Integer> first = matrix.snapshot();
+		matrix.set(pos, 2);
+		PersistentMatrix<Integer> second = matrix.snapshot();
+		matrix.set(pos, 3);
+		PersistentMatrix<Integer> third = second.snapshot();
+		second.set(pos, 4);
+		assertEquals(Integer.valueOf(1), first.get(pos));
+		assertEquals(Integer.valueOf(4), second.get(pos));
+		assertEquals(Integer.valueOf(2), third.get(pos));
+		assertEquals(Integer.valueOf(3), matrix.get(pos));
+	}
+
+	@Test
+	public void testFillSharesNodesUntilWritten() {
+		matrix.fill(7);
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(7));
+		assertTrue(matrix.contains(7));
+		assertFalse(matrix.contains(null));
+		matrix.set(Position.withRowColumn(0, 0), 8);
+		assertEquals(NUMBER_OF_ELEMENTS - 1, matrix.count(7));
+		assertEquals(Integer.valueOf(7), matrix.get(Position.withRowColumn(0, 1)));
+		assertEquals(Integer.valueOf(7), matrix.get(Position.withRowColumn(DIM.rows - 1, 0)));
+		matrix.fill(null);
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(null));
+	}
+
+	@Test
+	public void testWritesIntoFilledSubtreesAreCounted() {
+		matrix.fill(7);
+		PersistentMatrix<Integer> snapshot = matrix.snapshot();
+		matrix.set(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1), 8);
+		matrix.set(Position.withRowColumn(DIM.rows / 2, 0), null);
+		assertEquals(1, matrix.count(8));
+		assertEquals(1, matrix.count(null));
+		assertEquals(NUMBER_OF_ELEMENTS - 2, matrix.count(7));
+		assertTrue(matrix.contains(8));
+		assertEquals(NUMBER_OF_ELEMENTS, snapshot.count(7));
+		assertFalse(snapshot.contains(8));
+		assertEquals(ArrayMatrix.copyOf(matrix), matrix);
+	}
+
+	@Test
+	public void testForEachAndCopyOf() {
+		fillByIndexes();
+		matrix.set(Position.withRowColumn(30, 30), null);
+		final Counter counter = new Counter(0);
+		matrix.forEach((row, column, elem) -> {
+			int index = row * DIM.columns + column;
+			assertEquals(counter.getCount(), index);
+			assertTrue(elem == null ? index == 30 * DIM.columns + 30 : elem == index);
+			counter.increaseByOne();
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, counter.getCount());
+		Matrix<Integer> dense = ArrayMatrix.copyOf(matrix);
+		assertEquals(dense.hashCode(), matrix.hashCode());
+		assertEquals(matrix, PersistentMatrix.copyOf(dense));
+	}
+
+	@Test
+	public void testSmallMatrixHasSingleLevel() {
+		PersistentMatrix<String> small = new PersistentMatrix<String>(Dimension.withRowsColumns(1, 1));
+		small.set(Position.withRowColumn(0, 0), "a");
+		PersistentMatrix<String> snapshot = small.snapshot();
+		small.set(Position.withRowColumn(0, 0), "b");
+		assertEquals("a", snapshot.get(Position.withRowColumn(0, 0)));
+		assertEquals(1, small.count("b"));
+	}
+}
@@ -0,0 +1,119 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.SparseMatrix;
+
+public class TestSparseMatrix {
+	private static final Dimension DIM = Dimension.withRowsColumns(100, 200);
+	private static final int NUMBER_OF_ELEMENTS = DIM.rows * DIM.columns;
+	private static final Integer ZERO = Integer.valueOf(0);
+
+	private SparseMatrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new SparseMatrix<Integer>(DIM, ZERO);
+	}
+
+	@Test
+	public void testInitValueIsDefaultValue() {
+		assertEquals(ZERO, matrix.get(Position.withRowColumn(99, 199)));
+		assertNull(new SparseMatrix<Integer>(DIM).get(Position.withRowColumn(0, 0)));
+		assertEquals(0, matrix.getNumberOfNonDefaultElements());
+	}
+
+	@Test
+	public void testSettingDefaultValueRemovesCell() {
+		Position pos = Position.withRowColumn(3, 4);
+		matrix.set(pos, 5);
+		assertEquals(1, matrix.getNumberOfNonDefaultElements());
+		matrix.set(pos, ZERO);
+		assertEquals(0, matrix.getNumberOfNonDefaultElements());
+	}
+
+	@Test
+	public void testNullIsStoredWhenDefaultIsNotNull() {
+		Position pos = Position.withRowColumn(1, 1);
+		matrix.set(pos, null);
+		assertNull(matrix.get(pos));
+		assertEquals(1, matrix.count(null));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetByOutOfBoundsPosition() {
+		matrix.get(Position.withRowColumn(DIM.rows, 0));
+	}
+
+	@Test
+	public void testCountAndContains() {
+		matrix.set(Position.withRowColumn(0, 0), 7);
+		matrix.set(Position.withRowColumn(50, 50), 7);
+		assertEquals(2, matrix.count(7));
+		assertEquals(NUMBER_OF_ELEMENTS - 2, matrix.count(ZERO));
+		assertTrue(matrix.contains(7));
+		assertTrue(matrix.contains(ZERO));
+		assertFalse(matrix.contains(8));
+	}
+
+	@Test
+	public void testFillChangesDefaultValue() {
+		matrix.set(Position.withRowColumn(0, 0), 7);
+		matrix.fill(3);
+		assertEquals(Integer.valueOf(3), matrix.getDefaultValue());
+		assertEquals(0, matrix.getNumberOfNonDefaultElements());
+		assertEquals(NUMBER_OF_ELEMENTS, matrix.count(3));
+		assertFalse(matrix.contains(ZERO));
+	}
+
+	@Test
+	public void testForEachNonDefaultVisitsOnlyStoredCells() {
+		matrix.set(Position.withRowColumn(2, 3), 1);
+		matrix.set(Position.withRowColumn(4, 5), 2);
+		final Counter counter = new Counter(0);
+		matrix.forEachNonDefault(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertEquals(matrix.get(Position.withRowColumn(row, column)), elem);
+				counter.increaseByOne();
+			}
+		});
+		assertEquals(2, counter.getCount());
+	}
+
+	@Test
+	public void testForEachVisitsAllCells() {
+		final Counter counter = new Counter(0);
+		matrix.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				counter.increaseByOne();
+			}
+		});
+		assertEquals(NUMBER_OF_ELEMENTS, counter.getCount());
+	}
+
+	@Test
+	public void testEqualsAndHashCodeCompatibleWithArrayMatrix() {
+		matrix.set(Position.withRowColumn(10, 20), 4);
+		matrix.set(Position.withRowColumn(30, 40), null);
+		Matrix<Integer> dense = ArrayMatrix.copyOf(matrix);
+		assertEquals(dense, matrix);
+		assertEquals(matrix, dense);
+		assertEquals(dense.hashCode(), matrix.hashCode());
+		dense.set(Position.withRowColumn(0, 0), 1);
+		assertFalse(matrix.equals(dense));
+		assertEquals(matrix, SparseMatrix.copyOf(matrix, null));
+	}
+}
@@ -0,0 +1,144 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.TiledMatrix;
+
+public class TestTiledMatrix {
+	// Neither side is a multiple of the tile edge, so border tiles are padded.
+	private static final Dimension DIM = Dimension.withRowsColumns(37, 21);
+	private static final int TILE_EDGE = 8;
+
+	private TiledMatrix<Integer> matrix;
+
+	@Before
+	public void setUp() {
+		matrix = new TiledMatrix<Integer>(DIM, TILE_EDGE);
+	}
+
+	private void fillByIndexes() {
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				matrix.set(Position.withRowColumn(row, column), index++);
+			}
+		}
+	}
+
+	@Test
+	public void testInitValueIsNull() {
+		assertNull(matrix.get(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1)));
+		assertEquals(DIM.rows * DIM.columns, matrix.count(null));
+	}
+
+	@Test
+	public void testGetSet() {
+		fillByIndexes();
+		int index = 0;
+		for (int row = 0; row < DIM.rows; ++row) {
+			for (int column = 0; column < DIM.columns; ++column) {
+				assertEquals(Integer.valueOf(index++), matrix.get(Position.withRowColumn(row, column)));
+			}
+		}
+	}
+
+	@Test
+	public void testPaddingIsInvisible() {
+		matrix.fill(1);
+		assertEquals(DIM.rows * DIM.columns, matrix.count(1));
+		assertFalse(matrix.contains(null));
+		matrix.set(Position.withRowColumn(DIM.rows - 1, DIM.columns - 1), null);
+		assertEquals(1, matrix.count(null));
+		assertTrue(matrix.contains(null));
+	}
+
+	@Test
+	public void testEqualsArrayMatrix() {
+		fillByIndexes();
+		ArrayMatrix<Integer> copy = ArrayMatrix.copyOf(matrix);
+		assertEquals(copy, matrix);
+		assertEquals(matrix, copy);
+		assertEquals(copy.hashCode(), matrix.hashCode());
+		assertEquals(matrix, TiledMatrix.copyOf(copy, 4));
+	}
+
+	@Test
+	public void testForEachIsRowMajor() {
+		fillByIndexes();
+		final List<Integer> visited = new ArrayList<Integer>();
+		matrix.forEach(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertEquals(Integer.valueOf(row * DIM.columns + column), elem);
+				visited.add(elem);
+			}
+		});
+		for (int i = 0; i < visited.size(); ++i) {
+			assertEquals(Integer.valueOf(i), visited.get(i));
+		}
+		assertEquals(DIM.rows * DIM.columns, visited.size());
+	}
+
+	@Test
+	public void testForEachInTileOrder() {
+		fillByIndexes();
+		final List<Position> visited = new ArrayList<Position>();
+		matrix.forEachInTileOrder(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertEquals(Integer.valueOf(row * DIM.columns + column), elem);
+				visited.add(Position.withRowColumn(row, column));
+			}
+		});
+		assertEquals(DIM.rows * DIM.columns, visited.size());
+		assertEquals(Position.withRowColumn(0, TILE_EDGE - 1), visited.get(TILE_EDGE - 1));
+		assertEquals(Position.withRowColumn(1, 0), visited.get(TILE_EDGE));
+		assertEquals(Position.withRowColumn(0, TILE_EDGE), visited.get(TILE_EDGE * TILE_EDGE));
+	}
+
+	@Test
+	public void testSwap() {
+		fillByIndexes();
+		Position first = Position.withRowColumn(0, 0);
+		Position last = Position.withRowColumn(DIM.rows - 1, DIM.columns - 1);
+		matrix.swap(first, last);
+		assertEquals(Integer.valueOf(0), matrix.get(last));
+		assertEquals(Integer.valueOf(DIM.rows * DIM.columns - 1), matrix.get(first));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetInPadding() {
+		matrix.get(Position.withRowColumn(0, DIM.columns));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTileEdgeMustBePowerOfTwo() {
+		new TiledMatrix<Integer>(DIM, 12);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTileEdgeAboveMaximum() {
+		new TiledMatrix<Integer>(DIM, TiledMatrix.MAX_TILE_EDGE << 1);
+	}
+
+	@Test
+	public void testTileEdgeIsClampedToDimension() {
+		assertEquals(1, new TiledMatrix<Integer>(Dimension.withRowsColumns(1, 1), TiledMatrix.MAX_TILE_EDGE).getTileEdge());
+		assertEquals(8, new TiledMatrix<Integer>(Dimension.withRowsColumns(5, 3), 32).getTileEdge());
+		assertEquals(64, new TiledMatrix<Integer>(DIM, 64).getTileEdge());
+		assertEquals(TILE_EDGE, matrix.getTileEdge());
+	}
+}
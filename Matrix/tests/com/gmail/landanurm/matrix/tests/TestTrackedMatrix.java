@@ -0,0 +1,190 @@
+package com.gmail.landanurm.matrix.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.MatrixChangeEvent;
+import com.gmail.landanurm.matrix.MatrixChangeListener;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.TrackedMatrix;
+
+public class TestTrackedMatrix {
+	// 70 columns, so rows straddle the 64-bit words of the bitmap.
+	private static final Dimension DIM = Dimension.withRowsColumns(9, 70);
+
+	private TrackedMatrix<Integer> matrix;
+	private List<MatrixChangeEvent<Integer>> events;
+
+	@Before
+	public void setUp() {
+		ArrayMatrix<Integer> backing = new ArrayMatrix<Integer>(DIM);
+		backing.fill(0);
+		matrix = new TrackedMatrix<Integer>(backing);
+		events = new ArrayList<MatrixChangeEvent<Integer>>();
+		matrix.addChangeListener(new MatrixChangeListener<Integer>() {
+			@Override
+			public void matrixChanged(MatrixChangeEvent<Integer> event) {
+				events.add(event);
+			}
+		});
+	}
+
+	@Test
+	public void testInitiallyClean() {
+		assertFalse(matrix.isDirty());
+		assertTrue(matrix.dirtyPositions().isEmpty());
+		assertNull(matrix.publishChanges());
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	public void testSetMarksOnlyChangedCells() {
+		matrix.set(Position.withRowColumn(1, 69), 5);
+		matrix.set(Position.withRowColumn(0, 3), 0);
+		matrix.set(Position.withRowColumn(2, 0), 7);
+		assertEquals(Arrays.asList(Position.withRowColumn(1, 69), Position.withRowColumn(2, 0)),
+					 matrix.dirtyPositions());
+		assertTrue(matrix.isDirty(Position.withRowColumn(1, 69)));
+		assertFalse(matrix.isDirty(Position.withRowColumn(0, 3)));
+		assertEquals(2, matrix.getNumberOfDirtyCells());
+		matrix.clearDirty();
+		assertFalse(matrix.isDirty());
+		assertEquals(Integer.valueOf(5), matrix.get(Position.withRowColumn(1, 69)));
+	}
+
+	@Test
+	public void testSwap() {
+		matrix.swap(Position.withRowColumn(0, 0), Position.withRowColumn(8, 69));
+		assertFalse(matrix.isDirty());
+		matrix.set(Position.withRowColumn(0, 0), 1);
+		matrix.clearDirty();
+		matrix.swap(Position.withRowColumn(0, 0), Position.withRowColumn(8, 69));
+		assertEquals(Arrays.asList(Position.withRowColumn(0, 0), Position.withRowColumn(8, 69)),
+					 matrix.dirtyPositions());
+	}
+
+	@Test
+	public void testFillMarksEveryCell() {
+		matrix.fill(3);
+		assertEquals(DIM.rows * DIM.columns, matrix.getNumberOfDirtyCells());
+		assertEquals(DIM.rows * DIM.columns, matrix.dirtyPositions().size());
+		MatrixChangeEvent<Integer> event = matrix.publishChanges();
+		assertTrue(event.isFilled());
+		assertEquals(DIM.rows * DIM.columns, event.getNumberOfChanges());
+		matrix.set(Position.withRowColumn(0, 0), 4);
+		assertFalse(matrix.publishChanges().isFilled());
+	}
+
+	@Test
+	public void testListenersReceiveOneEventPerBatch() {
+		for (int column = 0; column < DIM.columns; ++column) {
+			matrix.set(Position.withRowColumn(4, column), column + 1);
+		}
+		assertTrue(events.isEmpty());
+		MatrixChangeEvent<Integer> event = matrix.publishChanges();
+		assertEquals(1, events.size());
+		assertSame(event, events.get(0));
+		assertSame(matrix, event.getSource());
+		assertEquals(DIM.columns, event.getNumberOfChanges());
+		assertTrue(event.isRowChanged(4));
+		assertFalse(event.isRowChanged(3));
+		assertFalse(matrix.isDirty());
+
+		matrix.set(Position.withRowColumn(0, 0), 9);
+		assertFalse(event.isChanged(Position.withRowColumn(0, 0)));
+		matrix.publishChanges();
+		assertEquals(2, events.size());
+		assertEquals(Arrays.asList(Position.withRowColumn(0, 0)), events.get(1).getPositions());
+	}
+
+	@Test
+	public void testRecycledBitmapStartsClean() {
+		matrix.fill(1);
+		matrix.publishChanges();
+		matrix.set(Position.withRowColumn(2, 2), 2);
+		matrix.publishChanges();
+		matrix.set(Position.withRowColumn(5, 68), 3);
+		MatrixChangeEvent<Integer> event = matrix.publishChanges();
+		assertEquals(Arrays.asList(Position.withRowColumn(5, 68)), event.getPositions());
+		assertFalse(event.isFilled());
+		assertFalse(matrix.isDirty());
+	}
+
+	@Test
+	public void testEventIsInvalidAfterNextPublish() {
+		matrix.set(Position.withRowColumn(1, 1), 1);
+		MatrixChangeEvent<Integer> event = matrix.publishChanges();
+		assertTrue(event.isCurrent());
+		matrix.set(Position.withRowColumn(2, 2), 2);
+		assertTrue(event.isCurrent());
+		matrix.publishChanges();
+		assertFalse(event.isCurrent());
+		try {
+			event.getPositions();
+			fail();
+		} catch (IllegalStateException e) {
+			// the bitmap now holds the batch of the second event
+		}
+		try {
+			event.isChanged(Position.withRowColumn(2, 2));
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testForEachChangeReadsCurrentValues() {
+		matrix.set(Position.withRowColumn(3, 65), 1);
+		matrix.set(Position.withRowColumn(3, 66), 2);
+		MatrixChangeEvent<Integer> event = matrix.publishChanges();
+		final List<Integer> values = new ArrayList<Integer>();
+		event.forEachChange(new OnEachCellHandler<Integer>() {
+			@Override
+			public void handle(int row, int column, Integer elem) {
+				assertEquals(3, row);
+				values.add(elem);
+			}
+		});
+		assertEquals(Arrays.asList(1, 2), values);
+	}
+
+	@Test
+	public void testRemovedListenerIsNotCalled() {
+		MatrixChangeListener<Integer> listener = new MatrixChangeListener<Integer>() {
+			@Override
+			public void matrixChanged(MatrixChangeEvent<Integer> event) {
+				throw new AssertionError();
+			}
+		};
+		matrix.addChangeListener(listener);
+		matrix.removeChangeListener(listener);
+		matrix.set(Position.withRowColumn(0, 0), 1);
+		matrix.publishChanges();
+		assertEquals(1, events.size());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testIteratorIsReadOnly() {
+		matrix.iterator().remove();
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testIsDirtyOutOfBounds() {
+		matrix.isDirty(Position.withRowColumn(DIM.rows, 0));
+	}
+}
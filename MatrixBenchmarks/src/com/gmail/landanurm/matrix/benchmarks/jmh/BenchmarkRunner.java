@@ -0,0 +1,32 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package with the GC profiler attached, so
+ * every result comes with its allocation rate ({@code gc.alloc.rate.norm}
+ * is bytes allocated per operation). Arguments are regular JMH command line
+ * options, for example {@code MatrixOperationsBenchmark.get -p dimension=256x256}
+ * to run one benchmark for one dimension.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		if (commandLine.getIncludes().isEmpty()) {
+			builder.include(BenchmarkRunner.class.getPackage().getName() + ".");
+		}
+		Options options = builder
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,106 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.ConcurrentMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Writer throughput of {@link ConcurrentMatrix} and of an
+ * {@link ArrayMatrix} guarded by one global monitor, with every thread
+ * writing its own rows. Thread {@code t} of {@code n} writes rows {@code t},
+ * {@code t + n}, {@code t + 2n}, ..., so with the row-modulo striping of
+ * {@link ConcurrentMatrix} no two threads share a stripe. Pass {@code -t 1},
+ * {@code -t 2}, ... to compare thread counts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentMatrixBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class SharedMatrix {
+		@Param({ "ConcurrentMatrix", "SynchronizedArrayMatrix" })
+		public String implementation;
+
+		@Param({ "256" })
+		public int size;
+
+		Matrix<Integer> matrix;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			Dimension dim = Dimension.withRowsColumns(size, size);
+			if (implementation.equals("SynchronizedArrayMatrix")) {
+				matrix = new GloballySynchronizedMatrix(new ArrayMatrix<Integer>(dim));
+			} else {
+				matrix = Implementation.valueOf(implementation).create(dim);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Writer {
+		Position[] positions;
+		Integer value;
+		int next;
+
+		@Setup(Level.Trial)
+		public void setUp(SharedMatrix shared, ThreadParams threads) {
+			int firstRow = threads.getThreadIndex();
+			int threadCount = threads.getThreadCount();
+			int size = shared.size;
+			int rows = (size - firstRow + threadCount - 1) / threadCount;
+			positions = new Position[rows * size];
+			for (int i = 0; i < positions.length; ++i) {
+				int row = firstRow + (i / size) * threadCount;
+				positions[i] = Position.withRowColumn(row, i % size);
+			}
+			value = Integer.valueOf(firstRow);
+		}
+	}
+
+	@Benchmark
+	public void set(SharedMatrix shared, Writer writer) {
+		int i = writer.next;
+		writer.next = (i + 1 == writer.positions.length) ? 0 : i + 1;
+		shared.matrix.set(writer.positions[i], writer.value);
+	}
+
+	private static class GloballySynchronizedMatrix extends ForwardingMatrix<Integer> {
+		GloballySynchronizedMatrix(Matrix<Integer> matrix) {
+			super(matrix);
+		}
+
+		@Override
+		public synchronized void set(Position pos, Integer value) {
+			super.set(pos, value);
+		}
+
+		@Override
+		public synchronized Integer get(Position pos) {
+			return super.get(pos);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+/**
+ * Element types the benchmarks are run with. The constant names are the
+ * values of the {@code elementType} parameter.
+ */
+enum ElementType {
+	Integer {
+		@Override
+		Object element(int i) {
+			return java.lang.Integer.valueOf(i);
+		}
+	},
+	Double {
+		@Override
+		Object element(int i) {
+			return java.lang.Double.valueOf(i * 0.5);
+		}
+	},
+	String {
+		@Override
+		Object element(int i) {
+			return "cell-" + i;
+		}
+	};
+
+	abstract Object element(int i);
+
+	/**
+	 * Returns {@code count} distinct values, created up front so that
+	 * benchmarks measure the matrix and not the boxing of their input.
+	 */
+	Object[] values(int count) {
+		Object[] values = new Object[count];
+		for (int i = 0; i < count; ++i) {
+			values[i] = element(i);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,76 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.Iterator;
+
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.OnEachHandler;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Matrix that forwards every call to another one; benchmarks override the
+ * calls they want to wrap.
+ */
+class ForwardingMatrix<T> implements Matrix<T> {
+	private final Matrix<T> matrix;
+
+	ForwardingMatrix(Matrix<T> matrix) {
+		this.matrix = matrix;
+	}
+
+	@Override
+	public Dimension getDimension() {
+		return matrix.getDimension();
+	}
+
+	@Override
+	public boolean contains(T elem) {
+		return matrix.contains(elem);
+	}
+
+	@Override
+	public boolean containsAll(Iterable<T> elements) {
+		return matrix.containsAll(elements);
+	}
+
+	@Override
+	public int count(T elem) {
+		return matrix.count(elem);
+	}
+
+	@Override
+	public void forEach(OnEachHandler<T> onEachHandler) {
+		matrix.forEach(onEachHandler);
+	}
+
+	@Override
+	public void forEach(OnEachCellHandler<T> onEachCellHandler) {
+		matrix.forEach(onEachCellHandler);
+	}
+
+	@Override
+	public T get(Position pos) {
+		return matrix.get(pos);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return matrix.iterator();
+	}
+
+	@Override
+	public void fill(T value) {
+		matrix.fill(value);
+	}
+
+	@Override
+	public void set(Position pos, T value) {
+		matrix.set(pos, value);
+	}
+
+	@Override
+	public void swap(Position pos1, Position pos2) {
+		matrix.swap(pos1, pos2);
+	}
+}
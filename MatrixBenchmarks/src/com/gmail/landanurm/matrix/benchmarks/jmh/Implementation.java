@@ -0,0 +1,71 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.AtomicMatrix;
+import com.gmail.landanurm.matrix.ConcurrentMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.IndexedMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Order;
+import com.gmail.landanurm.matrix.PersistentMatrix;
+import com.gmail.landanurm.matrix.SparseMatrix;
+import com.gmail.landanurm.matrix.TiledMatrix;
+
+/**
+ * The {@link Matrix} implementations every benchmark runs against. The
+ * constant names are the values of the {@code implementation} parameter.
+ * Only matrices that hold any element type belong here; the read-only and
+ * the {@code double}-only matrices are run by {@link ReadOnlyMatrixBenchmark}.
+ */
+enum Implementation {
+	ArrayMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new ArrayMatrix<T>(dim);
+		}
+	},
+	ColumnMajorArrayMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new ArrayMatrix<T>(dim, Order.COLUMN_MAJOR);
+		}
+	},
+	TiledMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new TiledMatrix<T>(dim);
+		}
+	},
+	SparseMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new SparseMatrix<T>(dim);
+		}
+	},
+	IndexedMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new IndexedMatrix<T>(dim);
+		}
+	},
+	ConcurrentMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new ConcurrentMatrix<T>(dim);
+		}
+	},
+	AtomicMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new AtomicMatrix<T>(dim);
+		}
+	},
+	PersistentMatrix {
+		@Override
+		<T> Matrix<T> create(Dimension dim) {
+			return new PersistentMatrix<T>(dim);
+		}
+	};
+
+	abstract <T> Matrix<T> create(Dimension dim);
+}
@@ -0,0 +1,92 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.IndexedMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Measures what the value index of {@link IndexedMatrix} costs on writes and
+ * what it saves on {@code contains} and {@code count}, against
+ * {@link ArrayMatrix}, for a board whose cells come from a few values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexedMatrixBenchmark {
+
+	private static final int POSITIONS = 1 << 16;
+	private static final Integer[] CELL_STATES = { 0, 1, 2, 3, 4 };
+
+	@Param({ "ArrayMatrix", "IndexedMatrix" })
+	public String implementation;
+
+	@Param({ "512" })
+	public int size;
+
+	private Matrix<Integer> matrix;
+	private Position[] positions;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Dimension dim = Dimension.withRowsColumns(size, size);
+		matrix = Implementation.valueOf(implementation).create(dim);
+		matrix.fill(CELL_STATES[0]);
+		Random random = new Random(42);
+		positions = new Position[POSITIONS];
+		for (int i = 0; i < POSITIONS; ++i) {
+			positions[i] = Position.withRowColumn(random.nextInt(size), random.nextInt(size));
+		}
+		for (int i = 0; i < POSITIONS; ++i) {
+			matrix.set(positions[i], CELL_STATES[i % CELL_STATES.length]);
+		}
+	}
+
+	/**
+	 * One write of a random cell. The values cycle through the states, so
+	 * most writes move a cell from one index entry to another.
+	 */
+	@Benchmark
+	public void set() {
+		int i = next;
+		next = (i + 1) & (POSITIONS - 1);
+		matrix.set(positions[i], CELL_STATES[(i + next) % CELL_STATES.length]);
+	}
+
+	@Benchmark
+	public int count() {
+		int i = next;
+		next = (i + 1) & (POSITIONS - 1);
+		return matrix.count(CELL_STATES[i % CELL_STATES.length]);
+	}
+
+	/**
+	 * Looks for a value no cell holds, which costs a full scan without an
+	 * index.
+	 */
+	@Benchmark
+	public boolean containsMissing() {
+		return matrix.contains(-1);
+	}
+}
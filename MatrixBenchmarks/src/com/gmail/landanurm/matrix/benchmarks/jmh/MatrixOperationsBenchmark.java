@@ -0,0 +1,111 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.OnEachHandler;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Every operation of {@link Matrix} on every implementation listed in
+ * {@link Implementation}. Single-cell operations go through a fixed
+ * sequence of random positions; bulk operations cover the whole matrix.
+ * Operations that cannot find what they look for ({@code contains} of an
+ * absent value) always scan every cell. The matrices that cannot be written
+ * or hold only {@code double} values are run by {@link ReadOnlyMatrixBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixOperationsBenchmark {
+
+	@Benchmark
+	public Object get(MatrixState state) {
+		return state.matrix.get(state.nextPosition());
+	}
+
+	@Benchmark
+	public void set(MatrixState state) {
+		state.matrix.set(state.nextPosition(), state.nextValue());
+	}
+
+	@Benchmark
+	public void swap(MatrixState state) {
+		state.matrix.swap(state.nextPosition(), state.nextPosition());
+	}
+
+	@Benchmark
+	public void forEachPosition(MatrixState state, final Blackhole blackhole) {
+		state.matrix.forEach(new OnEachHandler<Object>() {
+			@Override
+			public void handle(Position pos, Object elem) {
+				blackhole.consume(elem);
+			}
+		});
+	}
+
+	@Benchmark
+	public void forEachCell(MatrixState state, final Blackhole blackhole) {
+		state.matrix.forEach(new OnEachCellHandler<Object>() {
+			@Override
+			public void handle(int row, int column, Object elem) {
+				blackhole.consume(elem);
+			}
+		});
+	}
+
+	@Benchmark
+	public void iterate(MatrixState state, Blackhole blackhole) {
+		for (Object each : state.matrix) {
+			blackhole.consume(each);
+		}
+	}
+
+	@Benchmark
+	public boolean containsPresent(MatrixState state) {
+		return state.matrix.contains(state.nextValue());
+	}
+
+	@Benchmark
+	public boolean containsAbsent(MatrixState state) {
+		return state.matrix.contains(state.absent);
+	}
+
+	@Benchmark
+	public int count(MatrixState state) {
+		return state.matrix.count(state.nextValue());
+	}
+
+	@Benchmark
+	public void fill(MatrixState state) {
+		state.matrix.fill(state.nextValue());
+	}
+
+	@Benchmark
+	public Matrix<Object> copyOf(MatrixState state) {
+		return ArrayMatrix.copyOf(state.matrix);
+	}
+
+	@Benchmark
+	public boolean equalsEqualCopy(MatrixState state) {
+		return state.matrix.equals(state.equalCopy);
+	}
+
+	@Benchmark
+	public int hashCode(MatrixState state) {
+		return state.matrix.hashCode();
+	}
+}
@@ -0,0 +1,81 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * One matrix per benchmark thread, filled with a small set of distinct
+ * values, together with an equal copy and a sequence of random positions.
+ * Every combination of implementation, dimension and element type gets the
+ * same contents, so the implementations are compared on the same footing.
+ */
+@State(Scope.Thread)
+public class MatrixState {
+	static final int DISTINCT_VALUES = 251;
+	static final int POSITIONS = 1 << 10;
+
+	@Param({ "ArrayMatrix", "ColumnMajorArrayMatrix", "TiledMatrix", "SparseMatrix",
+			 "IndexedMatrix", "ConcurrentMatrix", "AtomicMatrix", "PersistentMatrix" })
+	public String implementation;
+
+	@Param({ "16x16", "256x256", "1024x1024" })
+	public String dimension;
+
+	@Param({ "Integer", "Double", "String" })
+	public String elementType;
+
+	Dimension dim;
+	Object[] values;
+	Object absent;
+	Matrix<Object> matrix;
+	Matrix<Object> equalCopy;
+	Position[] positions;
+	int nextPosition;
+	int nextValue;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String[] rowsColumns = dimension.split("x");
+		dim = Dimension.withRowsColumns(Integer.parseInt(rowsColumns[0]), Integer.parseInt(rowsColumns[1]));
+		ElementType type = ElementType.valueOf(elementType);
+		values = type.values(DISTINCT_VALUES);
+		absent = type.element(DISTINCT_VALUES);
+		matrix = newFilledMatrix();
+		equalCopy = newFilledMatrix();
+		Random random = new Random(42);
+		positions = new Position[POSITIONS];
+		for (int i = 0; i < POSITIONS; ++i) {
+			positions[i] = Position.withRowColumn(random.nextInt(dim.rows), random.nextInt(dim.columns));
+		}
+	}
+
+	Matrix<Object> newFilledMatrix() {
+		Matrix<Object> filled = Implementation.valueOf(implementation).create(dim);
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				filled.set(Position.withRowColumn(row, column), values[index++ % DISTINCT_VALUES]);
+			}
+		}
+		return filled;
+	}
+
+	Position nextPosition() {
+		return positions[nextPosition++ & (POSITIONS - 1)];
+	}
+
+	Object nextValue() {
+		int value = nextValue;
+		nextValue = (value + 1 == DISTINCT_VALUES) ? 0 : value + 1;
+		return values[value];
+	}
+}
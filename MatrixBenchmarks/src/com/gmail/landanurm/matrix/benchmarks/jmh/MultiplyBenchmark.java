@@ -0,0 +1,110 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.DoubleMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.MatrixArithmetic;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Square matrix product: a triple loop over {@code get(Position)} of boxed
+ * {@code Double} matrices against {@link MatrixArithmetic#multiply} into a
+ * preallocated {@link DoubleMatrix}. The naive loop is left out at 8192,
+ * where one product would take hours. At that size the three unboxed
+ * matrices alone take 1.5 GB, so run with a large enough heap.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MultiplyBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BoxedState {
+		@Param({ "512", "2048" })
+		public int size;
+
+		Matrix<Double> a;
+		Matrix<Double> b;
+		Matrix<Double> result;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			Dimension dim = Dimension.withRowsColumns(size, size);
+			a = new ArrayMatrix<Double>(dim);
+			b = new ArrayMatrix<Double>(dim);
+			result = new ArrayMatrix<Double>(dim);
+			Random random = new Random(42);
+			for (int row = 0; row < size; ++row) {
+				for (int column = 0; column < size; ++column) {
+					a.set(Position.withRowColumn(row, column), random.nextDouble());
+					b.set(Position.withRowColumn(row, column), random.nextDouble());
+				}
+			}
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class UnboxedState {
+		@Param({ "512", "2048", "8192" })
+		public int size;
+
+		DoubleMatrix a;
+		DoubleMatrix b;
+		DoubleMatrix result;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			Dimension dim = Dimension.withRowsColumns(size, size);
+			a = new DoubleMatrix(dim);
+			b = new DoubleMatrix(dim);
+			result = new DoubleMatrix(dim);
+			Random random = new Random(42);
+			for (int row = 0; row < size; ++row) {
+				for (int column = 0; column < size; ++column) {
+					a.setDouble(row, column, random.nextDouble());
+					b.setDouble(row, column, random.nextDouble());
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public Matrix<Double> naive(BoxedState state) {
+		int size = state.size;
+		for (int row = 0; row < size; ++row) {
+			for (int column = 0; column < size; ++column) {
+				double sum = 0;
+				for (int k = 0; k < size; ++k) {
+					sum += state.a.get(Position.withRowColumn(row, k))
+						 * state.b.get(Position.withRowColumn(k, column));
+				}
+				state.result.set(Position.withRowColumn(row, column), sum);
+			}
+		}
+		return state.result;
+	}
+
+	@Benchmark
+	public DoubleMatrix blocked(UnboxedState state) {
+		return MatrixArithmetic.multiply(state.a, state.b, state.result);
+	}
+}
@@ -0,0 +1,105 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.BooleanMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.EnumMatrix;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Scans and fills of {@link BooleanMatrix} and {@link EnumMatrix}, which
+ * pack many cells into a word, against {@link ArrayMatrix} holding the same
+ * values as references.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PackedMatrixBenchmark {
+
+	public enum CellState { EMPTY, WALL, WATER, GRASS, SAND, ROCK }
+
+	@Param({ "64", "512", "2048" })
+	public int size;
+
+	private BooleanMatrix booleans;
+	private ArrayMatrix<Boolean> boxedBooleans;
+	private EnumMatrix<CellState> states;
+	private ArrayMatrix<CellState> boxedStates;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Dimension dim = Dimension.withRowsColumns(size, size);
+		booleans = new BooleanMatrix(dim);
+		states = new EnumMatrix<CellState>(dim, CellState.class);
+		Random random = new Random(42);
+		CellState[] constants = CellState.values();
+		for (int row = 0; row < size; ++row) {
+			for (int column = 0; column < size; ++column) {
+				Position pos = Position.withRowColumn(row, column);
+				booleans.setBoolean(row, column, random.nextBoolean());
+				states.set(pos, constants[random.nextInt(constants.length)]);
+			}
+		}
+		boxedBooleans = ArrayMatrix.copyOf(booleans);
+		boxedStates = ArrayMatrix.copyOf(states);
+	}
+
+	@Benchmark
+	public int countBooleans() {
+		return booleans.count(true);
+	}
+
+	@Benchmark
+	public int countBoxedBooleans() {
+		return boxedBooleans.count(true);
+	}
+
+	@Benchmark
+	public void fillBooleans() {
+		booleans.fill(true);
+	}
+
+	@Benchmark
+	public void fillBoxedBooleans() {
+		boxedBooleans.fill(true);
+	}
+
+	@Benchmark
+	public int countStates() {
+		return states.count(CellState.WATER);
+	}
+
+	@Benchmark
+	public int countBoxedStates() {
+		return boxedStates.count(CellState.WATER);
+	}
+
+	@Benchmark
+	public boolean containsAbsentState() {
+		return states.contains(null);
+	}
+
+	@Benchmark
+	public boolean containsAbsentBoxedState() {
+		return boxedStates.contains(null);
+	}
+}
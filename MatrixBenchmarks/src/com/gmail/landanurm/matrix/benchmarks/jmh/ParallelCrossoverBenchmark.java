@@ -0,0 +1,72 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * {@code count} against {@code parallelCount} and {@code fill} against
+ * {@code parallelFill} on the common pool, for square matrices of growing
+ * edge. The smallest edge where the parallel score is lower is where the
+ * parallel version starts to pay off on the machine running it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelCrossoverBenchmark {
+	private static final Integer ONE = Integer.valueOf(1);
+	private static final Integer TWO = Integer.valueOf(2);
+
+	@Param({ "16", "64", "256", "1024", "4096" })
+	public int edge;
+
+	private ForkJoinPool pool;
+	private ArrayMatrix<Integer> matrix;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		pool = ForkJoinPool.commonPool();
+		matrix = new ArrayMatrix<Integer>(Dimension.withRowsColumns(edge, edge));
+		matrix.fill(ONE);
+		matrix.set(Position.withRowColumn(edge - 1, edge - 1), TWO);
+	}
+
+	@Benchmark
+	public int count() {
+		return matrix.count(TWO);
+	}
+
+	@Benchmark
+	public int parallelCount() {
+		return matrix.parallelCount(TWO, pool);
+	}
+
+	@Benchmark
+	public void fill() {
+		matrix.fill(ONE);
+	}
+
+	@Benchmark
+	public void parallelFill() {
+		matrix.parallelFill(ONE, pool);
+	}
+}
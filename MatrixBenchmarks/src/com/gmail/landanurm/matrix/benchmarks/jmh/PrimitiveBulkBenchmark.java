@@ -0,0 +1,149 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.DoubleMatrix;
+import com.gmail.landanurm.matrix.IntMatrix;
+import com.gmail.landanurm.matrix.MatrixArithmetic;
+
+/**
+ * Bulk operations of {@link IntMatrix} and {@link DoubleMatrix}, whose
+ * loops are shaped for auto-vectorization, against the plain loops with a
+ * branch per element that they replaced. The {@code scalar} benchmarks run
+ * those plain loops over copies of the same values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveBulkBenchmark {
+
+	@Param({ "64", "512", "2048" })
+	public int size;
+
+	private IntMatrix ints;
+	private IntMatrix otherInts;
+	private IntMatrix intSum;
+	private DoubleMatrix doubles;
+	private int[] intValues;
+	private double[] doubleValues;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Dimension dim = Dimension.withRowsColumns(size, size);
+		ints = new IntMatrix(dim);
+		otherInts = new IntMatrix(dim);
+		intSum = new IntMatrix(dim);
+		doubles = new DoubleMatrix(dim);
+		Random random = new Random(42);
+		for (int row = 0; row < size; ++row) {
+			for (int column = 0; column < size; ++column) {
+				ints.setInt(row, column, random.nextInt(100));
+				otherInts.setInt(row, column, random.nextInt(100));
+				doubles.setDouble(row, column, random.nextInt(100) * 0.5);
+			}
+		}
+		intValues = ints.stream().toArray();
+		doubleValues = doubles.stream().toArray();
+	}
+
+	@Benchmark
+	public int countInts() {
+		return ints.count(42);
+	}
+
+	@Benchmark
+	public int countIntsScalar() {
+		int count = 0;
+		for (int each : intValues) {
+			if (each == 42) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public boolean containsAbsentInt() {
+		return ints.contains(-1);
+	}
+
+	@Benchmark
+	public boolean containsAbsentIntScalar() {
+		for (int each : intValues) {
+			if (each == -1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Benchmark
+	public int maxInt() {
+		return ints.max();
+	}
+
+	@Benchmark
+	public int maxIntScalar() {
+		int max = intValues[0];
+		for (int each : intValues) {
+			if (each > max) {
+				max = each;
+			}
+		}
+		return max;
+	}
+
+	@Benchmark
+	public IntMatrix addInts() {
+		return MatrixArithmetic.add(ints, otherInts, intSum);
+	}
+
+	@Benchmark
+	public int countDoubles() {
+		return doubles.count(21.0);
+	}
+
+	@Benchmark
+	public int countDoublesScalar() {
+		long bits = Double.doubleToLongBits(21.0);
+		int count = 0;
+		for (double each : doubleValues) {
+			if (Double.doubleToLongBits(each) == bits) {
+				++count;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public double minDouble() {
+		return doubles.min();
+	}
+
+	@Benchmark
+	public double minDoubleScalar() {
+		double min = doubleValues[0];
+		for (double each : doubleValues) {
+			min = Math.min(min, each);
+		}
+		return min;
+	}
+}
@@ -0,0 +1,91 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.gmail.landanurm.matrix.CellFunction;
+import com.gmail.landanurm.matrix.CellType;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.ReadOnlyMatrix;
+
+/**
+ * The matrices {@link ReadOnlyMatrixBenchmark} runs against: the read-only
+ * ones, and the ones that can only hold {@code double} values. Each is
+ * created as a copy of a source matrix. The constant names are the values
+ * of the {@code implementation} parameter.
+ */
+enum ReadOnlyImplementation {
+	ArrayMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) {
+			return com.gmail.landanurm.matrix.ArrayMatrix.copyOf(source);
+		}
+	},
+	ImmutableMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) {
+			return com.gmail.landanurm.matrix.ImmutableMatrix.copyOf(source);
+		}
+	},
+	CompressedMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) {
+			return com.gmail.landanurm.matrix.CompressedMatrix.copyOf(source);
+		}
+	},
+	ComputedMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(final ReadOnlyMatrix<Double> source) {
+			final Dimension dim = source.getDimension();
+			final Double[] cells = new Double[dim.rows * dim.columns];
+			source.forEach(new OnEachCellHandler<Double>() {
+				@Override
+				public void handle(int row, int column, Double elem) {
+					cells[row * dim.columns + column] = elem;
+				}
+			});
+			return com.gmail.landanurm.matrix.ComputedMatrix.of(dim, new CellFunction<Double>() {
+				@Override
+				public Double valueAt(int row, int column) {
+					return cells[row * dim.columns + column];
+				}
+			});
+		}
+	},
+	DoubleMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) {
+			return com.gmail.landanurm.matrix.DoubleMatrix.copyOf(source).asMatrix();
+		}
+	},
+	OffHeapMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) {
+			return com.gmail.landanurm.matrix.OffHeapMatrix.copyOf(source, CellType.DOUBLE);
+		}
+	},
+	MappedMatrix {
+		@Override
+		ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) throws IOException {
+			File file = File.createTempFile("ReadOnlyMatrixBenchmark", ".matrix");
+			file.deleteOnExit();
+			final com.gmail.landanurm.matrix.MappedMatrix<Double> mapped =
+					com.gmail.landanurm.matrix.MappedMatrix.create(file, source.getDimension(), CellType.DOUBLE);
+			source.forEach(new OnEachCellHandler<Double>() {
+				@Override
+				public void handle(int row, int column, Double elem) {
+					mapped.set(Position.withRowColumn(row, column), elem);
+				}
+			});
+			return mapped;
+		}
+	};
+
+	/**
+	 * Returns a matrix equal to {@code source}. Matrices that hold native
+	 * resources are {@link java.io.Closeable}.
+	 */
+	abstract ReadOnlyMatrix<Double> create(ReadOnlyMatrix<Double> source) throws IOException;
+}
@@ -0,0 +1,82 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.OnEachCellHandler;
+import com.gmail.landanurm.matrix.ReadOnlyMatrix;
+
+/**
+ * The reading operations of {@link ReadOnlyMatrix} on every implementation
+ * listed in {@link ReadOnlyImplementation}, measured the same way as
+ * {@link MatrixOperationsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadOnlyMatrixBenchmark {
+
+	@Benchmark
+	public Double get(ReadOnlyMatrixState state) {
+		return state.matrix.get(state.nextPosition());
+	}
+
+	@Benchmark
+	public void forEachCell(ReadOnlyMatrixState state, final Blackhole blackhole) {
+		state.matrix.forEach(new OnEachCellHandler<Double>() {
+			@Override
+			public void handle(int row, int column, Double elem) {
+				blackhole.consume(elem);
+			}
+		});
+	}
+
+	@Benchmark
+	public void iterate(ReadOnlyMatrixState state, Blackhole blackhole) {
+		for (Double each : state.matrix) {
+			blackhole.consume(each);
+		}
+	}
+
+	@Benchmark
+	public boolean containsPresent(ReadOnlyMatrixState state) {
+		return state.matrix.contains(state.nextValue());
+	}
+
+	@Benchmark
+	public boolean containsAbsent(ReadOnlyMatrixState state) {
+		return state.matrix.contains(state.absent);
+	}
+
+	@Benchmark
+	public int count(ReadOnlyMatrixState state) {
+		return state.matrix.count(state.nextValue());
+	}
+
+	@Benchmark
+	public Matrix<Double> copyOf(ReadOnlyMatrixState state) {
+		return ArrayMatrix.copyOf(state.matrix);
+	}
+
+	@Benchmark
+	public boolean equalsEqualCopy(ReadOnlyMatrixState state) {
+		return state.matrix.equals(state.equalCopy);
+	}
+
+	@Benchmark
+	public int hashCode(ReadOnlyMatrixState state) {
+		return state.matrix.hashCode();
+	}
+}
@@ -0,0 +1,95 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.MappedMatrix;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.ReadOnlyMatrix;
+
+/**
+ * Like {@link MatrixState}, for the implementations in
+ * {@link ReadOnlyImplementation}. The cells hold the same
+ * {@link MatrixState#DISTINCT_VALUES} distinct {@code Double} values, the
+ * one element type every one of them can store.
+ */
+@State(Scope.Thread)
+public class ReadOnlyMatrixState {
+
+	@Param({ "ArrayMatrix", "ImmutableMatrix", "CompressedMatrix", "ComputedMatrix",
+			 "DoubleMatrix", "OffHeapMatrix", "MappedMatrix" })
+	public String implementation;
+
+	@Param({ "16x16", "256x256", "1024x1024" })
+	public String dimension;
+
+	Dimension dim;
+	Double[] values;
+	Double absent;
+	ReadOnlyMatrix<Double> matrix;
+	ReadOnlyMatrix<Double> equalCopy;
+	Position[] positions;
+	int nextPosition;
+	int nextValue;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		String[] rowsColumns = dimension.split("x");
+		dim = Dimension.withRowsColumns(Integer.parseInt(rowsColumns[0]), Integer.parseInt(rowsColumns[1]));
+		values = new Double[MatrixState.DISTINCT_VALUES];
+		for (int i = 0; i < values.length; ++i) {
+			values[i] = (Double) ElementType.Double.element(i);
+		}
+		absent = (Double) ElementType.Double.element(MatrixState.DISTINCT_VALUES);
+		ArrayMatrix<Double> source = new ArrayMatrix<Double>(dim);
+		int index = 0;
+		for (int row = 0; row < dim.rows; ++row) {
+			for (int column = 0; column < dim.columns; ++column) {
+				source.set(Position.withRowColumn(row, column), values[index++ % values.length]);
+			}
+		}
+		ReadOnlyImplementation type = ReadOnlyImplementation.valueOf(implementation);
+		matrix = type.create(source);
+		equalCopy = type.create(source);
+		Random random = new Random(42);
+		positions = new Position[MatrixState.POSITIONS];
+		for (int i = 0; i < positions.length; ++i) {
+			positions[i] = Position.withRowColumn(random.nextInt(dim.rows), random.nextInt(dim.columns));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		release(matrix);
+		release(equalCopy);
+	}
+
+	private static void release(ReadOnlyMatrix<Double> matrix) throws IOException {
+		if (matrix instanceof Closeable) {
+			((Closeable) matrix).close();
+		}
+		if (matrix instanceof MappedMatrix<?>) {
+			((MappedMatrix<?>) matrix).getFile().delete();
+		}
+	}
+
+	Position nextPosition() {
+		return positions[nextPosition++ & (MatrixState.POSITIONS - 1)];
+	}
+
+	Double nextValue() {
+		int value = nextValue;
+		nextValue = (value + 1 == values.length) ? 0 : value + 1;
+		return values[value];
+	}
+}
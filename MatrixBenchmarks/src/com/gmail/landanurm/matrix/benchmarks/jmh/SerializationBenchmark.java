@@ -0,0 +1,109 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.MatrixFormat;
+import com.gmail.landanurm.matrix.Position;
+
+/**
+ * Writing and reading an {@link ArrayMatrix} through Java serialization and
+ * through {@link MatrixFormat} directly. Strings are written as objects by
+ * serialization but packed by the format, so both element types are worth
+ * comparing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@State(Scope.Thread)
+	public static class SerializationState {
+		@Param({ "16x16", "256x256", "1024x1024" })
+		public String dimension;
+
+		@Param({ "Integer", "Double", "String" })
+		public String elementType;
+
+		ArrayMatrix<Object> matrix;
+		byte[] serialized;
+		byte[] formatted;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			String[] rowsColumns = dimension.split("x");
+			Dimension dim = Dimension.withRowsColumns(Integer.parseInt(rowsColumns[0]),
+													  Integer.parseInt(rowsColumns[1]));
+			Object[] values = ElementType.valueOf(elementType).values(MatrixState.DISTINCT_VALUES);
+			matrix = new ArrayMatrix<Object>(dim);
+			int index = 0;
+			for (int row = 0; row < dim.rows; ++row) {
+				for (int column = 0; column < dim.columns; ++column) {
+					matrix.set(Position.withRowColumn(row, column), values[index++ % values.length]);
+				}
+			}
+			serialized = serialize(matrix);
+			formatted = format(matrix);
+		}
+	}
+
+	@Benchmark
+	public byte[] serialize(SerializationState state) throws IOException {
+		return serialize(state.matrix);
+	}
+
+	@Benchmark
+	public Object deserialize(SerializationState state) throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state.serialized));
+		return in.readObject();
+	}
+
+	@Benchmark
+	public byte[] writeFormat(SerializationState state) throws IOException {
+		return format(state.matrix);
+	}
+
+	@Benchmark
+	public Object readFormat(SerializationState state) throws IOException {
+		return MatrixFormat.read(new DataInputStream(new ByteArrayInputStream(state.formatted)));
+	}
+
+	private static byte[] serialize(ArrayMatrix<Object> matrix) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(matrix);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static byte[] format(ArrayMatrix<Object> matrix) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		MatrixFormat.write(matrix, out);
+		out.close();
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,99 @@
+package com.gmail.landanurm.matrix.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gmail.landanurm.matrix.ArrayMatrix;
+import com.gmail.landanurm.matrix.Dimension;
+import com.gmail.landanurm.matrix.Matrix;
+import com.gmail.landanurm.matrix.Position;
+import com.gmail.landanurm.matrix.TiledMatrix;
+
+/**
+ * Compares {@link TiledMatrix} with the row-major {@link ArrayMatrix} on a
+ * wide matrix for three access patterns: a row sweep, a column sweep and a
+ * five-point stencil over every inner cell. A layout is either
+ * {@code ArrayMatrix} or {@code TiledMatrix/<tile edge>}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TiledLayoutBenchmark {
+
+	private static final String TILED_PREFIX = "TiledMatrix/";
+
+	@Param({ "ArrayMatrix", "TiledMatrix/16", "TiledMatrix/32", "TiledMatrix/64" })
+	public String layout;
+
+	@Param({ "2048" })
+	public int size;
+
+	private Matrix<Integer> matrix;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Dimension dim = Dimension.withRowsColumns(size, size);
+		if (layout.startsWith(TILED_PREFIX)) {
+			matrix = new TiledMatrix<Integer>(dim, Integer.parseInt(layout.substring(TILED_PREFIX.length())));
+		} else {
+			matrix = new ArrayMatrix<Integer>(dim);
+		}
+		for (int row = 0; row < size; ++row) {
+			for (int column = 0; column < size; ++column) {
+				matrix.set(Position.withRowColumn(row, column), (row + column) & 0xff);
+			}
+		}
+	}
+
+	@Benchmark
+	public long rowSweep() {
+		long sum = 0;
+		for (int row = 0; row < size; ++row) {
+			for (int column = 0; column < size; ++column) {
+				sum += matrix.get(Position.withRowColumn(row, column));
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long columnSweep() {
+		long sum = 0;
+		for (int column = 0; column < size; ++column) {
+			for (int row = 0; row < size; ++row) {
+				sum += matrix.get(Position.withRowColumn(row, column));
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long stencil() {
+		long sum = 0;
+		for (int column = 1; column < size - 1; ++column) {
+			for (int row = 1; row < size - 1; ++row) {
+				sum += matrix.get(Position.withRowColumn(row - 1, column))
+					 + matrix.get(Position.withRowColumn(row + 1, column))
+					 + matrix.get(Position.withRowColumn(row, column - 1))
+					 + matrix.get(Position.withRowColumn(row, column + 1))
+					 - 4 * matrix.get(Position.withRowColumn(row, column));
+			}
+		}
+		return sum;
+	}
+}